@@ -1,7 +1,17 @@
 package com.jsondiff;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jsondiff.model.CompareRequest;
+import com.jsondiff.util.ExactNumbers;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import java.util.List;
 
 /**
  * JSON对比工具主启动类
@@ -10,9 +20,31 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * @version 1.0.0
  */
 @SpringBootApplication
+@EnableScheduling
 public class JsonDiffApplication {
 
     public static void main(String[] args) {
         SpringApplication.run(JsonDiffApplication.class, args);
     }
+
+    /**
+     * 只有对比请求体按精确数值解析小数，格式化、压缩、转换等接口仍使用全局ObjectMapper
+     */
+    @Bean
+    public WebMvcConfigurer exactNumbersConfigurer() {
+        return new WebMvcConfigurer() {
+            @Override
+            public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+                for (HttpMessageConverter<?> converter : converters) {
+                    if (converter instanceof MappingJackson2HttpMessageConverter jackson) {
+                        ObjectMapper exact = ExactNumbers.configure(jackson.getObjectMapper().copy());
+                        jackson.registerObjectMappersForType(CompareRequest.class, mappers -> {
+                            mappers.put(MediaType.APPLICATION_JSON, exact);
+                            mappers.put(new MediaType("application", "*+json"), exact);
+                        });
+                    }
+                }
+            }
+        };
+    }
 }
\ No newline at end of file
@@ -0,0 +1,128 @@
+package com.jsondiff.controller;
+
+import com.jsondiff.controller.JsonDiffController.ApiResponse;
+import com.jsondiff.model.CompareJob;
+import com.jsondiff.model.CompareJob.JobStatus;
+import com.jsondiff.model.CompareRequest;
+import com.jsondiff.model.DiffResult;
+import com.jsondiff.service.CompareJobService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 异步对比任务控制器
+ *
+ * @author JSON Diff Team
+ * @version 1.0.0
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/compare/jobs")
+@CrossOrigin(origins = "*")
+public class CompareJobController {
+
+    @Autowired
+    private CompareJobService compareJobService;
+
+    /**
+     * 提交对比任务，请求体与同步对比接口相同
+     */
+    @PostMapping
+    public ResponseEntity<ApiResponse<CompareJob>> submit(@RequestBody CompareRequest request,
+                                                          HttpServletRequest httpRequest) {
+        log.info("收到异步对比任务请求");
+
+        try {
+            CompareJob job = compareJobService.submit(request, httpRequest.getContentLengthLong());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponse.success(job));
+
+        } catch (TaskRejectedException e) {
+            log.warn("拒绝对比任务: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .body(ApiResponse.error(e.getMessage()));
+
+        } catch (IllegalArgumentException | ClassCastException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error("无效的对比设置: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * 查询任务状态
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<CompareJob>> status(@PathVariable String id) {
+        CompareJob job = compareJobService.get(id);
+        if (job == null) {
+            return notFound(id);
+        }
+        return ResponseEntity.ok(ApiResponse.success(job));
+    }
+
+    /**
+     * 查询任务进度
+     */
+    @GetMapping("/{id}/progress")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> progress(@PathVariable String id) {
+        CompareJob job = compareJobService.get(id);
+        if (job == null) {
+            return notFound(id);
+        }
+
+        Map<String, Object> progress = new HashMap<>();
+        progress.put("status", job.getStatus());
+        progress.put("progress", job.getProgress());
+        progress.put("visitedNodes", job.getVisitedNodes());
+        progress.put("totalNodes", job.getTotalNodes());
+        return ResponseEntity.ok(ApiResponse.success(progress));
+    }
+
+    /**
+     * 获取任务结果，任务未结束或已失败时返回409，已取消或结果已被淘汰时返回410
+     */
+    @GetMapping("/{id}/result")
+    public ResponseEntity<ApiResponse<DiffResult>> result(@PathVariable String id) {
+        CompareJob job = compareJobService.get(id);
+        if (job == null) {
+            return notFound(id);
+        }
+
+        if (job.getStatus() == JobStatus.FAILED) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(ApiResponse.error("任务失败: " + job.getError()));
+        }
+        if (job.getStatus() == JobStatus.CANCELLED) {
+            return ResponseEntity.status(HttpStatus.GONE).body(ApiResponse.error("任务已取消"));
+        }
+        if (job.getStatus() != JobStatus.COMPLETED) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.error("任务尚未完成，当前状态: " + job.getStatus()));
+        }
+        DiffResult result = compareJobService.getResult(job);
+        if (result == null) {
+            return ResponseEntity.status(HttpStatus.GONE).body(ApiResponse.error("任务结果已被淘汰，请重新提交"));
+        }
+        return ResponseEntity.ok(ApiResponse.success(result));
+    }
+
+    /**
+     * 取消任务
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ApiResponse<CompareJob>> cancel(@PathVariable String id) {
+        CompareJob job = compareJobService.cancel(id);
+        if (job == null) {
+            return notFound(id);
+        }
+        return ResponseEntity.ok(ApiResponse.success(job));
+    }
+
+    private <T> ResponseEntity<ApiResponse<T>> notFound(String id) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error("任务不存在: " + id));
+    }
+}
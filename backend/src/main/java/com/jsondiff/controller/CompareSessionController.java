@@ -0,0 +1,99 @@
+package com.jsondiff.controller;
+
+import com.jsondiff.controller.JsonDiffController.ApiResponse;
+import com.jsondiff.model.CompareRequest;
+import com.jsondiff.model.CompareSession;
+import com.jsondiff.model.DiffDelta;
+import com.jsondiff.service.CompareSessionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.Map;
+
+/**
+ * 增量对比会话控制器 - 创建会话后以JSON Patch提交修改，返回受影响子树的差异
+ *
+ * @author JSON Diff Team
+ * @version 1.0.0
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/compare/sessions")
+@CrossOrigin(origins = "*")
+public class CompareSessionController {
+
+    @Autowired
+    private CompareSessionService compareSessionService;
+
+    /**
+     * 创建会话，请求体与同步对比接口相同，返回完整的差异列表
+     */
+    @PostMapping
+    public ResponseEntity<ApiResponse<DiffDelta>> create(@RequestBody CompareRequest request) {
+        log.info("收到创建对比会话请求");
+
+        try {
+            return ResponseEntity.ok(ApiResponse.success(compareSessionService.create(request)));
+
+        } catch (TaskRejectedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(ApiResponse.error(e.getMessage()));
+
+        } catch (Exception e) {
+            log.error("创建对比会话失败", e);
+            return ResponseEntity.badRequest().body(ApiResponse.error("创建会话失败: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * 获取会话当前的完整差异列表
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<DiffDelta>> get(@PathVariable String id) {
+        DiffDelta delta = compareSessionService.snapshot(id);
+        if (delta == null) {
+            return notFound(id);
+        }
+        return ResponseEntity.ok(ApiResponse.success(delta));
+    }
+
+    /**
+     * 应用JSON Patch，返回增量差异；版本不一致时返回409
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<ApiResponse<DiffDelta>> patch(@PathVariable String id,
+                                                        @RequestBody CompareRequest request) {
+        try {
+            DiffDelta delta = compareSessionService.patch(id, request);
+            if (delta == null) {
+                return notFound(id);
+            }
+            return ResponseEntity.ok(ApiResponse.success(delta));
+
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(ApiResponse.error(e.getMessage()));
+
+        } catch (Exception e) {
+            log.warn("应用补丁失败: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(ApiResponse.error("应用补丁失败: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * 删除会话
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ApiResponse<CompareSession>> delete(@PathVariable String id) {
+        CompareSession session = compareSessionService.remove(id);
+        if (session == null) {
+            return notFound(id);
+        }
+        return ResponseEntity.ok(ApiResponse.success(session));
+    }
+
+    private <T> ResponseEntity<ApiResponse<T>> notFound(String id) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error("会话不存在或已过期: " + id));
+    }
+}
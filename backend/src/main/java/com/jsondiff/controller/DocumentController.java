@@ -0,0 +1,99 @@
+package com.jsondiff.controller;
+
+import com.jsondiff.controller.JsonDiffController.ApiResponse;
+import com.jsondiff.model.StoredDocument;
+import com.jsondiff.service.DocumentStore;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * 文档上传控制器 - 文档上传一次后返回句柄，对比时以 leftHandle/rightHandle 引用
+ *
+ * @author JSON Diff Team
+ * @version 1.0.0
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/documents")
+@CrossOrigin(origins = "*")
+public class DocumentController {
+
+    @Autowired
+    private DocumentStore documentStore;
+
+    /**
+     * 以multipart文件上传文档
+     */
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ApiResponse<StoredDocument>> upload(@RequestPart("file") MultipartFile file) {
+        log.info("收到文档上传请求，{} 字节", file.getSize());
+
+        try (InputStream in = file.getInputStream()) {
+            return ResponseEntity.ok(ApiResponse.success(documentStore.upload(in, file.getSize())));
+
+        } catch (Exception e) {
+            log.error("文档上传失败", e);
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    /**
+     * 以JSON请求体上传文档，请求体即文档内容
+     */
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ApiResponse<StoredDocument>> uploadBody(HttpServletRequest request) {
+        log.info("收到文档上传请求，{} 字节", request.getContentLengthLong());
+
+        try (InputStream in = request.getInputStream()) {
+            return ResponseEntity.ok(ApiResponse.success(documentStore.upload(in, request.getContentLengthLong())));
+
+        } catch (Exception e) {
+            log.error("文档上传失败", e);
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    /**
+     * 文档缓存统计
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> stats() {
+        return ResponseEntity.ok(ApiResponse.success(documentStore.getStats()));
+    }
+
+    /**
+     * 查询文档信息
+     */
+    @GetMapping("/{handle}")
+    public ResponseEntity<ApiResponse<StoredDocument>> get(@PathVariable String handle) {
+        StoredDocument document = documentStore.get(handle);
+        if (document == null) {
+            return notFound(handle);
+        }
+        return ResponseEntity.ok(ApiResponse.success(document));
+    }
+
+    /**
+     * 删除文档
+     */
+    @DeleteMapping("/{handle}")
+    public ResponseEntity<ApiResponse<StoredDocument>> delete(@PathVariable String handle) {
+        StoredDocument document = documentStore.remove(handle);
+        if (document == null) {
+            return notFound(handle);
+        }
+        return ResponseEntity.ok(ApiResponse.success(document));
+    }
+
+    private <T> ResponseEntity<ApiResponse<T>> notFound(String handle) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error("文档不存在或已过期: " + handle));
+    }
+}
@@ -0,0 +1,126 @@
+package com.jsondiff.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jsondiff.model.CompareRequest;
+import com.jsondiff.model.DiffResult;
+import com.jsondiff.model.ExportConfig;
+import com.jsondiff.model.ExportConfig.ExportFormat;
+import com.jsondiff.service.JsonDiffService;
+import com.jsondiff.util.ReportWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 报告导出控制器 - 对比过程中逐项写出HTML、Markdown、CSV或JSON报告，可选gzip压缩
+ *
+ * @author JSON Diff Team
+ * @version 1.0.0
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = "*")
+public class ExportController {
+
+    private static final DateTimeFormatter FILENAME_TIME = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss_SSS");
+
+    @Autowired
+    private JsonDiffService jsonDiffService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * 导出对比报告，请求体与同步对比接口相同，另加format（html/markdown/csv/json）和config（导出配置）
+     */
+    @PostMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestBody CompareRequest request) {
+        ExportConfig config = configOf(request);
+        JsonDiffController.checkSettings(() -> jsonDiffService.createCompareSettings(settingsOf(request)));
+        log.info("收到报告导出请求，格式 {}，压缩 {}", config.getFormat().toJson(), config.isGzip());
+
+        StreamingResponseBody body = out -> {
+            OutputStream target = config.isGzip() ? new GZIPOutputStream(out, 8192) : out;
+            try (ReportWriter writer = ReportWriter.create(target, config)) {
+                writer.writeHeader();
+                try {
+                    DiffResult result = jsonDiffService.compare(request, writer);
+                    Object left = config.isIncludeOriginal() ? jsonDiffService.resolveInput(request, "left") : null;
+                    Object right = config.isIncludeOriginal() ? jsonDiffService.resolveInput(request, "right") : null;
+                    writer.writeFooter(result, left, right);
+                } catch (RuntimeException e) {
+                    log.error("报告导出失败", e);
+                    writer.writeError(e.getMessage());
+                }
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(contentTypeOf(config))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(filenameOf(config), StandardCharsets.UTF_8).build().toString())
+                .body(body);
+    }
+
+    /**
+     * 解析导出配置，格式可以放在请求体顶层或配置中，无法识别时使用HTML
+     */
+    @SuppressWarnings("unchecked")
+    private ExportConfig configOf(Map<String, Object> request) {
+        Map<String, Object> configMap = new HashMap<>();
+        if (request.get("config") instanceof Map) {
+            configMap.putAll((Map<String, Object>) request.get("config"));
+        }
+        Object format = request.containsKey("format") ? request.get("format") : configMap.get("format");
+        configMap.remove("format");
+
+        ExportConfig config;
+        try {
+            config = objectMapper.convertValue(configMap, ExportConfig.class);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "无效的导出配置: " + e.getMessage());
+        }
+        config.setFormat(ExportFormat.from(format != null ? String.valueOf(format) : null));
+        return config;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> settingsOf(Map<String, Object> request) {
+        return (Map<String, Object>) request.get("settings");
+    }
+
+    private static MediaType contentTypeOf(ExportConfig config) {
+        if (config.isGzip()) {
+            return MediaType.parseMediaType("application/gzip");
+        }
+        String charset = "gbk".equalsIgnoreCase(config.getEncoding()) ? "GBK" : "UTF-8";
+        return MediaType.parseMediaType(config.getFormat().getContentType() + ";charset=" + charset);
+    }
+
+    /**
+     * 下载文件名，未指定时按当前时间生成，去掉路径分隔符等不能用于文件名的字符
+     */
+    private static String filenameOf(ExportConfig config) {
+        String name = config.getFilename();
+        name = name == null || name.isBlank()
+                ? "json-diff-" + LocalDateTime.now().format(FILENAME_TIME)
+                : name.replaceAll("[\\\\/:*?\"<>|\\r\\n]", "_");
+        name += "." + config.getFormat().getExtension();
+        return config.isGzip() ? name + ".gz" : name;
+    }
+}
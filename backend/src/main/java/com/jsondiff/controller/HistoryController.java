@@ -0,0 +1,99 @@
+package com.jsondiff.controller;
+
+import com.jsondiff.controller.JsonDiffController.ApiResponse;
+import com.jsondiff.model.DiffResult;
+import com.jsondiff.model.HistoryEntry;
+import com.jsondiff.service.HistoryService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.Map;
+
+/**
+ * 对比历史控制器
+ *
+ * @author JSON Diff Team
+ * @version 1.0.0
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/history")
+@CrossOrigin(origins = "*")
+public class HistoryController {
+
+    @Autowired
+    private HistoryService historyService;
+
+    /**
+     * 保存对比历史，请求体为 {name, result} 或与同步对比接口相同的请求体
+     */
+    @PostMapping
+    public ResponseEntity<ApiResponse<HistoryEntry>> save(@RequestBody Map<String, Object> request) {
+        log.info("收到保存对比历史请求");
+
+        try {
+            return ResponseEntity.ok(ApiResponse.success(historyService.save(request)));
+
+        } catch (Exception e) {
+            log.error("保存对比历史失败", e);
+            return ResponseEntity.badRequest().body(ApiResponse.error("保存历史失败: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * 分页获取历史记录列表（只含元数据），按保存时间倒序
+     */
+    @GetMapping
+    public ResponseEntity<ApiResponse<Map<String, Object>>> list(@RequestParam(defaultValue = "0") int page,
+                                                                 @RequestParam(defaultValue = "20") int size) {
+        if (page < 0 || size <= 0 || size > 1000) {
+            return ResponseEntity.badRequest().body(ApiResponse.error("分页参数无效"));
+        }
+        return ResponseEntity.ok(ApiResponse.success(historyService.list(page, size)));
+    }
+
+    /**
+     * 获取历史记录的对比结果，差异列表按offset/limit分页，limit为0时返回全部
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<DiffResult>> get(@PathVariable String id,
+                                                       @RequestParam(defaultValue = "0") int offset,
+                                                       @RequestParam(defaultValue = "0") int limit) {
+        try {
+            DiffResult result = historyService.get(id, offset, limit);
+            if (result == null) {
+                return notFound(id);
+            }
+            return ResponseEntity.ok(ApiResponse.success(result));
+
+        } catch (Exception e) {
+            log.error("读取对比历史失败", e);
+            return ResponseEntity.internalServerError().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    /**
+     * 删除历史记录
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ApiResponse<Boolean>> delete(@PathVariable String id) {
+        if (!historyService.delete(id)) {
+            return notFound(id);
+        }
+        return ResponseEntity.ok(ApiResponse.success(true));
+    }
+
+    /**
+     * 清空全部历史记录
+     */
+    @DeleteMapping
+    public ResponseEntity<ApiResponse<Integer>> clear() {
+        return ResponseEntity.ok(ApiResponse.success(historyService.clear()));
+    }
+
+    private <T> ResponseEntity<ApiResponse<T>> notFound(String id) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error("历史记录不存在或已过期: " + id));
+    }
+}
@@ -1,13 +1,25 @@
 package com.jsondiff.controller;
 
+import com.jsondiff.model.CompareRequest;
+import com.jsondiff.model.CompareSettings;
 import com.jsondiff.model.DiffResult;
 import com.jsondiff.service.JsonDiffService;
+import com.jsondiff.util.NdjsonDiffWriter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * JSON对比控制器
@@ -21,6 +33,8 @@ import java.util.Map;
 @CrossOrigin(origins = "*")
 public class JsonDiffController {
     
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    
     @Autowired
     private JsonDiffService jsonDiffService;
     
@@ -28,13 +42,16 @@ public class JsonDiffController {
      * JSON对比接口
      */
     @PostMapping("/compare")
-    public ResponseEntity<ApiResponse<DiffResult>> compare(@RequestBody Map<String, Object> request) {
+    public ResponseEntity<ApiResponse<DiffResult>> compare(@RequestBody CompareRequest request) {
         log.info("收到JSON对比请求");
         
         try {
             DiffResult result = jsonDiffService.compare(request);
             return ResponseEntity.ok(ApiResponse.success(result));
             
+        } catch (TaskRejectedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(ApiResponse.error(e.getMessage()));
+            
         } catch (Exception e) {
             log.error("JSON对比失败", e);
             return ResponseEntity.badRequest()
@@ -42,6 +59,104 @@ public class JsonDiffController {
         }
     }
     
+    /**
+     * JSON对比接口 - NDJSON输出，每行一个差异项，最后一行为统计信息
+     */
+    @PostMapping(value = "/compare", params = "output=ndjson")
+    @SuppressWarnings("unchecked")
+    public ResponseEntity<StreamingResponseBody> compareNdjson(@RequestBody CompareRequest request) {
+        log.info("收到JSON对比请求（NDJSON输出）");
+        checkSettings(() -> jsonDiffService.createCompareSettings((Map<String, Object>) request.get("settings")));
+        
+        StreamingResponseBody body = out -> {
+            try (NdjsonDiffWriter writer = new NdjsonDiffWriter(out)) {
+                writeNdjson(writer, () -> jsonDiffService.compare(request, writer));
+            }
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+    
+    /**
+     * JSON流式对比接口 - NDJSON输出
+     */
+    @PostMapping(value = "/compare/stream", params = "output=ndjson", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<StreamingResponseBody> compareStreamNdjson(@RequestPart("left") MultipartFile left,
+                                                                     @RequestPart("right") MultipartFile right,
+                                                                     @RequestParam(value = "settings", required = false) String settings) {
+        log.info("收到JSON流式对比请求（NDJSON输出），左侧 {} 字节，右侧 {} 字节", left.getSize(), right.getSize());
+        checkSettings(() -> jsonDiffService.createCompareSettings(settings));
+        
+        StreamingResponseBody body = out -> {
+            try (NdjsonDiffWriter writer = new NdjsonDiffWriter(out);
+                 InputStream leftStream = left.getInputStream();
+                 InputStream rightStream = right.getInputStream()) {
+                writeNdjson(writer, () -> jsonDiffService.compare(leftStream, rightStream, settings, writer));
+            }
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+    
+    /**
+     * 开始输出前校验对比设置，无效时返回400
+     */
+    static void checkSettings(Supplier<CompareSettings> settings) {
+        try {
+            settings.get();
+        } catch (IllegalArgumentException | ClassCastException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+    
+    /**
+     * 执行对比并写出NDJSON统计信息行，失败时写出错误信息行
+     */
+    private void writeNdjson(NdjsonDiffWriter writer, Supplier<DiffResult> compare) throws IOException {
+        try {
+            writer.writeSummary(compare.get());
+        } catch (RuntimeException e) {
+            log.error("JSON对比失败", e);
+            writer.writeError(e.getMessage());
+        }
+    }
+    
+    /**
+     * 对比结果缓存统计接口
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> cacheStats() {
+        return ResponseEntity.ok(ApiResponse.success(jsonDiffService.getCacheStats()));
+    }
+    
+    /**
+     * 清空对比结果缓存接口
+     */
+    @DeleteMapping("/cache")
+    public ResponseEntity<ApiResponse<Void>> clearCache() {
+        jsonDiffService.clearCache();
+        return ResponseEntity.ok(ApiResponse.success("缓存已清空", null));
+    }
+    
+    /**
+     * JSON流式对比接口，左右两侧以multipart文件上传，直接交给流式比较器解析
+     */
+    @PostMapping(value = "/compare/stream", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ApiResponse<DiffResult>> compareStream(@RequestPart("left") MultipartFile left,
+                                                                 @RequestPart("right") MultipartFile right,
+                                                                 @RequestParam(value = "settings", required = false) String settings) {
+        log.info("收到JSON流式对比请求，左侧 {} 字节，右侧 {} 字节", left.getSize(), right.getSize());
+        
+        try (InputStream leftStream = left.getInputStream();
+             InputStream rightStream = right.getInputStream()) {
+            DiffResult result = jsonDiffService.compare(leftStream, rightStream, settings);
+            return ResponseEntity.ok(ApiResponse.success(result));
+            
+        } catch (Exception e) {
+            log.error("JSON流式对比失败", e);
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+    
     /**
      * JSON验证接口 ---前端校验
      */
@@ -0,0 +1,80 @@
+package com.jsondiff.controller;
+
+import com.jsondiff.controller.JsonDiffController.ApiResponse;
+import com.jsondiff.model.DiffResult;
+import com.jsondiff.service.LocalFileCompareService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Map;
+
+/**
+ * 本地文件对比控制器 - 管理接口，对比服务器上允许目录内的两个文件
+ *
+ * 请求须在 X-Admin-Token 请求头中携带 json-diff.local-files.token 配置的令牌，未配置令牌时拒绝所有请求。
+ *
+ * @author JSON Diff Team
+ * @version 1.0.0
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/admin")
+public class LocalFileController {
+
+    @Autowired
+    private LocalFileCompareService localFileCompareService;
+
+    @Value("${json-diff.local-files.token:}")
+    private String adminToken;
+
+    /**
+     * 对比本地文件，请求体：left、right（相对于允许目录的路径）、settings（可选）
+     */
+    @PostMapping("/compare-files")
+    @SuppressWarnings("unchecked")
+    public ResponseEntity<ApiResponse<DiffResult>> compareFiles(
+            @RequestHeader(value = "X-Admin-Token", required = false) String token,
+            @RequestBody Map<String, Object> request) {
+        log.info("收到本地文件对比请求");
+
+        if (adminToken.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(ApiResponse.error("未启用管理接口，请配置 json-diff.local-files.token"));
+        }
+        if (!isAdminToken(token)) {
+            log.warn("拒绝本地文件对比: 管理令牌无效");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(ApiResponse.error("管理令牌无效"));
+        }
+
+        try {
+            DiffResult result = localFileCompareService.compare((String) request.get("left"),
+                    (String) request.get("right"), (Map<String, Object>) request.get("settings"));
+            return ResponseEntity.ok(ApiResponse.success(result));
+
+        } catch (IllegalStateException | SecurityException e) {
+            log.warn("拒绝本地文件对比: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(ApiResponse.error(e.getMessage()));
+
+        } catch (TaskRejectedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(ApiResponse.error(e.getMessage()));
+
+        } catch (Exception e) {
+            log.error("本地文件对比失败", e);
+            return ResponseEntity.badRequest().body(ApiResponse.error("对比失败: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * 按固定时间比较令牌，避免通过响应时间逐字节猜测
+     */
+    private boolean isAdminToken(String token) {
+        return token != null && MessageDigest.isEqual(
+                token.getBytes(StandardCharsets.UTF_8), adminToken.getBytes(StandardCharsets.UTF_8));
+    }
+}
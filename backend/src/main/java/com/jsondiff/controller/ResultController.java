@@ -0,0 +1,150 @@
+package com.jsondiff.controller;
+
+import com.jsondiff.controller.JsonDiffController.ApiResponse;
+import com.jsondiff.model.DiffItem;
+import com.jsondiff.model.DiffPage;
+import com.jsondiff.model.DiffTreeNode;
+import com.jsondiff.model.StoredResult;
+import com.jsondiff.service.ResultStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 对比结果控制器 - 对比结果保存在服务端，按游标分页拉取差异项，按子树获取差异数量
+ *
+ * @author JSON Diff Team
+ * @version 1.0.0
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/results")
+@CrossOrigin(origins = "*")
+public class ResultController {
+
+    private static final int MAX_LIMIT = 10000;
+
+    @Autowired
+    private ResultStore resultStore;
+
+    /**
+     * 保存对比结果，请求体为 {result} 或与同步对比接口相同的请求体；返回句柄、统计和根节点的子节点
+     */
+    @PostMapping
+    public ResponseEntity<ApiResponse<StoredResult>> create(@RequestBody Map<String, Object> request) {
+        log.info("收到保存对比结果请求");
+
+        try {
+            return ResponseEntity.ok(ApiResponse.success(resultStore.create(request)));
+
+        } catch (Exception e) {
+            log.error("保存对比结果失败", e);
+            return ResponseEntity.badRequest().body(ApiResponse.error("保存结果失败: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * 获取缓存统计信息
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getStats() {
+        return ResponseEntity.ok(ApiResponse.success(resultStore.getStats()));
+    }
+
+    /**
+     * 获取结果的统计和根节点的子节点
+     */
+    @GetMapping("/{handle}")
+    public ResponseEntity<ApiResponse<StoredResult>> get(@PathVariable String handle) {
+        StoredResult stored = resultStore.get(handle);
+        if (stored == null) {
+            return notFound(handle);
+        }
+        return ResponseEntity.ok(ApiResponse.success(stored));
+    }
+
+    /**
+     * 分页获取差异项，可按路径前缀（子树）、类型（逗号分隔）和深度范围过滤
+     */
+    @GetMapping("/{handle}/items")
+    public ResponseEntity<ApiResponse<DiffPage>> items(@PathVariable String handle,
+                                                       @RequestParam(required = false) String path,
+                                                       @RequestParam(required = false) String type,
+                                                       @RequestParam(defaultValue = "0") int minDepth,
+                                                       @RequestParam(defaultValue = "0") int maxDepth,
+                                                       @RequestParam(defaultValue = "0") int cursor,
+                                                       @RequestParam(defaultValue = "100") int limit) {
+        if (cursor < 0 || limit <= 0 || limit > MAX_LIMIT) {
+            return ResponseEntity.badRequest().body(ApiResponse.error("分页参数无效"));
+        }
+        List<DiffItem.DiffType> types;
+        try {
+            types = parseTypes(type);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error("无效的差异类型: " + type));
+        }
+
+        DiffPage page = resultStore.query(handle, path, types, minDepth, maxDepth, cursor, limit);
+        if (page == null) {
+            return notFound(handle);
+        }
+        return ResponseEntity.ok(ApiResponse.success(page));
+    }
+
+    /**
+     * 获取路径对应子树的差异数量和一页子节点
+     */
+    @GetMapping("/{handle}/tree")
+    public ResponseEntity<ApiResponse<DiffTreeNode>> tree(@PathVariable String handle,
+                                                          @RequestParam(required = false) String path,
+                                                          @RequestParam(defaultValue = "0") int offset,
+                                                          @RequestParam(defaultValue = "100") int limit) {
+        if (offset < 0 || limit < 0 || limit > MAX_LIMIT) {
+            return ResponseEntity.badRequest().body(ApiResponse.error("分页参数无效"));
+        }
+        try {
+            DiffTreeNode node = resultStore.tree(handle, path, offset, limit);
+            if (node == null) {
+                return notFound(handle);
+            }
+            return ResponseEntity.ok(ApiResponse.success(node));
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    /**
+     * 删除结果
+     */
+    @DeleteMapping("/{handle}")
+    public ResponseEntity<ApiResponse<StoredResult>> delete(@PathVariable String handle) {
+        StoredResult stored = resultStore.remove(handle);
+        if (stored == null) {
+            return notFound(handle);
+        }
+        return ResponseEntity.ok(ApiResponse.success(stored));
+    }
+
+    private static List<DiffItem.DiffType> parseTypes(String type) {
+        List<DiffItem.DiffType> types = new ArrayList<>();
+        if (type != null) {
+            for (String name : type.split(",")) {
+                if (!name.isBlank()) {
+                    types.add(DiffItem.DiffType.valueOf(name.trim().toUpperCase(Locale.ROOT)));
+                }
+            }
+        }
+        return types;
+    }
+
+    private <T> ResponseEntity<ApiResponse<T>> notFound(String handle) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error("结果不存在或已过期: " + handle));
+    }
+}
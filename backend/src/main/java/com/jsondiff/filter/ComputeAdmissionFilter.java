@@ -0,0 +1,109 @@
+package com.jsondiff.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jsondiff.controller.JsonDiffController.ApiResponse;
+import com.jsondiff.service.ComputeAdmission;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 计算准入过滤器 - 限制同时执行的大请求数量
+ *
+ * 请求线程（尤其是虚拟线程）可以很多，但对比和转换是CPU密集型操作。请求体超过阈值
+ * 或长度未知的对比、转换请求以及对比会话的补丁请求必须先取得计算许可（按请求体大小占用），
+ * 等待超时返回503；小请求直接放行。
+ * 异步输出（NDJSON）的请求在异步处理结束后才归还许可。
+ *
+ * @author JSON Diff Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "json-diff.admission", name = "enabled", havingValue = "true")
+public class ComputeAdmissionFilter extends OncePerRequestFilter {
+
+    /**
+     * 需要准入控制的接口
+     */
+    private static final Set<String> GUARDED_PATHS = Set.of("/api/compare", "/api/compare/stream", "/api/convert",
+            "/api/export", "/api/results", "/api/compare/sessions");
+
+    /**
+     * 会话补丁接口前缀，补丁本身很小，但差异列表不完整时会重新完整比较整个会话
+     */
+    private static final String SESSIONS_PREFIX = "/api/compare/sessions/";
+
+    private final ObjectMapper objectMapper;
+    private final ComputeAdmission admission;
+
+    public ComputeAdmissionFilter(ObjectMapper objectMapper, ComputeAdmission admission) {
+        this.objectMapper = objectMapper;
+        this.admission = admission;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // 会话补丁不论大小都需要许可
+        if ("PATCH".equals(request.getMethod()) && request.getRequestURI().startsWith(SESSIONS_PREFIX)) {
+            return false;
+        }
+        // 长度未知（分块传输）的请求按大请求处理
+        long length = request.getContentLengthLong();
+        return !GUARDED_PATHS.contains(request.getRequestURI()) || (length >= 0 && length < admission.getThreshold());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        int weight = admission.weightOf(request.getContentLengthLong());
+        try {
+            if (!admission.acquire(weight)) {
+                log.warn("计算许可已用完，拒绝请求 {}（{} 字节）", request.getRequestURI(), request.getContentLengthLong());
+                reject(response);
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reject(response);
+            return;
+        }
+
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                admission.release(weight);
+            }
+        };
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseListener(release));
+            } else {
+                release.run();
+            }
+        }
+    }
+
+    /**
+     * 返回503，提示客户端稍后重试
+     */
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader("Retry-After", String.valueOf(Math.max(1, admission.getWaitMillis() / 1000)));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), ApiResponse.error("服务繁忙，请稍后重试"));
+    }
+}
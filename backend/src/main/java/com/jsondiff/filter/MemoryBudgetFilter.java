@@ -0,0 +1,112 @@
+package com.jsondiff.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jsondiff.controller.JsonDiffController.ApiResponse;
+import com.jsondiff.service.MemoryBudget;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 内存预算准入过滤器 - 在读取请求体之前按内容长度预留内存
+ *
+ * 估算超过总预算的请求返回413；预算暂时不足时排队等待，超时返回503。
+ * 异步输出（NDJSON）的请求在异步处理结束后才归还预留。
+ * 异步对比任务的提交请求不经过本过滤器，由任务服务预留，任务结束时归还。
+ *
+ * @author JSON Diff Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(prefix = "json-diff.memory", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class MemoryBudgetFilter extends OncePerRequestFilter {
+
+    private static final String STREAM_PATH = "/api/compare/stream";
+
+    /**
+     * 异步任务在CompareJobService中按任务生命周期预留内存，过滤器不再重复预留
+     */
+    private static final String JOBS_PATH = "/api/compare/jobs";
+
+    private final ObjectMapper objectMapper;
+    private final MemoryBudget memoryBudget;
+    private final long waitMillis;
+
+    public MemoryBudgetFilter(ObjectMapper objectMapper, MemoryBudget memoryBudget,
+                              @Value("${json-diff.memory.wait:10000}") long waitMillis) {
+        this.objectMapper = objectMapper;
+        this.memoryBudget = memoryBudget;
+        this.waitMillis = waitMillis;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // 只有带请求体的接口需要预留
+        return !"POST".equals(request.getMethod()) || !request.getRequestURI().startsWith("/api/")
+                || JOBS_PATH.equals(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long bytes = memoryBudget.estimate(request.getContentLengthLong(), STREAM_PATH.equals(request.getRequestURI()));
+        if (memoryBudget.exceedsTotal(bytes)) {
+            log.warn("请求 {} 估算需要 {} 字节内存，超过总预算", request.getRequestURI(), bytes);
+            reject(response, HttpStatus.PAYLOAD_TOO_LARGE, "请求过大，超过服务内存预算");
+            return;
+        }
+
+        try {
+            if (!memoryBudget.reserve(bytes, waitMillis)) {
+                log.warn("内存预算不足，拒绝请求 {}（估算 {} 字节）", request.getRequestURI(), bytes);
+                response.setHeader("Retry-After", String.valueOf(Math.max(1, waitMillis / 1000)));
+                reject(response, HttpStatus.SERVICE_UNAVAILABLE, "服务繁忙，请稍后重试");
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, "服务繁忙，请稍后重试");
+            return;
+        }
+
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                memoryBudget.release(bytes);
+            }
+        };
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseListener(release));
+            } else {
+                release.run();
+            }
+        }
+    }
+
+    /**
+     * 返回错误响应
+     */
+    private void reject(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), ApiResponse.error(message));
+    }
+}
@@ -0,0 +1,40 @@
+package com.jsondiff.filter;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+
+/**
+ * 异步处理结束时归还准入资源的监听器
+ *
+ * @author JSON Diff Team
+ * @version 1.0.0
+ */
+class ReleaseListener implements AsyncListener {
+
+    private final Runnable release;
+
+    ReleaseListener(Runnable release) {
+        this.release = release;
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+        release.run();
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+        release.run();
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+        release.run();
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+        // 重新开始异步处理时监听器会被清除，需要再次注册
+        event.getAsyncContext().addListener(this);
+    }
+}
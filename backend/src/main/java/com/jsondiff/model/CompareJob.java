@@ -0,0 +1,195 @@
+package com.jsondiff.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.jsondiff.util.JsonComparator;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 异步对比任务模型
+ *
+ * @author JSON Diff Team
+ * @version 1.0.0
+ */
+@Data
+@NoArgsConstructor
+public class CompareJob {
+
+    /**
+     * 任务ID
+     */
+    private String id;
+
+    /**
+     * 任务状态
+     */
+    private volatile JobStatus status = JobStatus.QUEUED;
+
+    /**
+     * 提交时间
+     */
+    private LocalDateTime createdAt;
+
+    /**
+     * 开始执行时间
+     */
+    private volatile LocalDateTime startedAt;
+
+    /**
+     * 结束时间
+     */
+    private volatile LocalDateTime finishedAt;
+
+    /**
+     * 两侧文档中较大一侧的节点数量，用于估算进度
+     */
+    private volatile long totalNodes;
+
+    /**
+     * 失败原因
+     */
+    private volatile String error;
+
+    /**
+     * 任务占用的内存预算（字节），结束时以getAndSet(0)取出归还，保证只归还一次
+     */
+    @JsonIgnore
+    private final AtomicLong reservedMemory = new AtomicLong();
+
+    /**
+     * 对比请求，开始执行后释放
+     */
+    @JsonIgnore
+    private volatile Map<String, Object> request;
+
+    /**
+     * 左侧输入，提交时解析，引用已上传文档时为文档本身，开始执行后释放
+     */
+    @JsonIgnore
+    private volatile Object left;
+
+    /**
+     * 右侧输入，提交时解析，引用已上传文档时为文档本身，开始执行后释放
+     */
+    @JsonIgnore
+    private volatile Object right;
+
+    /**
+     * 正在执行的比较器，用于读取进度和取消
+     */
+    @JsonIgnore
+    private volatile JsonComparator comparator;
+
+    /**
+     * 执行器返回的Future，用于取消排队中的任务
+     */
+    @JsonIgnore
+    private volatile Future<?> future;
+
+    /**
+     * 对比结果，完成后由任务服务移入按大小限制容量的结果缓存
+     */
+    @JsonIgnore
+    private volatile DiffResult result;
+
+    /**
+     * 已完成任务的差异总数，结果移出任务后仍可查询
+     */
+    private volatile int totalDifferences;
+
+    /**
+     * 任务状态枚举
+     */
+    public enum JobStatus {
+        QUEUED,     // 排队中
+        RUNNING,    // 执行中
+        COMPLETED,  // 已完成
+        FAILED,     // 失败
+        CANCELLED   // 已取消
+    }
+
+    /**
+     * 构造函数
+     */
+    public CompareJob(String id, Map<String, Object> request) {
+        this.id = id;
+        this.request = request;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    /**
+     * 状态从from变为to，当前状态不是from时不变
+     *
+     * @return 是否已变更
+     */
+    public synchronized boolean transition(JobStatus from, JobStatus to) {
+        if (status != from) {
+            return false;
+        }
+        status = to;
+        return true;
+    }
+
+    /**
+     * 执行中的任务保存结果并标记为已完成，已被取消时不保存
+     *
+     * @return 是否已完成
+     */
+    public synchronized boolean complete(DiffResult result) {
+        if (status != JobStatus.RUNNING) {
+            return false;
+        }
+        this.result = result;
+        this.totalDifferences = result.getTotalDifferences();
+        status = JobStatus.COMPLETED;
+        return true;
+    }
+
+    /**
+     * 将未结束的任务标记为已取消
+     *
+     * @return 取消前的状态
+     */
+    public synchronized JobStatus markCancelled() {
+        JobStatus previous = status;
+        if (!isFinished()) {
+            status = JobStatus.CANCELLED;
+        }
+        return previous;
+    }
+
+    /**
+     * 已访问的节点数量
+     */
+    public long getVisitedNodes() {
+        JsonComparator current = comparator;
+        if (current != null) {
+            return current.getVisitedNodes();
+        }
+        return status == JobStatus.COMPLETED ? totalNodes : 0;
+    }
+
+    /**
+     * 估算的进度百分比，完成前最多显示99
+     */
+    public int getProgress() {
+        if (status == JobStatus.COMPLETED) {
+            return 100;
+        }
+        if (totalNodes <= 0) {
+            return 0;
+        }
+        return (int) Math.min(99, getVisitedNodes() * 100 / totalNodes);
+    }
+
+    /**
+     * 任务是否已结束
+     */
+    public boolean isFinished() {
+        return status == JobStatus.COMPLETED || status == JobStatus.FAILED || status == JobStatus.CANCELLED;
+    }
+}
@@ -0,0 +1,15 @@
+package com.jsondiff.model;
+
+import java.util.LinkedHashMap;
+
+/**
+ * 对比请求体 - 内容与Map形式的请求相同，读取时按精确数值解析小数，
+ * 使内联的JSON文档与字符串形式的文档得到相同的比较结果；其他接口的请求体仍按默认方式解析
+ *
+ * @author JSON Diff Team
+ * @version 1.0.0
+ */
+public class CompareRequest extends LinkedHashMap<String, Object> {
+
+    private static final long serialVersionUID = 1L;
+}
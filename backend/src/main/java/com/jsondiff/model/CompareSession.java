@@ -0,0 +1,95 @@
+package com.jsondiff.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 增量对比会话 - 服务端保存左右文档和当前差异列表，客户端以JSON Patch提交修改
+ *
+ * @author JSON Diff Team
+ * @version 1.0.0
+ */
+@Data
+@NoArgsConstructor
+public class CompareSession {
+
+    /**
+     * 会话ID
+     */
+    private String id;
+
+    /**
+     * 版本号，每应用一次补丁加1
+     */
+    private long version;
+
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createdAt;
+
+    /**
+     * 最后修改时间
+     */
+    private LocalDateTime updatedAt;
+
+    /**
+     * 两侧文档估算占用的字节数
+     */
+    private long estimatedSize;
+
+    /**
+     * 差异列表是否完整，截断或超时后下一次修改重新完整比较
+     */
+    private boolean complete;
+
+    /**
+     * 对比设置
+     */
+    @JsonIgnore
+    private CompareSettings settings;
+
+    /**
+     * 左侧文档
+     */
+    @JsonIgnore
+    private JsonNode left;
+
+    /**
+     * 右侧文档
+     */
+    @JsonIgnore
+    private JsonNode right;
+
+    /**
+     * 当前差异列表
+     */
+    @JsonIgnore
+    private List<DiffItem> differences = new ArrayList<>();
+
+    /**
+     * 构造函数
+     */
+    public CompareSession(String id, JsonNode left, JsonNode right, CompareSettings settings) {
+        this.id = id;
+        this.left = left;
+        this.right = right;
+        this.settings = settings;
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = createdAt;
+    }
+
+    /**
+     * 按当前差异列表统计
+     */
+    public DiffStats getStats() {
+        DiffResult counter = new DiffResult();
+        differences.forEach(counter::addDifference);
+        return counter.getStats();
+    }
+}
@@ -1,8 +1,12 @@
 package com.jsondiff.model;
 
+import com.fasterxml.jackson.annotation.JsonValue;
 import lombok.Data;
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * JSON对比设置模型
@@ -54,6 +58,11 @@ public class CompareSettings {
      */
     private int maxDifferences = 0;
     
+    /**
+     * 是否只判断两侧是否相同，发现第一个差异即停止
+     */
+    private boolean equalityOnly = false;
+    
     /**
      * 是否包含数组长度变化
      */
@@ -64,6 +73,122 @@ public class CompareSettings {
      */
     private boolean trackLineNumbers = true;
     
+    /**
+     * 结果中是否回显原始左右JSON
+     */
+    private boolean includeInputs = false;
+    
+    /**
+     * 差异值的输出模式
+     */
+    private ValueMode valueMode = ValueMode.FULL;
+    
+    /**
+     * 预览模式下差异值的最大字符数
+     */
+    private int previewLength = 200;
+    
+    /**
+     * 是否对大对象和大数组启用并行比较
+     */
+    private boolean parallel = false;
+    
+    /**
+     * 启用并行比较的子节点数量阈值，也是每个并行任务处理的最大子节点数
+     */
+    private int parallelThreshold = 1000;
+    
+    /**
+     * 是否预先计算结构哈希，跳过完全相同的子树
+     */
+    private boolean structuralHash = false;
+    
+    /**
+     * 有序数组的比较方式
+     */
+    private ArrayMode arrayMode = ArrayMode.INDEX;
+    
+    /**
+     * 序列差异算法单个子问题允许的最大编辑距离，超过后不再寻找匹配
+     */
+    private int maxEditCost = 2000;
+    
+    /**
+     * 序列差异模式下是否识别元素移动
+     */
+    private boolean detectMoves = true;
+    
+    /**
+     * 数组元素的标识字段，键为数组路径（下标写作[*]，如 $.users、$.orders[*].items），
+     * 值为一个或多个标识字段名；配置了标识字段的数组按标识匹配元素，不按位置
+     */
+    private Map<String, List<String>> arrayKeys = new HashMap<>();
+    
+    /**
+     * 数值比较的绝对容差，两侧数值之差不超过该值视为相同（0表示精确比较）
+     */
+    private double numberTolerance = 0;
+    
+    /**
+     * 数值比较的相对容差，两侧数值之差不超过较大绝对值乘以该值视为相同（0表示精确比较）
+     */
+    private double relativeTolerance = 0;
+    
+    /**
+     * 有序数组比较方式枚举
+     */
+    public enum ArrayMode {
+        INDEX,      // 按下标逐个比较
+        LCS;        // 按最长公共子序列对齐，识别插入、删除和移动
+
+        @JsonValue
+        public String toJson() {
+            return name().toLowerCase();
+        }
+        
+        /**
+         * 从字符串解析比较方式，无法识别时按下标比较
+         */
+        public static ArrayMode from(String value) {
+            if (value != null) {
+                for (ArrayMode mode : values()) {
+                    if (mode.name().equalsIgnoreCase(value)) {
+                        return mode;
+                    }
+                }
+            }
+            return INDEX;
+        }
+    }
+    
+    /**
+     * 差异值输出模式枚举
+     */
+    public enum ValueMode {
+        FULL,       // 完整值
+        POINTER,    // JSON Pointer引用，容器值不输出
+        PREVIEW;    // 超过长度的值输出截断预览
+
+        @JsonValue
+        public String toJson() {
+            return name().toLowerCase();
+        }
+        
+        /**
+         * 从字符串解析输出模式，无法识别时使用完整值
+         */
+        public static ValueMode from(String value) {
+            if (value != null) {
+                for (ValueMode mode : values()) {
+                    if (mode.name().equalsIgnoreCase(value)) {
+                        return mode;
+                    }
+                }
+            }
+            return FULL;
+        }
+    }
+    
     /**
      * 构造函数 - 使用默认设置
      */
@@ -81,6 +206,26 @@ public class CompareSettings {
         this.maxDepth = maxDepth;
     }
     
+    /**
+     * 设置数组元素的标识字段，路径统一为以 $ 开头、不带末尾 [*] 的形式
+     */
+    public void setArrayKeys(Map<String, List<String>> arrayKeys) {
+        this.arrayKeys = new HashMap<>();
+        if (arrayKeys == null) {
+            return;
+        }
+        for (Map.Entry<String, List<String>> entry : arrayKeys.entrySet()) {
+            String path = entry.getKey().trim();
+            if (path.endsWith("[*]")) {
+                path = path.substring(0, path.length() - 3);
+            }
+            if (!path.startsWith("$")) {
+                path = path.startsWith("[") ? "$" + path : "$." + path;
+            }
+            this.arrayKeys.put(path, entry.getValue());
+        }
+    }
+    
     /**
      * 验证设置参数
      */
@@ -91,6 +236,24 @@ public class CompareSettings {
         if (maxDifferences < 0) {
             throw new IllegalArgumentException("最大差异数量不能为负数");
         }
+        if (previewLength < 1) {
+            throw new IllegalArgumentException("预览长度必须大于0");
+        }
+        if (parallelThreshold < 1) {
+            throw new IllegalArgumentException("并行阈值必须大于0");
+        }
+        if (maxEditCost < 1) {
+            throw new IllegalArgumentException("最大编辑距离必须大于0");
+        }
+        if (!(numberTolerance >= 0) || !(relativeTolerance >= 0)
+                || Double.isInfinite(numberTolerance) || Double.isInfinite(relativeTolerance)) {
+            throw new IllegalArgumentException("数值容差必须为非负数");
+        }
+        for (Map.Entry<String, List<String>> entry : arrayKeys.entrySet()) {
+            if (entry.getValue() == null || entry.getValue().isEmpty()) {
+                throw new IllegalArgumentException("数组标识字段不能为空: " + entry.getKey());
+            }
+        }
         return true;
     }
     
@@ -0,0 +1,56 @@
+package com.jsondiff.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+/**
+ * 增量对比结果 - 客户端删除路径位于scopes内（含其本身）的差异项，再加入differences即得到最新的差异列表
+ *
+ * @author JSON Diff Team
+ * @version 1.0.0
+ */
+@Data
+@NoArgsConstructor
+public class DiffDelta {
+
+    /**
+     * 会话ID
+     */
+    private String sessionId;
+
+    /**
+     * 应用补丁后的会话版本号
+     */
+    private long version;
+
+    /**
+     * 重新比较的子树路径，完整比较时为 $
+     */
+    private List<String> scopes;
+
+    /**
+     * 重新比较的子树内的差异项
+     */
+    private List<DiffItem> differences;
+
+    /**
+     * 整个会话的差异统计
+     */
+    private DiffStats stats;
+
+    /**
+     * 差异数量达到上限，差异列表可能不完整
+     */
+    private boolean truncated;
+
+    /**
+     * 比较超时，差异列表可能不完整
+     */
+    private boolean timedOut;
+
+    /**
+     * 对比耗时（毫秒）
+     */
+    private long duration;
+}
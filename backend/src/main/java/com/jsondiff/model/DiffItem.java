@@ -1,14 +1,12 @@
 package com.jsondiff.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonValue;
 import lombok.Data;
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
 import com.fasterxml.jackson.annotation.JsonInclude;
 
-import java.util.List;
-import java.util.Map;
-
 /**
  * 单个差异项模型
  * 
@@ -27,7 +25,8 @@ public class DiffItem {
     public enum DiffType {
         ADDED,      // 新增
         REMOVED,    // 删除
-        MODIFIED;    // 修改
+        MODIFIED,   // 修改
+        MOVED;      // 移动
 
         @JsonValue
         public String toJson() {
@@ -86,110 +85,41 @@ public class DiffItem {
     private String typeChange;
     
     /**
-     * 创建新增差异项
-     */
-    public static DiffItem added(String path, Object newValue) {
-        DiffItem item = new DiffItem();
-        item.setPath(path);
-        item.setType(DiffType.ADDED);
-        item.setNewValue(newValue);
-        item.setDepth(calculateDepth(path));
-        item.setKey(getLastKey(path));
-        item.setParentPath(getParentPath(path));
-        return item;
-    }
-    
-    /**
-     * 创建删除差异项
+     * 移动前的路径（仅移动类型有）
      */
-    public static DiffItem removed(String path, Object oldValue) {
-        DiffItem item = new DiffItem();
-        item.setPath(path);
-        item.setType(DiffType.REMOVED);
-        item.setOldValue(oldValue);
-        item.setDepth(calculateDepth(path));
-        item.setKey(getLastKey(path));
-        item.setParentPath(getParentPath(path));
-        return item;
-    }
+    private String fromPath;
     
     /**
-     * 创建修改差异项
+     * 旧值在左侧JSON中的位置（JSON Pointer，仅引用模式有）
      */
-    public static DiffItem modified(String path, Object oldValue, Object newValue) {
-        DiffItem item = new DiffItem();
-        item.setPath(path);
-        item.setType(DiffType.MODIFIED);
-        item.setOldValue(oldValue);
-        item.setNewValue(newValue);
-        item.setDepth(calculateDepth(path));
-        item.setKey(getLastKey(path));
-        item.setParentPath(getParentPath(path));
-        
-        // 检测类型变化
-        String oldType = getValueType(oldValue);
-        String newType = getValueType(newValue);
-        if (!oldType.equals(newType)) {
-            item.setTypeChange(oldType + " -> " + newType);
-        }
-        
-        return item;
-    }
+    private String leftPointer;
     
     /**
-     * 计算路径深度
+     * 新值在右侧JSON中的位置（JSON Pointer，仅引用模式有）
      */
-    private static int calculateDepth(String path) {
-        if (path == null || path.isEmpty()) {
-            return 0;
-        }
-        return path.split("\\.").length;
-    }
+    private String rightPointer;
     
     /**
-     * 获取路径的最后一个键
+     * 值是否被截断（仅预览模式有）
      */
-    private static String getLastKey(String path) {
-        if (path == null || path.isEmpty()) {
-            return "";
-        }
-        String[] parts = path.split("\\.");
-        return parts[parts.length - 1];
-    }
+    private Boolean truncated;
     
     /**
-     * 获取父路径
+     * 路径中各段在路径字符串中的起点，仅当键名含'.'或'['、路径无法按字符拆分时记录，不输出
      */
-    private static String getParentPath(String path) {
-        if (path == null || path.isEmpty()) {
-            return "";
-        }
-        int lastDot = path.lastIndexOf('.');
-        return lastDot > 0 ? path.substring(0, lastDot) : "";
-    }
+    @JsonIgnore
+    private int[] segments;
     
     /**
-     * 获取值的类型
+     * 创建差异项，路径信息由调用方直接给出，不再解析路径字符串
      */
-    private static String getValueType(Object value) {
-        if (value == null) {
-            return "null";
-        }
-        if (value instanceof Boolean) {
-            return "boolean";
-        }
-        if (value instanceof Number) {
-            return "number";
-        }
-        if (value instanceof String) {
-            return "string";
-        }
-        if (value instanceof List) {
-            return "array";
-        }
-        if (value instanceof Map) {
-            return "object";
-        }
-        return "unknown";
+    public static DiffItem of(DiffType type, String path, String parentPath, String key, int depth) {
+        DiffItem item = new DiffItem();
+        item.setPath(path);
+        item.setType(type);
+        item.setDepth(depth);
+        item.setKey(key);
+        item.setParentPath(parentPath);
+        return item;
     }
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+package com.jsondiff.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+/**
+ * 差异列表的一页
+ *
+ * @author JSON Diff Team
+ * @version 1.0.0
+ */
+@Data
+@NoArgsConstructor
+public class DiffPage {
+
+    /**
+     * 结果句柄
+     */
+    private String handle;
+
+    /**
+     * 本页的差异项
+     */
+    private List<DiffItem> items;
+
+    /**
+     * 本页的起始游标
+     */
+    private int cursor;
+
+    /**
+     * 下一页的游标，没有更多结果时为null
+     */
+    private Integer nextCursor;
+
+    /**
+     * 过滤路径对应子树内的差异总数（未按类型和深度过滤）
+     */
+    private int subtreeTotal;
+}
@@ -3,6 +3,7 @@ package com.jsondiff.model;
 import lombok.Data;
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
+import java.util.ArrayList;
 import java.util.List;
 import java.time.LocalDateTime;
 
@@ -42,6 +43,21 @@ public class DiffResult {
      */
     private int modifiedCount;
     
+    /**
+     * 移动项数量
+     */
+    private int movedCount;
+    
+    /**
+     * 差异数量达到上限，比较提前结束，差异列表可能不完整
+     */
+    private boolean truncated;
+    
+    /**
+     * 比较超时，提前结束，差异列表可能不完整
+     */
+    private boolean timedOut;
+    
     /**
      * 差异详情列表
      */
@@ -67,6 +83,11 @@ public class DiffResult {
      */
     private long duration;
     
+    /**
+     * 结果是否来自缓存，此时耗时为查询缓存的时间
+     */
+    private boolean cached;
+    
     /**
      * 添加差异项
      */
@@ -83,13 +104,25 @@ public class DiffResult {
             case MODIFIED:
                 this.modifiedCount++;
                 break;
+            case MOVED:
+                this.movedCount++;
+                break;
         }
     }
 
+    /**
+     * 浅拷贝，差异列表另建一份，差异项和原始数据共用
+     */
+    public DiffResult copy() {
+        return new DiffResult(timestamp, totalDifferences, addedCount, removedCount, modifiedCount, movedCount,
+                truncated, timedOut, differences != null ? new ArrayList<>(differences) : null,
+                leftData, rightData, settings, duration, cached);
+    }
+
     /**
      * 获取统计信息
      */
     public DiffStats getStats() {
-        return new DiffStats(totalDifferences, addedCount, removedCount, modifiedCount);
+        return new DiffStats(totalDifferences, addedCount, removedCount, modifiedCount, movedCount);
     }
 }
\ No newline at end of file
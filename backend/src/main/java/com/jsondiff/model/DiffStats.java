@@ -34,6 +34,11 @@ public class DiffStats {
      */
     private int modified;
     
+    /**
+     * 移动项数量
+     */
+    private int moved;
+    
     /**
      * 构造函数
      */
@@ -44,6 +49,14 @@ public class DiffStats {
         this.modified = modified;
     }
     
+    /**
+     * 构造函数 - 包含移动项
+     */
+    public DiffStats(int total, int added, int removed, int modified, int moved) {
+        this(total, added, removed, modified);
+        this.moved = moved;
+    }
+    
     /**
      * 获取新增项百分比
      */
@@ -65,6 +78,13 @@ public class DiffStats {
         return total > 0 ? (double) modified / total * 100 : 0;
     }
     
+    /**
+     * 获取移动项百分比
+     */
+    public double getMovedPercentage() {
+        return total > 0 ? (double) moved / total * 100 : 0;
+    }
+    
     /**
      * 添加统计信息
      */
@@ -73,6 +93,7 @@ public class DiffStats {
         this.added += other.added;
         this.removed += other.removed;
         this.modified += other.modified;
+        this.moved += other.moved;
     }
     
     /**
@@ -81,8 +102,8 @@ public class DiffStats {
     @Override
     public String toString() {
         return String.format(
-            "DiffStats[total=%d, added=%d, removed=%d, modified=%d]",
-            total, added, removed, modified
+            "DiffStats[total=%d, added=%d, removed=%d, modified=%d, moved=%d]",
+            total, added, removed, modified, moved
         );
     }
 }
\ No newline at end of file
@@ -0,0 +1,63 @@
+package com.jsondiff.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+/**
+ * 路径树节点 - 子树内各类型差异的数量，供前端按需展开
+ *
+ * @author JSON Diff Team
+ * @version 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DiffTreeNode {
+
+    /**
+     * 节点路径
+     */
+    private String path;
+
+    /**
+     * 最后一段路径，如键名或[0]
+     */
+    private String label;
+
+    /**
+     * 子树内差异总数
+     */
+    private int total;
+
+    /**
+     * 子树内新增项数量
+     */
+    private int addedCount;
+
+    /**
+     * 子树内删除项数量
+     */
+    private int removedCount;
+
+    /**
+     * 子树内修改项数量
+     */
+    private int modifiedCount;
+
+    /**
+     * 子树内移动项数量
+     */
+    private int movedCount;
+
+    /**
+     * 子节点数量
+     */
+    private int childCount;
+
+    /**
+     * 当前页的子节点，只在查询的节点上返回
+     */
+    private List<DiffTreeNode> children;
+}
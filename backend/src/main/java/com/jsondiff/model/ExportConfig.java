@@ -0,0 +1,101 @@
+package com.jsondiff.model;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 导出报告配置模型，字段与前端导出对话框一致
+ *
+ * @author JSON Diff Team
+ * @version 1.0.0
+ */
+@Data
+@NoArgsConstructor
+public class ExportConfig {
+
+    /**
+     * 报告格式
+     */
+    private ExportFormat format = ExportFormat.HTML;
+
+    /**
+     * 是否包含统计信息
+     */
+    private boolean includeStats = true;
+
+    /**
+     * 是否包含原始数据
+     */
+    private boolean includeOriginal = false;
+
+    /**
+     * 是否包含完整路径
+     */
+    private boolean includePaths = true;
+
+    /**
+     * 是否格式化输出差异值
+     */
+    private boolean prettyPrint = true;
+
+    /**
+     * 文件名（不含扩展名），为空时使用默认名称
+     */
+    private String filename;
+
+    /**
+     * 字符编码：utf-8、utf-8-bom、gbk
+     */
+    private String encoding = "utf-8";
+
+    /**
+     * 是否以gzip压缩输出
+     */
+    private boolean gzip = false;
+
+    /**
+     * 报告格式枚举
+     */
+    public enum ExportFormat {
+        HTML("text/html", "html"),
+        MARKDOWN("text/markdown", "md"),
+        CSV("text/csv", "csv"),
+        JSON("application/json", "json");
+
+        private final String contentType;
+        private final String extension;
+
+        ExportFormat(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        @JsonValue
+        public String toJson() {
+            return name().toLowerCase();
+        }
+
+        /**
+         * 从字符串解析报告格式，无法识别时使用HTML
+         */
+        public static ExportFormat from(String value) {
+            if (value != null) {
+                for (ExportFormat format : values()) {
+                    if (format.name().equalsIgnoreCase(value)) {
+                        return format;
+                    }
+                }
+            }
+            return HTML;
+        }
+    }
+}
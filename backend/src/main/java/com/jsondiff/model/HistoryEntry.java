@@ -0,0 +1,82 @@
+package com.jsondiff.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * 对比历史记录 - 保存在内存索引中的元数据，差异列表保存在磁盘文件中
+ *
+ * @author JSON Diff Team
+ * @version 1.0.0
+ */
+@Data
+@NoArgsConstructor
+public class HistoryEntry {
+
+    /**
+     * 记录ID
+     */
+    private String id;
+
+    /**
+     * 记录名称
+     */
+    private String name;
+
+    /**
+     * 保存时间
+     */
+    private LocalDateTime createdAt;
+
+    /**
+     * 差异总数
+     */
+    private int totalDifferences;
+
+    /**
+     * 新增项数量
+     */
+    private int addedCount;
+
+    /**
+     * 删除项数量
+     */
+    private int removedCount;
+
+    /**
+     * 修改项数量
+     */
+    private int modifiedCount;
+
+    /**
+     * 移动项数量
+     */
+    private int movedCount;
+
+    /**
+     * 原对比结果是否被截断
+     */
+    private boolean truncated;
+
+    /**
+     * 原对比是否超时
+     */
+    private boolean timedOut;
+
+    /**
+     * 原对比耗时（毫秒）
+     */
+    private long duration;
+
+    /**
+     * 对比设置
+     */
+    private JsonNode settings;
+
+    /**
+     * 磁盘文件字节数
+     */
+    private long storedSize;
+}
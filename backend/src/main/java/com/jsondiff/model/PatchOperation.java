@@ -0,0 +1,36 @@
+package com.jsondiff.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * JSON Patch（RFC 6902）操作模型
+ *
+ * @author JSON Diff Team
+ * @version 1.0.0
+ */
+@Data
+@NoArgsConstructor
+public class PatchOperation {
+
+    /**
+     * 操作类型：add、remove、replace、move、copy、test
+     */
+    private String op;
+
+    /**
+     * 目标位置（JSON Pointer）
+     */
+    private String path;
+
+    /**
+     * move和copy的来源位置（JSON Pointer）
+     */
+    private String from;
+
+    /**
+     * add、replace和test的值
+     */
+    private JsonNode value;
+}
@@ -0,0 +1,86 @@
+package com.jsondiff.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.jsondiff.util.StructuralHasher;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 已上传的JSON文档 - 解析后的树模型及按归一化方式缓存的结构哈希
+ *
+ * @author JSON Diff Team
+ * @version 1.0.0
+ */
+@Data
+@NoArgsConstructor
+public class StoredDocument {
+
+    /**
+     * 结构哈希每个容器节点估算占用的字节数（IdentityHashMap的两个槽位和装箱的Long）
+     */
+    private static final long HASH_ENTRY_SIZE = 48;
+
+    /**
+     * 文档句柄
+     */
+    private String handle;
+
+    /**
+     * 上传的字节数
+     */
+    private long size;
+
+    /**
+     * 树模型及已计算的结构哈希估算占用的字节数
+     */
+    private volatile long estimatedSize;
+
+    /**
+     * 上传时间
+     */
+    private LocalDateTime createdAt;
+
+    /**
+     * 解析后的树模型，只读共享
+     */
+    @JsonIgnore
+    private JsonNode tree;
+
+    /**
+     * 按归一化方式（忽略顺序、空白、大小写）缓存的结构哈希
+     */
+    @JsonIgnore
+    private final Map<String, StructuralHasher> hashers = new HashMap<>();
+
+    /**
+     * 构造函数
+     */
+    public StoredDocument(UUID handle, JsonNode tree, long size, long estimatedSize) {
+        this.handle = handle.toString();
+        this.tree = tree;
+        this.size = size;
+        this.estimatedSize = estimatedSize;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    /**
+     * 获取与对比设置归一化方式一致的结构哈希，首次使用时对整棵树计算并计入估算大小。
+     * 返回的哈希已覆盖所有容器节点，之后只读，可被多个比较同时使用。
+     */
+    public synchronized StructuralHasher hasherFor(CompareSettings settings) {
+        String key = settings.isIgnoreOrder() + ":" + settings.isIgnoreWhitespace() + ":" + settings.isCaseSensitive();
+        StructuralHasher hasher = hashers.get(key);
+        if (hasher == null) {
+            hasher = new StructuralHasher(settings);
+            hasher.index(tree);
+            hashers.put(key, hasher);
+            estimatedSize += hasher.size() * HASH_ENTRY_SIZE;
+        }
+        return hasher;
+    }
+}
@@ -0,0 +1,112 @@
+package com.jsondiff.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.jsondiff.util.DiffIndex;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * 服务端保存的对比结果 - 差异列表建立子树索引后以句柄分页查询
+ *
+ * @author JSON Diff Team
+ * @version 1.0.0
+ */
+@Data
+@NoArgsConstructor
+public class StoredResult {
+
+    /**
+     * 结果句柄
+     */
+    private String handle;
+
+    /**
+     * 保存时间
+     */
+    private LocalDateTime createdAt;
+
+    /**
+     * 差异总数
+     */
+    private int totalDifferences;
+
+    /**
+     * 新增项数量
+     */
+    private int addedCount;
+
+    /**
+     * 删除项数量
+     */
+    private int removedCount;
+
+    /**
+     * 修改项数量
+     */
+    private int modifiedCount;
+
+    /**
+     * 移动项数量
+     */
+    private int movedCount;
+
+    /**
+     * 对比结果是否被截断
+     */
+    private boolean truncated;
+
+    /**
+     * 对比是否超时
+     */
+    private boolean timedOut;
+
+    /**
+     * 对比耗时（毫秒）
+     */
+    private long duration;
+
+    /**
+     * 对比设置
+     */
+    private CompareSettings settings;
+
+    /**
+     * 估算占用的字节数
+     */
+    private long estimatedSize;
+
+    /**
+     * 根节点的统计和第一页子节点
+     */
+    private DiffTreeNode tree;
+
+    /**
+     * 差异列表的子树索引，只读共享
+     */
+    @JsonIgnore
+    private DiffIndex index;
+
+    /**
+     * 构造函数，数量统计以索引中实际的差异项为准
+     *
+     * @param tree 根节点的统计
+     */
+    public StoredResult(UUID handle, DiffResult result, DiffIndex index, DiffTreeNode tree, long estimatedSize) {
+        this.handle = handle.toString();
+        this.createdAt = LocalDateTime.now();
+        this.totalDifferences = tree.getTotal();
+        this.addedCount = tree.getAddedCount();
+        this.removedCount = tree.getRemovedCount();
+        this.modifiedCount = tree.getModifiedCount();
+        this.movedCount = tree.getMovedCount();
+        this.truncated = result.isTruncated();
+        this.timedOut = result.isTimedOut();
+        this.duration = result.getDuration();
+        this.settings = result.getSettings();
+        this.index = index;
+        this.tree = tree;
+        this.estimatedSize = estimatedSize;
+    }
+}
@@ -0,0 +1,260 @@
+package com.jsondiff.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.jsondiff.model.CompareJob;
+import com.jsondiff.model.CompareJob.JobStatus;
+import com.jsondiff.model.CompareSettings;
+import com.jsondiff.model.DiffResult;
+import com.jsondiff.util.JsonComparator;
+import com.jsondiff.util.WeightedLruCache;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 异步对比任务服务
+ *
+ * 任务在独立的有界线程池中执行，线程数和队列长度来自 spring.task.execution.pool.* 配置，
+ * 队列已满或内存预算不足时拒绝提交。已完成任务的结果保存在按估算字节数限制容量的LRU缓存中，
+ * 超过容量时淘汰最久未访问的结果；已结束的任务在保留时间后定时清理。
+ *
+ * @author JSON Diff Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+public class CompareJobService {
+
+    private final JsonDiffService jsonDiffService;
+    private final MemoryBudget memoryBudget;
+    private final ThreadPoolTaskExecutor executor;
+    private final Map<String, CompareJob> jobs;
+    private final WeightedLruCache<String, DiffResult> results;
+    private final long timeout;
+    private final long retention;
+
+    public CompareJobService(JsonDiffService jsonDiffService,
+                             MemoryBudget memoryBudget,
+                             ThreadPoolTaskExecutorBuilder executorBuilder,
+                             @Value("${json-diff.jobs.timeout:600000}") long timeout,
+                             @Value("${json-diff.jobs.retention:3600000}") long retention,
+                             @Value("${json-diff.jobs.results.max-size:268435456}") long maxResultSize) {
+        this.jsonDiffService = jsonDiffService;
+        this.memoryBudget = memoryBudget;
+        this.executor = executorBuilder.threadNamePrefix("compare-job-").build();
+        this.executor.initialize();
+        this.jobs = new ConcurrentHashMap<>();
+        this.results = new WeightedLruCache<>(maxResultSize, DiffResultCache::estimateSize);
+        this.timeout = timeout;
+        this.retention = retention;
+    }
+
+    /**
+     * 提交对比任务，任务从提交到结束一直占用内存预算，预算不足或队列已满时抛出TaskRejectedException，
+     * 对比设置无效时抛出IllegalArgumentException
+     *
+     * @param contentLength 请求体字节数，用于估算任务所需内存，未知为-1
+     */
+    @SuppressWarnings("unchecked")
+    public CompareJob submit(Map<String, Object> request, long contentLength) {
+        purgeExpired();
+        // 提交时校验设置，无效的请求不进入队列
+        jsonDiffService.createCompareSettings((Map<String, Object>) request.get("settings"));
+
+        // 句柄只在提交时解析一次，任务持有文档本身，排队期间文档被淘汰也不影响执行
+        Object left = jsonDiffService.resolveInput(request, "left");
+        Object right = jsonDiffService.resolveInput(request, "right");
+
+        // 引用已上传文档时请求体很小，另外按文档估算大小预留
+        long reserved = memoryBudget.estimate(contentLength, false)
+                + jsonDiffService.documentMemory(left) + jsonDiffService.documentMemory(right);
+        if (!memoryBudget.tryReserve(reserved)) {
+            throw new TaskRejectedException("内存预算不足，请稍后重试");
+        }
+
+        CompareJob job = new CompareJob(UUID.randomUUID().toString(), request);
+        job.setLeft(left);
+        job.setRight(right);
+        job.getReservedMemory().set(reserved);
+        jobs.put(job.getId(), job);
+        try {
+            job.setFuture(executor.submit(() -> run(job)));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.getId());
+            memoryBudget.release(reserved);
+            throw new TaskRejectedException("对比任务队列已满，请稍后重试", e);
+        }
+
+        log.info("提交对比任务 {}，排队 {} 个", job.getId(), executor.getQueueSize());
+        return job;
+    }
+
+    /**
+     * 获取任务，不存在时返回null
+     */
+    public CompareJob get(String id) {
+        return jobs.get(id);
+    }
+
+    /**
+     * 获取已完成任务的结果，结果已被淘汰或任务未完成时返回null
+     */
+    public DiffResult getResult(CompareJob job) {
+        DiffResult result = results.get(job.getId());
+        return result != null ? result : job.getResult();
+    }
+
+    /**
+     * 取消任务。排队中的任务标记为已取消，执行线程取到时直接结束；执行中的任务通知比较器停止，
+     * 资源由执行线程在比较结束后释放
+     */
+    public CompareJob cancel(String id) {
+        CompareJob job = jobs.get(id);
+        if (job == null || job.isFinished()) {
+            return job;
+        }
+
+        JobStatus previous = job.markCancelled();
+        if (previous == JobStatus.QUEUED) {
+            // Future.cancel只标记Future，不会把任务移出线程池队列。标记成功说明任务尚未开始，
+            // 预算在这里归还（finish可重复调用）；执行线程之后取到任务时看到已取消的状态直接结束
+            if (job.getFuture() != null && job.getFuture().cancel(false)) {
+                finish(job);
+            }
+        } else if (previous == JobStatus.RUNNING) {
+            JsonComparator comparator = job.getComparator();
+            if (comparator != null) {
+                comparator.cancel();
+            }
+        }
+        log.info("取消对比任务 {}", id);
+        return job;
+    }
+
+    /**
+     * 执行任务
+     */
+    @SuppressWarnings("unchecked")
+    private void run(CompareJob job) {
+        // 开始执行前已被取消
+        if (!job.transition(JobStatus.QUEUED, JobStatus.RUNNING)) {
+            finish(job);
+            return;
+        }
+        job.setStartedAt(LocalDateTime.now());
+
+        try {
+            Map<String, Object> request = job.getRequest();
+            Object left = jsonDiffService.parseInput(job.getLeft());
+            Object right = jsonDiffService.parseInput(job.getRight());
+            CompareSettings settings = jsonDiffService.createCompareSettings(
+                    (Map<String, Object>) request.get("settings"));
+            job.setRequest(null);
+            job.setLeft(null);
+            job.setRight(null);
+            job.setTotalNodes(Math.max(countNodes(left), countNodes(right)));
+
+            JsonComparator comparator = new JsonComparator(settings);
+            comparator.setTimeout(timeout);
+            job.setComparator(comparator);
+            // 先设置比较器再检查状态：cancel()先标记状态再取比较器，两者至少有一方看到对方，
+            // 比较器的取消状态在比较开始时不会被清除，取消请求不会丢失
+            if (job.getStatus() == JobStatus.CANCELLED) {
+                return;
+            }
+
+            DiffResult result = comparator.compare(left, right);
+            // 比较期间被取消时不保存结果
+            if (job.complete(result)) {
+                // 先放入结果缓存再从任务中移除，查询结果时不会看到空档；超过缓存容量的结果不保留
+                if (!results.put(job.getId(), result)) {
+                    log.warn("对比任务 {} 的结果超过结果缓存容量，不保留", job.getId());
+                }
+                job.setResult(null);
+                log.info("对比任务 {} 完成，发现 {} 处差异", job.getId(), result.getTotalDifferences());
+            } else {
+                log.info("对比任务 {} 已取消", job.getId());
+            }
+
+        } catch (Exception e) {
+            log.error("对比任务 {} 失败", job.getId(), e);
+            job.setError(e.getMessage());
+            job.transition(JobStatus.RUNNING, JobStatus.FAILED);
+        } finally {
+            finish(job);
+        }
+    }
+
+    /**
+     * 标记任务结束并释放执行期间的引用，重复调用时预算只归还一次
+     */
+    private void finish(CompareJob job) {
+        memoryBudget.release(job.getReservedMemory().getAndSet(0));
+        job.setRequest(null);
+        job.setLeft(null);
+        job.setRight(null);
+        job.setComparator(null);
+        job.setFuture(null);
+        job.setFinishedAt(LocalDateTime.now());
+    }
+
+    /**
+     * 清理超过保留时间的已结束任务及其结果，提交任务时和定时执行
+     */
+    @Scheduled(fixedDelayString = "${json-diff.jobs.purge-interval:60000}")
+    public void purgeExpired() {
+        LocalDateTime expiry = LocalDateTime.now().minusNanos(retention * 1_000_000L);
+        jobs.values().removeIf(job -> {
+            boolean expired = job.isFinished() && job.getFinishedAt() != null && job.getFinishedAt().isBefore(expiry);
+            if (expired) {
+                results.remove(job.getId());
+            }
+            return expired;
+        });
+    }
+
+    /**
+     * 获取结果缓存统计信息
+     */
+    public Map<String, Object> getStats() {
+        return results.getStats();
+    }
+
+    /**
+     * 统计树模型中的节点数量，非树模型时返回0（不显示进度）
+     */
+    private static long countNodes(Object data) {
+        if (!(data instanceof JsonNode)) {
+            return 0;
+        }
+        long count = 0;
+        Deque<JsonNode> stack = new ArrayDeque<>();
+        stack.push((JsonNode) data);
+        while (!stack.isEmpty()) {
+            JsonNode node = stack.pop();
+            count++;
+            if (node.isContainerNode()) {
+                for (JsonNode child : node) {
+                    stack.push(child);
+                }
+            }
+        }
+        return count;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
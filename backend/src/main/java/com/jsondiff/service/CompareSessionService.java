@@ -0,0 +1,376 @@
+package com.jsondiff.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.jsondiff.model.CompareSession;
+import com.jsondiff.model.CompareSettings;
+import com.jsondiff.model.DiffDelta;
+import com.jsondiff.model.DiffItem;
+import com.jsondiff.model.DiffResult;
+import com.jsondiff.model.PatchOperation;
+import com.jsondiff.model.StoredDocument;
+import com.jsondiff.util.ExactNumbers;
+import com.jsondiff.util.JsonComparator;
+import com.jsondiff.util.JsonPatcher;
+import com.jsondiff.util.JsonSizeEstimator;
+import com.jsondiff.util.PathStack;
+import com.jsondiff.util.WeightedLruCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 增量对比会话服务
+ *
+ * 会话创建时完整比较一次。之后客户端以JSON Patch修改任一侧文档，服务端只重新比较受影响的子树，
+ * 返回这些子树内的差异项，开销与修改的范围相关而与文档大小无关。
+ * 会话保存在按估算字节数限制容量的LRU缓存中，被淘汰后需要重新创建。
+ *
+ * @author JSON Diff Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+public class CompareSessionService {
+
+    private static final String ROOT_PATH = "$";
+
+    private final JsonDiffService jsonDiffService;
+    private final ObjectMapper objectMapper;
+    private final WeightedLruCache<String, CompareSession> sessions;
+    private final long timeout;
+
+    public CompareSessionService(JsonDiffService jsonDiffService, ObjectMapper objectMapper,
+                                 @Value("${json-diff.sessions.max-size:268435456}") long maxSize,
+                                 @Value("${json-diff.timeout:30000}") long timeout) {
+        this.jsonDiffService = jsonDiffService;
+        // 会话的树和补丁值只用于对比，按精确数值转换
+        this.objectMapper = ExactNumbers.configure(objectMapper.copy());
+        this.sessions = new WeightedLruCache<>(maxSize, CompareSession::getEstimatedSize);
+        this.timeout = timeout;
+    }
+
+    /**
+     * 创建会话并完整比较一次，请求体与同步对比接口相同
+     */
+    @SuppressWarnings("unchecked")
+    public DiffDelta create(Map<String, Object> request) {
+        CompareSettings settings = jsonDiffService.createCompareSettings((Map<String, Object>) request.get("settings"));
+        Object leftInput = jsonDiffService.resolveInput(request, "left");
+        Object rightInput = jsonDiffService.resolveInput(request, "right");
+
+        // 引用已上传文档时按文档大小预留，复制和首次完整比较都在预留期间完成
+        Runnable release = jsonDiffService.admitDocuments(leftInput, rightInput);
+        CompareSession session;
+        DiffDelta delta;
+        try {
+            JsonNode left = toTree(leftInput);
+            JsonNode right = toTree(rightInput);
+            session = new CompareSession(UUID.randomUUID().toString(), left, right, settings);
+            session.setEstimatedSize(JsonSizeEstimator.estimate(left) + JsonSizeEstimator.estimate(right));
+            delta = recompare(session);
+        } finally {
+            release.run();
+        }
+        if (!sessions.put(session.getId(), session)) {
+            throw new IllegalArgumentException("文档过大，超过会话缓存容量");
+        }
+
+        log.info("创建对比会话 {}，发现 {} 处差异", session.getId(), session.getDifferences().size());
+        return delta;
+    }
+
+    /**
+     * 获取会话当前的完整差异列表，会话不存在时返回null
+     */
+    public DiffDelta snapshot(String id) {
+        CompareSession session = sessions.get(id);
+        if (session == null) {
+            return null;
+        }
+        synchronized (session) {
+            DiffDelta delta = newDelta(session, Collections.singletonList(ROOT_PATH), session.getDifferences());
+            delta.setTruncated(!session.isComplete());
+            return delta;
+        }
+    }
+
+    /**
+     * 对一侧文档应用JSON Patch并增量比较，会话不存在时返回null
+     *
+     * 请求体：side（left/right，默认right）、patch（操作列表）、version（可选，与当前版本不一致时拒绝）
+     */
+    public DiffDelta patch(String id, Map<String, Object> request) {
+        CompareSession session = sessions.get(id);
+        if (session == null) {
+            return null;
+        }
+
+        Object side = request.getOrDefault("side", "right");
+        if (!"left".equals(side) && !"right".equals(side)) {
+            throw new IllegalArgumentException("side只能是left或right");
+        }
+        if (request.get("patch") == null) {
+            throw new IllegalArgumentException("缺少patch");
+        }
+        List<PatchOperation> operations = objectMapper.convertValue(request.get("patch"),
+                new TypeReference<List<PatchOperation>>() {});
+
+        synchronized (session) {
+            Object version = request.get("version");
+            if (version instanceof Number && ((Number) version).longValue() != session.getVersion()) {
+                throw new IllegalStateException("会话版本不一致，当前版本: " + session.getVersion());
+            }
+
+            boolean isLeft = "left".equals(side);
+            JsonPatcher patcher = new JsonPatcher(isLeft ? session.getLeft() : session.getRight());
+            patcher.apply(operations);
+            if (isLeft) {
+                session.setLeft(patcher.getRoot());
+            } else {
+                session.setRight(patcher.getRoot());
+            }
+            session.setVersion(session.getVersion() + 1);
+            session.setUpdatedAt(LocalDateTime.now());
+            session.setEstimatedSize(Math.max(0, session.getEstimatedSize() + patcher.getSizeDelta()));
+
+            // 差异列表不完整时无法增量合并，重新完整比较
+            DiffDelta delta = session.isComplete() ? compareScopes(session, patcher.getTouched()) : null;
+            if (delta == null) {
+                delta = recompare(session);
+            }
+
+            // 重新放入以更新缓存权重
+            sessions.put(id, session);
+            return delta;
+        }
+    }
+
+    /**
+     * 删除会话
+     */
+    public CompareSession remove(String id) {
+        return sessions.remove(id);
+    }
+
+    /**
+     * 获取缓存统计信息
+     */
+    public Map<String, Object> getStats() {
+        return sessions.getStats();
+    }
+
+    /**
+     * 完整比较两侧文档
+     */
+    private DiffDelta recompare(CompareSession session) {
+        long startTime = System.currentTimeMillis();
+        DiffResult result = newComparator(session).compare(session.getLeft(), session.getRight());
+        session.setDifferences(new ArrayList<>(result.getDifferences()));
+        session.setComplete(!result.isTruncated() && !result.isTimedOut());
+
+        DiffDelta delta = newDelta(session, Collections.singletonList(ROOT_PATH), session.getDifferences());
+        delta.setTruncated(result.isTruncated());
+        delta.setTimedOut(result.isTimedOut());
+        delta.setDuration(System.currentTimeMillis() - startTime);
+        return delta;
+    }
+
+    /**
+     * 只重新比较受影响的子树并合并到会话的差异列表，
+     * 子树比较被截断、超时或合并后超过差异数量上限时返回null
+     */
+    private DiffDelta compareScopes(CompareSession session, List<String> touched) {
+        long startTime = System.currentTimeMillis();
+        JsonComparator comparator = newComparator(session);
+        List<PathStack> scopes = new ArrayList<>(touched.size());
+        for (String pointer : touched) {
+            scopes.add(comparator.scopeOf(session.getLeft(), session.getRight(), pointer));
+        }
+        scopes = outermost(scopes);
+
+        List<String> paths = new ArrayList<>(scopes.size());
+        List<int[]> segments = new ArrayList<>(scopes.size());
+        List<List<DiffItem>> scopeDifferences = new ArrayList<>(scopes.size());
+        int added = 0;
+        for (PathStack scope : scopes) {
+            DiffResult result = comparator.compareAt(session.getLeft(), session.getRight(), scope);
+            if (result.isTruncated() || result.isTimedOut()) {
+                return null;
+            }
+            // 比较器在下一次比较时会清空差异列表，需要复制
+            paths.add(scope.render());
+            segments.add(segmentsOf(scope.render(), scope.segmentStarts()));
+            scopeDifferences.add(new ArrayList<>(result.getDifferences()));
+            added += result.getDifferences().size();
+        }
+
+        // 原列表中位于子树内的差异项替换为新结果，保持其余差异项的顺序
+        List<DiffItem> merged = new ArrayList<>(session.getDifferences().size() + added);
+        boolean[] merging = new boolean[paths.size()];
+        for (DiffItem item : session.getDifferences()) {
+            int scope = scopeOf(item, paths, segments);
+            if (scope < 0) {
+                merged.add(item);
+            } else if (!merging[scope]) {
+                merged.addAll(scopeDifferences.get(scope));
+                merging[scope] = true;
+            }
+        }
+        List<DiffItem> differences = new ArrayList<>(added);
+        for (int i = 0; i < paths.size(); i++) {
+            if (!merging[i]) {
+                merged.addAll(scopeDifferences.get(i));
+            }
+            differences.addAll(scopeDifferences.get(i));
+        }
+
+        int maxDifferences = session.getSettings().getMaxDifferences();
+        if (maxDifferences > 0 && merged.size() > maxDifferences) {
+            return null;
+        }
+        session.setDifferences(merged);
+
+        DiffDelta delta = newDelta(session, paths, differences);
+        delta.setDuration(System.currentTimeMillis() - startTime);
+        return delta;
+    }
+
+    private JsonComparator newComparator(CompareSession session) {
+        JsonComparator comparator = new JsonComparator(session.getSettings());
+        comparator.setTimeout(timeout);
+        return comparator;
+    }
+
+    private DiffDelta newDelta(CompareSession session, List<String> scopes, List<DiffItem> differences) {
+        DiffDelta delta = new DiffDelta();
+        delta.setSessionId(session.getId());
+        delta.setVersion(session.getVersion());
+        delta.setScopes(scopes);
+        delta.setDifferences(detached(differences));
+        delta.setStats(session.getStats());
+        return delta;
+    }
+
+    /**
+     * 复制差异项并深拷贝其中的值。差异项引用会话中的树，响应在释放会话锁之后才序列化，
+     * 此时其他补丁可能正在原地修改这些节点
+     */
+    private static List<DiffItem> detached(List<DiffItem> differences) {
+        List<DiffItem> copies = new ArrayList<>(differences.size());
+        for (DiffItem item : differences) {
+            copies.add(new DiffItem(item.getPath(), item.getType(), detached(item.getOldValue()),
+                    detached(item.getNewValue()), item.getDepth(), item.getLeftLineNumber(),
+                    item.getRightLineNumber(), item.getParentPath(), item.getKey(), item.getTypeChange(),
+                    item.getFromPath(), item.getLeftPointer(), item.getRightPointer(), item.getTruncated(),
+                    item.getSegments()));
+        }
+        return copies;
+    }
+
+    private static Object detached(Object value) {
+        return value instanceof JsonNode ? ((JsonNode) value).deepCopy() : value;
+    }
+
+    /**
+     * 去掉被其他子树包含的子树，只保留最外层的
+     */
+    private static List<PathStack> outermost(List<PathStack> scopes) {
+        scopes.sort(Comparator.comparingInt(PathStack::size));
+        List<PathStack> result = new ArrayList<>();
+        List<String> pointers = new ArrayList<>();
+        for (PathStack scope : scopes) {
+            String pointer = scope.toPointer();
+            boolean covered = false;
+            for (String outer : pointers) {
+                if (outer.isEmpty() || pointer.equals(outer) || pointer.startsWith(outer + "/")) {
+                    covered = true;
+                    break;
+                }
+            }
+            if (!covered) {
+                result.add(scope);
+                pointers.add(pointer);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 差异项路径所在的子树序号，不在任何子树内时返回-1。键名不转义，只比较路径前缀时
+     * 键名"a.x"会被当作 $.a 下的 x，因此还要求子树的各段与差异项路径的前几段一致
+     *
+     * @param segments 各子树路径中各段的起点
+     */
+    private static int scopeOf(DiffItem item, List<String> scopes, List<int[]> segments) {
+        String path = item.getPath();
+        int[] itemSegments = null;
+        for (int i = 0; i < scopes.size(); i++) {
+            String scope = scopes.get(i);
+            if (!path.startsWith(scope)) {
+                continue;
+            }
+            if (itemSegments == null) {
+                itemSegments = segmentsOf(path, item.getSegments());
+            }
+            int[] scopeSegments = segments.get(i);
+            int size = scopeSegments.length;
+            if (itemSegments.length < size || !Arrays.equals(scopeSegments, 0, size, itemSegments, 0, size)) {
+                continue;
+            }
+            if (itemSegments.length == size ? path.length() == scope.length() : itemSegments[size] == scope.length()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 路径中各段的起点，已记录时直接使用，否则键名不含'.'和'['，按字符拆分
+     */
+    private static int[] segmentsOf(String path, int[] starts) {
+        if (starts != null) {
+            return starts;
+        }
+        int count = 0;
+        for (int i = 1; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (c == '.' || c == '[') {
+                count++;
+            }
+        }
+        int[] result = new int[count];
+        count = 0;
+        for (int i = 1; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (c == '.' || c == '[') {
+                result[count++] = i;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 将输入转换为会话独占的树模型，已上传文档只读共享，需要复制
+     */
+    private JsonNode toTree(Object input) {
+        if (input instanceof StoredDocument) {
+            return ((StoredDocument) input).getTree().deepCopy();
+        }
+        Object data = jsonDiffService.parseJsonTree(input);
+        if (data == null) {
+            return NullNode.getInstance();
+        }
+        return data instanceof JsonNode ? (JsonNode) data : objectMapper.valueToTree(data);
+    }
+}
@@ -0,0 +1,87 @@
+package com.jsondiff.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 计算许可 - 限制同时执行的CPU密集型对比数量
+ *
+ * 许可数默认等于CPU核数。计算量与输入大小成正比，每个对比按输入大小占用许可：每满一个阈值占一个，
+ * 至少一个，最多全部许可；大小未知时按最大文件大小计。未启用时获取许可总是立即成功。
+ * 请求体由计算准入过滤器按内容长度取得许可，引用已上传文档的对比由对比服务按文档大小另外取得。
+ *
+ * @author JSON Diff Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class ComputeAdmission {
+
+    private final boolean enabled;
+    private final Semaphore permits;
+    private final int totalPermits;
+    private final long threshold;
+    private final long unknownSize;
+    private final long waitMillis;
+
+    public ComputeAdmission(@Value("${json-diff.admission.enabled:false}") boolean enabled,
+                            @Value("${json-diff.admission.permits:0}") int permits,
+                            @Value("${json-diff.admission.threshold:1048576}") long threshold,
+                            @Value("${json-diff.max-file-size:10485760}") long unknownSize,
+                            @Value("${json-diff.admission.wait:10000}") long waitMillis) {
+        this.enabled = enabled;
+        this.totalPermits = permits > 0 ? permits : Runtime.getRuntime().availableProcessors();
+        this.permits = new Semaphore(totalPermits, true);
+        this.threshold = Math.max(1, threshold);
+        this.unknownSize = unknownSize;
+        this.waitMillis = waitMillis;
+        if (enabled) {
+            log.info("计算许可 {} 个，阈值 {} 字节", totalPermits, this.threshold);
+        }
+    }
+
+    /**
+     * 输入占用的许可数：每满一个阈值占一个，至少一个，最多全部许可
+     *
+     * @param length 输入字节数，未知为-1
+     */
+    public int weightOf(long length) {
+        long bytes = length >= 0 ? length : unknownSize;
+        return (int) Math.max(1, Math.min(totalPermits, bytes / threshold));
+    }
+
+    /**
+     * 取得许可，许可不足时最多等待配置的时间，未启用时立即成功
+     *
+     * @return 是否取得许可
+     */
+    public boolean acquire(int weight) throws InterruptedException {
+        return !enabled || permits.tryAcquire(weight, waitMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 归还许可
+     */
+    public void release(int weight) {
+        if (enabled) {
+            permits.release(weight);
+        }
+    }
+
+    /**
+     * 小于阈值的输入不需要许可
+     */
+    public long getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * 等待许可的最长时间（毫秒）
+     */
+    public long getWaitMillis() {
+        return waitMillis;
+    }
+}
@@ -0,0 +1,215 @@
+package com.jsondiff.service;
+
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.jsondiff.model.CompareSettings;
+import com.jsondiff.model.DiffItem;
+import com.jsondiff.model.DiffResult;
+import com.jsondiff.model.StoredDocument;
+import com.jsondiff.util.JsonSizeEstimator;
+import com.jsondiff.util.WeightedLruCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 对比结果缓存 - 以左右内容的SHA-256摘要和规范化的对比设置为键，缓存完整的对比结果
+ *
+ * 字符串输入直接对原文计算摘要，命中时无需解析；已上传文档以句柄区分；
+ * 其他输入按规范化的JSON逐段写入摘要，不生成完整的文本。
+ * 摘要抗碰撞，无法构造出内容不同但键相同的请求来取得别人的结果。
+ * 缓存容量按结果的估算字节数限制。
+ *
+ * @author JSON Diff Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class DiffResultCache {
+
+    private final ObjectMapper canonicalMapper;
+    private final WeightedLruCache<Key, DiffResult> cache;
+    private final boolean enabled;
+
+    public DiffResultCache(@Value("${json-diff.cache.enabled:true}") boolean enabled,
+                           @Value("${json-diff.cache.max-size:67108864}") long maxSize) {
+        this.enabled = enabled && maxSize > 0;
+        this.cache = new WeightedLruCache<>(maxSize, DiffResultCache::estimateSize);
+        // 属性和Map键排序，保证相同设置得到相同的文本
+        this.canonicalMapper = JsonMapper.builder()
+                .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+                .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+                .disable(SerializationFeature.INDENT_OUTPUT)
+                .build();
+    }
+
+    /**
+     * 计算缓存键，缓存未启用时返回null
+     */
+    public Key keyOf(Object left, Object right, CompareSettings settings) {
+        if (!enabled) {
+            return null;
+        }
+        try {
+            return new Key(digestOf(left), digestOf(right), canonicalMapper.writeValueAsString(settings));
+        } catch (IOException e) {
+            log.warn("计算缓存键失败，跳过缓存: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 获取缓存的结果，未命中时返回null
+     *
+     * 每次命中返回独立的副本，时间戳为命中时间并标记为来自缓存，调用方可以修改而不影响缓存。
+     */
+    public DiffResult get(Key key) {
+        DiffResult cached = key != null ? cache.get(key) : null;
+        if (cached == null) {
+            return null;
+        }
+        DiffResult result = cached.copy();
+        result.setTimestamp(LocalDateTime.now());
+        result.setCached(true);
+        return result;
+    }
+
+    /**
+     * 缓存对比结果，超时的部分结果不缓存
+     */
+    public void put(Key key, DiffResult result) {
+        if (key != null && !result.isTimedOut()) {
+            // 保存副本，调用方之后修改返回的结果不影响缓存
+            cache.put(key, result.copy());
+        }
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * 获取命中率等统计信息
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = cache.getStats();
+        stats.put("enabled", enabled);
+        return stats;
+    }
+
+    /**
+     * 计算输入的摘要：已上传文档内容不可变，直接使用句柄；
+     * 字符串按UTF-16代码单元计算，其他输入按规范化的JSON计算。类型标记区分三种来源
+     */
+    private byte[] digestOf(Object data) throws IOException {
+        MessageDigest digest = newDigest();
+        if (data instanceof StoredDocument) {
+            UUID handle = UUID.fromString(((StoredDocument) data).getHandle());
+            digest.update((byte) 0);
+            digest.update(ByteBuffer.allocate(16)
+                    .putLong(handle.getMostSignificantBits())
+                    .putLong(handle.getLeastSignificantBits())
+                    .array());
+        } else if (data instanceof String) {
+            digest.update((byte) 1);
+            update(digest, (String) data);
+        } else {
+            digest.update((byte) 2);
+            canonicalMapper.writeValue(new DigestOutputStream(OutputStream.nullOutputStream(), digest), data);
+        }
+        return digest.digest();
+    }
+
+    /**
+     * 分段写入字符串的UTF-16代码单元，不复制整个字符串
+     */
+    private static void update(MessageDigest digest, String content) {
+        byte[] buffer = new byte[8192];
+        int length = 0;
+        for (int i = 0; i < content.length(); i++) {
+            char c = content.charAt(i);
+            buffer[length++] = (byte) (c >>> 8);
+            buffer[length++] = (byte) c;
+            if (length == buffer.length) {
+                digest.update(buffer, 0, length);
+                length = 0;
+            }
+        }
+        digest.update(buffer, 0, length);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256不可用", e);
+        }
+    }
+
+    /**
+     * 估算结果占用的字节数：每个差异项的固定开销加上差异值引用的节点
+     */
+    static long estimateSize(DiffResult result) {
+        long size = 1024;
+        if (result.getDifferences() != null) {
+            for (DiffItem item : result.getDifferences()) {
+                size += 256 + 2L * item.getPath().length();
+                size += JsonSizeEstimator.estimate(item.getOldValue()) + JsonSizeEstimator.estimate(item.getNewValue());
+            }
+        }
+        if (result.getLeftData() != null || result.getRightData() != null) {
+            size += JsonSizeEstimator.estimate(result.getLeftData()) + JsonSizeEstimator.estimate(result.getRightData());
+        }
+        return size;
+    }
+
+    /**
+     * 缓存键
+     */
+    public static final class Key {
+        private final byte[] left;
+        private final byte[] right;
+        private final String settings;
+        private final int hash;
+
+        Key(byte[] left, byte[] right, String settings) {
+            this.left = left;
+            this.right = right;
+            this.settings = settings;
+            this.hash = (Arrays.hashCode(left) * 31 + Arrays.hashCode(right)) * 31 + settings.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return hash == key.hash && Arrays.equals(left, key.left) && Arrays.equals(right, key.right)
+                    && settings.equals(key.settings);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.jsondiff.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jsondiff.model.CompareSettings;
+import com.jsondiff.model.StoredDocument;
+import com.jsondiff.util.ExactNumbers;
+import com.jsondiff.util.JsonSizeEstimator;
+import com.jsondiff.util.StructuralHasher;
+import com.jsondiff.util.WeightedLruCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 已上传文档存储 - 文档上传一次后以句柄引用，解析后的树模型和结构哈希保存在按字节数限制容量的LRU缓存中
+ *
+ * @author JSON Diff Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class DocumentStore {
+
+    private final ObjectMapper objectMapper;
+    private final WeightedLruCache<String, StoredDocument> documents;
+
+    public DocumentStore(ObjectMapper objectMapper,
+                         @Value("${json-diff.documents.max-size:268435456}") long maxSize) {
+        // 文档只用于对比，按精确数值解析
+        this.objectMapper = ExactNumbers.configure(objectMapper.copy());
+        this.documents = new WeightedLruCache<>(maxSize, StoredDocument::getEstimatedSize);
+    }
+
+    /**
+     * 解析并保存文档
+     *
+     * @param size 上传的字节数，未知为-1
+     */
+    public StoredDocument upload(InputStream in, long size) {
+        JsonNode tree;
+        try {
+            tree = objectMapper.readTree(in);
+        } catch (IOException e) {
+            throw new RuntimeException("无效的JSON格式: " + e.getMessage(), e);
+        }
+        if (tree == null || tree.isMissingNode()) {
+            throw new IllegalArgumentException("文档内容为空");
+        }
+
+        // 结构哈希在首次使用时计算，届时再计入估算大小
+        long estimatedSize = JsonSizeEstimator.estimate(tree);
+        StoredDocument document = new StoredDocument(UUID.randomUUID(), tree, size, estimatedSize);
+        if (!documents.put(document.getHandle(), document)) {
+            throw new IllegalArgumentException("文档过大，超过文档缓存容量");
+        }
+
+        log.info("保存文档 {}，{} 字节，估算占用 {} 字节", document.getHandle(), size, estimatedSize);
+        return document;
+    }
+
+    /**
+     * 获取文档，不存在或已被淘汰时返回null
+     */
+    public StoredDocument get(String handle) {
+        return documents.get(handle);
+    }
+
+    /**
+     * 获取文档按对比设置缓存的结构哈希，新计算的哈希计入文档大小并重新计算缓存权重，
+     * 总权重超过上限时淘汰最久未使用的文档
+     */
+    public StructuralHasher hasherFor(StoredDocument document, CompareSettings settings) {
+        long before = document.getEstimatedSize();
+        StructuralHasher hasher = document.hasherFor(settings);
+        if (document.getEstimatedSize() != before) {
+            documents.reweigh(document.getHandle(), document);
+        }
+        return hasher;
+    }
+
+    /**
+     * 删除文档
+     */
+    public StoredDocument remove(String handle) {
+        return documents.remove(handle);
+    }
+
+    /**
+     * 获取缓存统计信息
+     */
+    public Map<String, Object> getStats() {
+        return documents.getStats();
+    }
+}
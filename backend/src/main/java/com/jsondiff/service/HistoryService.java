@@ -0,0 +1,259 @@
+package com.jsondiff.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jsondiff.model.CompareSettings;
+import com.jsondiff.model.DiffItem;
+import com.jsondiff.model.DiffResult;
+import com.jsondiff.model.HistoryEntry;
+import com.jsondiff.util.HistoryCodec;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 对比历史服务 - 差异列表以紧凑的二进制列式编码保存在本地磁盘，元数据索引常驻内存
+ *
+ * 启动时只读取各文件的头部重建索引；列表接口只访问索引，查看详情时才解码对应文件。
+ * 超过保留时间或超过最大条数的记录在保存和列表时清理。
+ *
+ * @author JSON Diff Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+public class HistoryService {
+
+    private static final String SUFFIX = ".jdh";
+
+    private final JsonDiffService jsonDiffService;
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final long retention;
+    private final int maxEntries;
+    private final Map<String, HistoryEntry> entries = new ConcurrentHashMap<>();
+
+    public HistoryService(JsonDiffService jsonDiffService, ObjectMapper objectMapper,
+                          @Value("${json-diff.history.dir:${java.io.tmpdir}/json-diff-history}") String directory,
+                          @Value("${json-diff.history.retention:604800000}") long retention,
+                          @Value("${json-diff.history.max-entries:1000}") int maxEntries) {
+        this.jsonDiffService = jsonDiffService;
+        this.objectMapper = objectMapper;
+        this.directory = Paths.get(directory).toAbsolutePath().normalize();
+        this.retention = retention;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * 读取已有记录的头部，重建索引
+     */
+    @PostConstruct
+    public void init() {
+        try {
+            Files.createDirectories(directory);
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+                for (Path file : files) {
+                    try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+                        long size = Files.size(file);
+                        HistoryEntry entry = HistoryCodec.readHeader(in, size);
+                        entry.setStoredSize(size);
+                        entries.put(entry.getId(), entry);
+                    } catch (IOException e) {
+                        log.warn("跳过无法读取的历史文件 {}: {}", file.getFileName(), e.getMessage());
+                    }
+                }
+            }
+            purgeExpired();
+            log.info("对比历史目录 {}，已有 {} 条记录", directory, entries.size());
+        } catch (IOException e) {
+            throw new RuntimeException("无法初始化对比历史目录: " + directory, e);
+        }
+    }
+
+    /**
+     * 保存历史记录。请求体带result时保存该对比结果，否则按同步对比接口的请求体执行一次对比后保存
+     */
+    public HistoryEntry save(Map<String, Object> request) {
+        DiffResult result;
+        Object submitted = request.get("result");
+        if (submitted != null) {
+            result = objectMapper.convertValue(submitted, DiffResult.class);
+        } else {
+            result = jsonDiffService.compare(request);
+        }
+
+        List<DiffItem> items = result.getDifferences() != null ? result.getDifferences() : Collections.emptyList();
+        HistoryEntry entry = new HistoryEntry();
+        entry.setId(UUID.randomUUID().toString());
+        Object name = request.get("name");
+        entry.setName(name != null ? name.toString() : null);
+        entry.setCreatedAt(LocalDateTime.now());
+        entry.setTruncated(result.isTruncated());
+        entry.setTimedOut(result.isTimedOut());
+        entry.setDuration(result.getDuration());
+        Object settings = result.getSettings() != null ? result.getSettings() : request.get("settings");
+        entry.setSettings(settings != null ? objectMapper.valueToTree(settings) : null);
+
+        // 统计以实际保存的差异项为准
+        DiffResult counter = new DiffResult();
+        items.forEach(counter::addDifference);
+        entry.setTotalDifferences(counter.getTotalDifferences());
+        entry.setAddedCount(counter.getAddedCount());
+        entry.setRemovedCount(counter.getRemovedCount());
+        entry.setModifiedCount(counter.getModifiedCount());
+        entry.setMovedCount(counter.getMovedCount());
+
+        Path file = fileOf(entry.getId());
+        Path temp = directory.resolve(entry.getId() + ".tmp");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp), 65536)) {
+                HistoryCodec.write(entry, items, out);
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+            entry.setStoredSize(Files.size(file));
+        } catch (IOException e) {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                // 临时文件清理失败不影响错误上报
+            }
+            throw new RuntimeException("保存对比历史失败: " + e.getMessage(), e);
+        }
+
+        entries.put(entry.getId(), entry);
+        purgeExpired();
+        log.info("已保存对比历史 {}，{} 处差异，{} 字节", entry.getId(), items.size(), entry.getStoredSize());
+        return entry;
+    }
+
+    /**
+     * 分页获取历史记录元数据，按保存时间倒序
+     */
+    public Map<String, Object> list(int page, int size) {
+        purgeExpired();
+        List<HistoryEntry> sorted = new ArrayList<>(entries.values());
+        sorted.sort(Comparator.comparing(HistoryEntry::getCreatedAt).reversed());
+
+        int from = (int) Math.min((long) Math.max(page, 0) * size, sorted.size());
+        int to = Math.min(from + size, sorted.size());
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("items", new ArrayList<>(sorted.subList(from, to)));
+        result.put("total", sorted.size());
+        result.put("page", page);
+        result.put("size", size);
+        return result;
+    }
+
+    /**
+     * 获取历史记录的对比结果，差异列表按偏移量分页；记录不存在时返回null
+     */
+    public DiffResult get(String id, int offset, int limit) {
+        HistoryEntry entry = entries.get(id);
+        if (entry == null) {
+            return null;
+        }
+
+        // 只解码与请求范围重叠的块
+        Path file = fileOf(id);
+        List<DiffItem> items;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file), 65536)) {
+            items = HistoryCodec.readItems(in, Files.size(file), offset, limit > 0 ? limit : Integer.MAX_VALUE);
+        } catch (IOException e) {
+            throw new RuntimeException("读取对比历史失败: " + e.getMessage(), e);
+        }
+
+        DiffResult result = new DiffResult();
+        result.setTimestamp(entry.getCreatedAt());
+        result.setTotalDifferences(entry.getTotalDifferences());
+        result.setAddedCount(entry.getAddedCount());
+        result.setRemovedCount(entry.getRemovedCount());
+        result.setModifiedCount(entry.getModifiedCount());
+        result.setMovedCount(entry.getMovedCount());
+        result.setTruncated(entry.isTruncated());
+        result.setTimedOut(entry.isTimedOut());
+        result.setDuration(entry.getDuration());
+        result.setDifferences(items);
+        if (entry.getSettings() != null) {
+            result.setSettings(objectMapper.convertValue(entry.getSettings(), CompareSettings.class));
+        }
+        return result;
+    }
+
+    /**
+     * 删除历史记录
+     *
+     * @return 记录是否存在
+     */
+    public boolean delete(String id) {
+        HistoryEntry entry = entries.remove(id);
+        if (entry == null) {
+            return false;
+        }
+        deleteFile(id);
+        return true;
+    }
+
+    /**
+     * 清空全部历史记录
+     */
+    public int clear() {
+        int count = 0;
+        for (String id : new ArrayList<>(entries.keySet())) {
+            if (delete(id)) {
+                count++;
+            }
+        }
+        log.info("已清空对比历史，共 {} 条", count);
+        return count;
+    }
+
+    /**
+     * 清理超过保留时间的记录，以及超过最大条数时最早的记录
+     */
+    private synchronized void purgeExpired() {
+        LocalDateTime expiry = LocalDateTime.now().minusNanos(retention * 1_000_000L);
+        List<HistoryEntry> sorted = new ArrayList<>(entries.values());
+        sorted.sort(Comparator.comparing(HistoryEntry::getCreatedAt).reversed());
+        for (int i = 0; i < sorted.size(); i++) {
+            HistoryEntry entry = sorted.get(i);
+            if (i >= maxEntries || entry.getCreatedAt().isBefore(expiry)) {
+                delete(entry.getId());
+            }
+        }
+    }
+
+    private void deleteFile(String id) {
+        try {
+            Files.deleteIfExists(fileOf(id));
+        } catch (IOException e) {
+            log.warn("删除历史文件失败 {}: {}", id, e.getMessage());
+        }
+    }
+
+    /**
+     * 记录ID为UUID，按格式校验后再拼接文件名，避免路径穿越
+     */
+    private Path fileOf(String id) {
+        return directory.resolve(UUID.fromString(id) + SUFFIX);
+    }
+}
@@ -3,12 +3,21 @@ package com.jsondiff.service;
 import com.fasterxml.jackson.dataformat.xml.XmlMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
 import com.jsondiff.model.*;
+import com.jsondiff.util.ExactNumbers;
 import com.jsondiff.util.JsonComparator;
+import com.jsondiff.util.StreamingJsonComparator;
+import com.jsondiff.util.StructuralHasher;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.stereotype.Service;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * JSON对比服务
@@ -21,11 +30,28 @@ import java.util.*;
 public class JsonDiffService {
     
     private final ObjectMapper objectMapper;
+    private final ObjectMapper compareMapper;   // 对比输入按精确数值解析
     private final ObjectMapper xmlMapper;   //
     private final ObjectMapper yamlMapper;  //
+    private final DiffResultCache resultCache;
+    private final DocumentStore documentStore;
+    private final MemoryBudget memoryBudget;
+    private final ComputeAdmission computeAdmission;
+    private final long timeout;
+    private final long memoryWait;
     
-    public JsonDiffService(ObjectMapper objectMapper) {
+    public JsonDiffService(ObjectMapper objectMapper, DiffResultCache resultCache, DocumentStore documentStore,
+                           MemoryBudget memoryBudget, ComputeAdmission computeAdmission,
+                           @Value("${json-diff.timeout:30000}") long timeout,
+                           @Value("${json-diff.memory.wait:10000}") long memoryWait) {
         this.objectMapper = objectMapper;
+        this.compareMapper = ExactNumbers.configure(objectMapper.copy());
+        this.resultCache = resultCache;
+        this.documentStore = documentStore;
+        this.memoryBudget = memoryBudget;
+        this.computeAdmission = computeAdmission;
+        this.timeout = timeout;
+        this.memoryWait = memoryWait;
         this.xmlMapper = new XmlMapper();
         this.yamlMapper = new YAMLMapper();
     }
@@ -34,34 +60,129 @@ public class JsonDiffService {
      * 执行JSON对比
      */
     public DiffResult compare(Map<String, Object> request) {
+        return compare(request, null);
+    }
+    
+    /**
+     * 执行JSON对比，差异项在发现时立即交给监听器
+     */
+    @SuppressWarnings("unchecked")
+    public DiffResult compare(Map<String, Object> request, Consumer<DiffItem> listener) {
         log.info("开始JSON对比");
+        long startTime = System.currentTimeMillis();
         
         try {
-            // 提取参数
-            Object leftData = request.get("left");
-            Object rightData = request.get("right");
+            // 提取参数，任一侧可以用已上传文档的句柄代替
+            Object leftData = resolveInput(request, "left");
+            Object rightData = resolveInput(request, "right");
             Map<String, Object> settingsMap = (Map<String, Object>) request.get("settings");
             
-            // 解析JSON数据
-            Object leftJson = parseJsonData(leftData);
-            Object rightJson = parseJsonData(rightData);
-            
             // 创建对比设置
             CompareSettings settings = createCompareSettings(settingsMap);
             
-            // 执行对比
-            JsonComparator comparator = new JsonComparator(settings);
-            DiffResult result = comparator.compare(leftJson, rightJson);
+            // 相同内容和设置的结果直接从缓存返回，无需解析；逐项输出时不使用缓存
+            DiffResultCache.Key cacheKey = listener == null ? resultCache.keyOf(leftData, rightData, settings) : null;
+            DiffResult cached = resultCache.get(cacheKey);
+            if (cached != null) {
+                cached.setDuration(System.currentTimeMillis() - startTime);
+                log.info("JSON对比命中缓存，{} 处差异", cached.getTotalDifferences());
+                return cached;
+            }
             
+            // 引用已上传文档时请求体很小，按文档大小预留内存和计算许可
+            Runnable release = admitDocuments(leftData, rightData);
+            DiffResult result;
+            try {
+                // 解析JSON数据，字符串直接解析为树模型，避免中间对象
+                Object leftJson = parseInput(leftData);
+                Object rightJson = parseInput(rightData);
+                
+                // 执行对比，已上传文档复用缓存的结构哈希
+                JsonComparator comparator = new JsonComparator(settings, listener);
+                comparator.setTimeout(timeout);
+                if (JsonComparator.usesStructuralHash(settings)) {
+                    comparator.setPreparedHashes(preparedHashes(leftData, settings), preparedHashes(rightData, settings));
+                }
+                result = comparator.compare(leftJson, rightJson);
+            } finally {
+                release.run();
+            }
+            resultCache.put(cacheKey, result);
+            
+            if (result.isTimedOut()) {
+                log.warn("JSON对比超时（{} 毫秒），返回部分结果", timeout);
+            }
             log.info("JSON对比完成，发现 {} 处差异", result.getTotalDifferences());
             return result;
             
+        } catch (TaskRejectedException e) {
+            throw e;
         } catch (Exception e) {
             log.error("JSON对比失败", e);
             throw new RuntimeException("对比失败: " + e.getMessage(), e);
         }
     }
     
+    /**
+     * 执行JSON流式对比，两侧数据以Token流方式读取，不构建完整的树
+     */
+    public DiffResult compare(InputStream left, InputStream right, Map<String, Object> settingsMap,
+                              Consumer<DiffItem> listener) {
+        log.info("开始JSON流式对比");
+        
+        try (JsonParser leftParser = compareMapper.createParser(left);
+             JsonParser rightParser = compareMapper.createParser(right)) {
+            
+            // 创建对比设置
+            CompareSettings settings = createCompareSettings(settingsMap);
+            
+            // 执行对比
+            StreamingJsonComparator comparator = new StreamingJsonComparator(settings, listener);
+            comparator.setTimeout(timeout);
+            DiffResult result = comparator.compare(leftParser, rightParser);
+            
+            if (result.isTimedOut()) {
+                log.warn("JSON流式对比超时（{} 毫秒），返回部分结果", timeout);
+            }
+            log.info("JSON流式对比完成，发现 {} 处差异", result.getTotalDifferences());
+            return result;
+            
+        } catch (Exception e) {
+            log.error("JSON流式对比失败", e);
+            throw new RuntimeException("对比失败: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * 执行JSON流式对比，对比设置以JSON字符串形式传入
+     */
+    public DiffResult compare(InputStream left, InputStream right, String settingsJson) {
+        return compare(left, right, parseSettings(settingsJson), null);
+    }
+    
+    /**
+     * 执行JSON流式对比，差异项在发现时立即交给监听器
+     */
+    public DiffResult compare(InputStream left, InputStream right, String settingsJson,
+                              Consumer<DiffItem> listener) {
+        return compare(left, right, parseSettings(settingsJson), listener);
+    }
+    
+    /**
+     * 获取结果缓存的统计信息
+     */
+    public Map<String, Object> getCacheStats() {
+        return resultCache.getStats();
+    }
+    
+    /**
+     * 清空结果缓存
+     */
+    public void clearCache() {
+        resultCache.clear();
+        log.info("已清空对比结果缓存");
+    }
+    
     /**
      * 验证JSON数据
      */
@@ -225,9 +346,132 @@ public class JsonDiffService {
     }
     
     /**
-     * 创建对比设置
+     * 获取请求中一侧的输入，指定了句柄（leftHandle/rightHandle）时返回已上传的文档
+     */
+    public Object resolveInput(Map<String, Object> request, String side) {
+        Object handle = request.get(side + "Handle");
+        if (handle == null) {
+            return request.get(side);
+        }
+        StoredDocument document = documentStore.get(String.valueOf(handle));
+        if (document == null) {
+            throw new IllegalArgumentException("文档不存在或已过期: " + handle);
+        }
+        return document;
+    }
+    
+    /**
+     * 为引用已上传文档的对比预留内存预算和计算许可
+     *
+     * 请求体只含句柄时，准入过滤器按内容长度预留的内存和许可几乎为零，这里按文档的估算大小补足。
+     * 两侧都不是已上传文档时不预留。
+     *
+     * @return 归还预留的操作，只能调用一次
+     * @throws TaskRejectedException 内存预算或计算许可不足
      */
-    private CompareSettings createCompareSettings(Map<String, Object> settingsMap) {
+    public Runnable admitDocuments(Object left, Object right) {
+        if (!(left instanceof StoredDocument) && !(right instanceof StoredDocument)) {
+            return () -> { };
+        }
+        long memory = documentMemory(left) + documentMemory(right);
+        int weight = computeAdmission.weightOf(documentBytes(left) + documentBytes(right));
+        try {
+            if (!memoryBudget.reserve(memory, memoryWait)) {
+                throw new TaskRejectedException("内存预算不足，请稍后重试");
+            }
+            if (!computeAdmission.acquire(weight)) {
+                memoryBudget.release(memory);
+                throw new TaskRejectedException("服务繁忙，请稍后重试");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TaskRejectedException("等待准入时被中断", e);
+        }
+        return () -> {
+            computeAdmission.release(weight);
+            memoryBudget.release(memory);
+        };
+    }
+    
+    /**
+     * 已上传文档估算占用的内存（字节），其他输入返回0
+     */
+    public long documentMemory(Object input) {
+        return input instanceof StoredDocument ? ((StoredDocument) input).getEstimatedSize() : 0;
+    }
+    
+    /**
+     * 已上传文档的原始字节数，上传时长度未知的按估算大小计
+     */
+    private static long documentBytes(Object input) {
+        if (!(input instanceof StoredDocument)) {
+            return 0;
+        }
+        StoredDocument document = (StoredDocument) input;
+        return document.getSize() >= 0 ? document.getSize() : document.getEstimatedSize();
+    }
+    
+    /**
+     * 将输入转换为树模型，已上传的文档直接使用保存的树
+     */
+    public Object parseInput(Object input) {
+        if (input instanceof StoredDocument) {
+            return ((StoredDocument) input).getTree();
+        }
+        return parseJsonTree(input);
+    }
+    
+    /**
+     * 已上传文档按设置缓存的结构哈希，其他输入返回null
+     */
+    private StructuralHasher preparedHashes(Object input, CompareSettings settings) {
+        return input instanceof StoredDocument ? documentStore.hasherFor((StoredDocument) input, settings) : null;
+    }
+    
+    /**
+     * 解析JSON数据为树模型
+     */
+    public Object parseJsonTree(Object data) {
+        if (data instanceof String) {
+            String str = (String) data;
+            if (str.isBlank()) {
+                return null;
+            }
+            try {
+                return compareMapper.readTree(str);
+            } catch (Exception e) {
+                throw new RuntimeException("无效的JSON格式", e);
+            }
+        }
+        
+        return data;
+    }
+    
+    /**
+     * 解析JSON字符串形式的对比设置
+     */
+    private Map<String, Object> parseSettings(String settingsJson) {
+        if (settingsJson == null || settingsJson.isBlank()) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(settingsJson, new TypeReference<Map<String, Object>>() {});
+        } catch (Exception e) {
+            throw new IllegalArgumentException("无效的对比设置", e);
+        }
+    }
+    
+    /**
+     * 由JSON字符串形式的设置创建对比设置，设置无效时抛出IllegalArgumentException
+     */
+    public CompareSettings createCompareSettings(String settingsJson) {
+        return createCompareSettings(parseSettings(settingsJson));
+    }
+    
+    /**
+     * 创建对比设置，设置无效时抛出IllegalArgumentException
+     */
+    public CompareSettings createCompareSettings(Map<String, Object> settingsMap) {
         CompareSettings settings = new CompareSettings();
         
         if (settingsMap != null) {
@@ -237,11 +481,50 @@ public class JsonDiffService {
             settings.setMaxDepth((Integer) settingsMap.getOrDefault("maxDepth", 100));
             settings.setIgnoreNull((Boolean) settingsMap.getOrDefault("ignoreNull", false));
             settings.setStrict((Boolean) settingsMap.getOrDefault("strict", false));
+            settings.setIncludeInputs((Boolean) settingsMap.getOrDefault("includeInputs", false));
+            settings.setValueMode(CompareSettings.ValueMode.from((String) settingsMap.get("valueMode")));
+            settings.setPreviewLength((Integer) settingsMap.getOrDefault("previewLength", 200));
+            settings.setParallel((Boolean) settingsMap.getOrDefault("parallel", false));
+            settings.setParallelThreshold((Integer) settingsMap.getOrDefault("parallelThreshold", 1000));
+            settings.setStructuralHash((Boolean) settingsMap.getOrDefault("structuralHash", false));
+            settings.setArrayMode(CompareSettings.ArrayMode.from((String) settingsMap.get("arrayMode")));
+            settings.setMaxEditCost((Integer) settingsMap.getOrDefault("maxEditCost", 2000));
+            settings.setDetectMoves((Boolean) settingsMap.getOrDefault("detectMoves", true));
+            settings.setMaxDifferences((Integer) settingsMap.getOrDefault("maxDifferences", 0));
+            settings.setEqualityOnly((Boolean) settingsMap.getOrDefault("equalityOnly", false));
+            settings.setArrayKeys(parseArrayKeys(settingsMap.get("arrayKeys")));
+            settings.setNumberTolerance(((Number) settingsMap.getOrDefault("numberTolerance", 0)).doubleValue());
+            settings.setRelativeTolerance(((Number) settingsMap.getOrDefault("relativeTolerance", 0)).doubleValue());
         }
         
+        settings.validate();
         return settings;
     }
     
+    /**
+     * 解析数组标识字段配置，字段名可以是单个字符串或字符串列表
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, List<String>> parseArrayKeys(Object value) {
+        Map<String, List<String>> arrayKeys = new HashMap<>();
+        if (!(value instanceof Map)) {
+            return arrayKeys;
+        }
+        for (Map.Entry<String, Object> entry : ((Map<String, Object>) value).entrySet()) {
+            Object keys = entry.getValue();
+            if (keys instanceof String) {
+                arrayKeys.put(entry.getKey(), Collections.singletonList((String) keys));
+            } else if (keys instanceof List) {
+                List<String> names = new ArrayList<>();
+                for (Object key : (List<Object>) keys) {
+                    names.add(String.valueOf(key));
+                }
+                arrayKeys.put(entry.getKey(), names);
+            }
+        }
+        return arrayKeys;
+    }
+    
     /**
      * 获取JSON类型
      */
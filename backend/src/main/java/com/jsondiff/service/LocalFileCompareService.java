@@ -0,0 +1,115 @@
+package com.jsondiff.service;
+
+import com.jsondiff.model.DiffResult;
+import com.jsondiff.util.JsonComparator;
+import com.jsondiff.util.MappedFiles;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+/**
+ * 本地文件对比服务 - 对比服务器上已有的两个文件，避免经HTTP传输和解码为字符串
+ *
+ * 文件以内存映射方式读取：字节完全相同时直接返回无差异，不做解析；
+ * 否则把映射的内存作为字节流交给流式对比。只允许访问 json-diff.local-files.root 下的文件，未配置时不可用。
+ *
+ * @author JSON Diff Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+public class LocalFileCompareService {
+
+    private final JsonDiffService jsonDiffService;
+    private final MemoryBudget memoryBudget;
+    private final Path root;
+    private final long waitMillis;
+
+    public LocalFileCompareService(JsonDiffService jsonDiffService, MemoryBudget memoryBudget,
+                                   @Value("${json-diff.local-files.root:}") String root,
+                                   @Value("${json-diff.memory.wait:10000}") long waitMillis) {
+        this.jsonDiffService = jsonDiffService;
+        this.memoryBudget = memoryBudget;
+        this.root = root.isBlank() ? null : Paths.get(root).toAbsolutePath().normalize();
+        this.waitMillis = waitMillis;
+    }
+
+    /**
+     * 对比两个本地文件，路径相对于允许的根目录
+     *
+     * @throws IllegalStateException 未配置根目录
+     * @throws SecurityException     文件不在根目录内
+     * @throws TaskRejectedException 内存预算不足
+     */
+    public DiffResult compare(String leftPath, String rightPath, Map<String, Object> settingsMap) {
+        if (root == null) {
+            throw new IllegalStateException("未启用本地文件对比，请配置 json-diff.local-files.root");
+        }
+        Path left = resolve(leftPath);
+        Path right = resolve(rightPath);
+        log.info("开始本地文件对比: {} <-> {}", left, right);
+        long startTime = System.currentTimeMillis();
+
+        try (FileChannel leftChannel = FileChannel.open(left, StandardOpenOption.READ);
+             FileChannel rightChannel = FileChannel.open(right, StandardOpenOption.READ)) {
+
+            // 字节完全相同时在任何对比设置下都没有差异，跳过解析
+            if (MappedFiles.contentEquals(leftChannel, rightChannel)) {
+                log.info("本地文件字节完全相同，跳过解析");
+                DiffResult result = new JsonComparator(jsonDiffService.createCompareSettings(settingsMap))
+                        .identicalResult();
+                result.setDuration(System.currentTimeMillis() - startTime);
+                return result;
+            }
+
+            long reserved = memoryBudget.estimate(leftChannel.size() + rightChannel.size(), true);
+            if (!memoryBudget.reserve(reserved, waitMillis)) {
+                throw new TaskRejectedException("内存预算不足，请稍后重试");
+            }
+            try {
+                return jsonDiffService.compare(MappedFiles.newInputStream(leftChannel),
+                        MappedFiles.newInputStream(rightChannel), settingsMap, null);
+            } finally {
+                memoryBudget.release(reserved);
+            }
+
+        } catch (IOException e) {
+            throw new RuntimeException("读取本地文件失败: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("等待内存预算时被中断", e);
+        }
+    }
+
+    /**
+     * 解析相对于根目录的路径，跟随符号链接后仍须位于根目录内
+     */
+    private Path resolve(String path) {
+        if (path == null || path.isBlank()) {
+            throw new IllegalArgumentException("缺少文件路径");
+        }
+        try {
+            Path real = root.resolve(path).normalize().toRealPath();
+            if (!real.startsWith(root.toRealPath())) {
+                throw new SecurityException("文件不在允许的目录内: " + path);
+            }
+            if (!Files.isRegularFile(real)) {
+                throw new IllegalArgumentException("不是普通文件: " + path);
+            }
+            return real;
+        } catch (NoSuchFileException e) {
+            throw new IllegalArgumentException("文件不存在: " + path);
+        } catch (IOException e) {
+            throw new RuntimeException("读取本地文件失败: " + e.getMessage(), e);
+        }
+    }
+}
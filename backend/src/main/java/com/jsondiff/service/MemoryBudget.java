@@ -0,0 +1,119 @@
+package com.jsondiff.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 全局内存预算 - 按请求体大小估算解析和比较所需的堆内存，执行前预留，结束后归还
+ *
+ * 预算以KB为单位记录在公平信号量中。单个请求的估算超过总预算时无法执行，
+ * 预算暂时不足时等待其他请求归还。
+ *
+ * @author JSON Diff Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class MemoryBudget {
+
+    private static final long KB = 1024;
+
+    private final Semaphore permits;
+    private final long totalKb;
+    private final double factor;
+    private final double streamFactor;
+    private final long unknownSize;
+
+    public MemoryBudget(@Value("${json-diff.memory.budget:0}") long budget,
+                        @Value("${json-diff.memory.factor:16}") double factor,
+                        @Value("${json-diff.memory.stream-factor:1}") double streamFactor,
+                        @Value("${json-diff.max-file-size:10485760}") long unknownSize) {
+        // 未配置时使用最大堆内存的一半
+        long bytes = budget > 0 ? budget : Runtime.getRuntime().maxMemory() / 2;
+        this.totalKb = Math.max(1, Math.min(Integer.MAX_VALUE, bytes / KB));
+        this.permits = new Semaphore((int) totalKb, true);
+        this.factor = factor;
+        this.streamFactor = streamFactor;
+        this.unknownSize = unknownSize;
+        log.info("内存预算 {} MB，估算系数 {}（流式 {}）", totalKb / KB, factor, streamFactor);
+    }
+
+    /**
+     * 估算请求所需内存（字节），长度未知时按最大文件大小估算
+     *
+     * @param contentLength 请求体字节数，未知为-1
+     * @param streaming     是否为流式对比，流式对比不构建完整的树
+     */
+    public long estimate(long contentLength, boolean streaming) {
+        long length = contentLength >= 0 ? contentLength : unknownSize;
+        return (long) (length * (streaming ? streamFactor : factor));
+    }
+
+    /**
+     * 估算是否超过总预算，超过时永远无法执行
+     */
+    public boolean exceedsTotal(long bytes) {
+        return toKb(bytes) > totalKb;
+    }
+
+    /**
+     * 预留内存，预算不足时最多等待指定时间
+     *
+     * @return 是否预留成功
+     */
+    public boolean reserve(long bytes, long waitMillis) throws InterruptedException {
+        int kb = toKb(bytes);
+        if (kb == 0) {
+            return true;
+        }
+        if (kb > totalKb) {
+            return false;
+        }
+        return permits.tryAcquire(kb, waitMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 立即预留内存，预算不足时不等待
+     */
+    public boolean tryReserve(long bytes) {
+        int kb = toKb(bytes);
+        return kb == 0 || (kb <= totalKb && permits.tryAcquire(kb));
+    }
+
+    /**
+     * 归还预留的内存
+     */
+    public void release(long bytes) {
+        int kb = toKb(bytes);
+        if (kb > 0) {
+            permits.release(kb);
+        }
+    }
+
+    /**
+     * 总预算（字节）
+     */
+    public long getTotal() {
+        return totalKb * KB;
+    }
+
+    /**
+     * 当前可用预算（字节）
+     */
+    public long getAvailable() {
+        return permits.availablePermits() * KB;
+    }
+
+    /**
+     * 字节数换算为KB许可数，向上取整，超过int范围时按int最大值计
+     */
+    private static int toKb(long bytes) {
+        if (bytes <= 0) {
+            return 0;
+        }
+        return (int) Math.min(Integer.MAX_VALUE, (bytes + KB - 1) / KB);
+    }
+}
@@ -0,0 +1,156 @@
+package com.jsondiff.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jsondiff.model.DiffItem;
+import com.jsondiff.model.DiffPage;
+import com.jsondiff.model.DiffResult;
+import com.jsondiff.model.DiffTreeNode;
+import com.jsondiff.model.StoredResult;
+import com.jsondiff.util.DiffIndex;
+import com.jsondiff.util.JsonSizeEstimator;
+import com.jsondiff.util.WeightedLruCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 对比结果存储 - 对比结果建立子树索引后以句柄引用，前端只拉取可见范围内的差异项
+ *
+ * 结果保存在按估算字节数限制容量的LRU缓存中，被淘汰后需要重新创建。
+ *
+ * @author JSON Diff Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class ResultStore {
+
+    /**
+     * 路径树每个节点的估算开销（节点对象、路径字符串和散列表条目）
+     */
+    private static final long NODE_SIZE = 192;
+
+    /**
+     * 创建结果时返回的根节点子节点数量
+     */
+    private static final int ROOT_CHILDREN = 100;
+
+    private final JsonDiffService jsonDiffService;
+    private final ObjectMapper objectMapper;
+    private final WeightedLruCache<String, StoredResult> results;
+
+    public ResultStore(JsonDiffService jsonDiffService, ObjectMapper objectMapper,
+                       @Value("${json-diff.results.max-size:268435456}") long maxSize) {
+        this.jsonDiffService = jsonDiffService;
+        this.objectMapper = objectMapper;
+        this.results = new WeightedLruCache<>(maxSize, StoredResult::getEstimatedSize);
+    }
+
+    /**
+     * 保存对比结果。请求体带result时保存该结果，否则按同步对比接口的请求体执行一次对比后保存
+     */
+    public StoredResult create(Map<String, Object> request) {
+        Object submitted = request.get("result");
+        DiffResult result = submitted != null
+                ? objectMapper.convertValue(submitted, DiffResult.class)
+                : jsonDiffService.compare(request);
+
+        List<DiffItem> differences = result.getDifferences() != null ? result.getDifferences() : Collections.emptyList();
+        DiffIndex index = new DiffIndex(differences);
+        long estimatedSize = estimateSize(differences, index);
+        StoredResult stored = new StoredResult(UUID.randomUUID(), result, index,
+                index.tree(null, 0, ROOT_CHILDREN), estimatedSize);
+        if (!results.put(stored.getHandle(), stored)) {
+            throw new IllegalArgumentException("对比结果过大，超过结果缓存容量");
+        }
+
+        log.info("保存对比结果 {}，{} 处差异，{} 个路径节点，估算占用 {} 字节",
+                stored.getHandle(), index.size(), index.nodeCount(), estimatedSize);
+        return stored;
+    }
+
+    /**
+     * 获取结果，不存在或已被淘汰时返回null
+     */
+    public StoredResult get(String handle) {
+        return results.get(handle);
+    }
+
+    /**
+     * 分页查询差异项；结果不存在时返回null，路径不存在时返回空页
+     *
+     * @param types 差异类型，为空时不限
+     */
+    public DiffPage query(String handle, String path, List<DiffItem.DiffType> types, int minDepth, int maxDepth,
+                          int cursor, int limit) {
+        StoredResult stored = results.get(handle);
+        if (stored == null) {
+            return null;
+        }
+        int typeMask = 0;
+        if (types != null) {
+            for (DiffItem.DiffType type : types) {
+                typeMask |= 1 << type.ordinal();
+            }
+        }
+
+        DiffIndex index = stored.getIndex();
+        List<DiffItem> items = new ArrayList<>(Math.min(limit, index.size()));
+        int next = index.query(path, typeMask, minDepth, maxDepth, cursor, limit, items);
+
+        DiffPage page = new DiffPage();
+        page.setHandle(handle);
+        page.setItems(items);
+        page.setCursor(Math.max(cursor, 0));
+        page.setNextCursor(next >= 0 ? next : null);
+        DiffTreeNode node = index.tree(path, 0, 0);
+        page.setSubtreeTotal(node != null ? node.getTotal() : 0);
+        return page;
+    }
+
+    /**
+     * 获取路径对应子树的统计和一页子节点；结果不存在时返回null，路径不存在时抛出异常
+     */
+    public DiffTreeNode tree(String handle, String path, int offset, int limit) {
+        StoredResult stored = results.get(handle);
+        if (stored == null) {
+            return null;
+        }
+        DiffTreeNode node = stored.getIndex().tree(path, offset, limit);
+        if (node == null) {
+            throw new IllegalArgumentException("路径不存在: " + path);
+        }
+        return node;
+    }
+
+    /**
+     * 删除结果
+     */
+    public StoredResult remove(String handle) {
+        return results.remove(handle);
+    }
+
+    /**
+     * 获取缓存统计信息
+     */
+    public Map<String, Object> getStats() {
+        return results.getStats();
+    }
+
+    /**
+     * 估算占用的字节数：差异项按对比结果缓存的方式估算，另加路径树节点和按列存放的类型、深度
+     */
+    private static long estimateSize(List<DiffItem> differences, DiffIndex index) {
+        long size = 1024 + index.nodeCount() * NODE_SIZE + differences.size() * 5L;
+        for (DiffItem item : differences) {
+            size += 256 + (item.getPath() != null ? 2L * item.getPath().length() : 0);
+            size += JsonSizeEstimator.estimate(item.getOldValue()) + JsonSizeEstimator.estimate(item.getNewValue());
+        }
+        return size;
+    }
+}
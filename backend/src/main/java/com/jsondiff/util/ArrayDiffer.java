@@ -0,0 +1,185 @@
+package com.jsondiff.util;
+
+import java.util.Arrays;
+
+/**
+ * 数组序列差异算法 - 基于元素哈希的Myers差异算法（线性空间版本）
+ *
+ * 先裁剪公共前缀和后缀，再用双向搜索找到中间分割点并递归求解，每层只需要O(N+M)的空间。
+ * 搜索设有代价上限：单个子问题的编辑距离超过上限、或总搜索步数耗尽时，
+ * 该子问题不再寻找匹配，剩余元素全部视为删除和新增，保证病态输入下的时间和内存有界。
+ *
+ * @author JSON Diff Team
+ * @version 1.0.0
+ */
+public class ArrayDiffer {
+
+    private final int maxCost;
+    private long budget;
+    private long[] left;
+    private long[] right;
+    private int[] matches;
+
+    /**
+     * 构造函数
+     *
+     * @param maxCost 单个子问题允许的最大编辑距离
+     */
+    public ArrayDiffer(int maxCost) {
+        this.maxCost = Math.max(1, maxCost);
+    }
+
+    /**
+     * 计算两个哈希序列的最长公共子序列匹配
+     *
+     * @return 与左侧等长的数组，元素为匹配的右侧下标，未匹配为-1，匹配下标单调递增
+     */
+    public int[] match(long[] left, long[] right) {
+        this.left = left;
+        this.right = right;
+        this.matches = new int[left.length];
+        Arrays.fill(matches, -1);
+        // 总搜索步数上限，与序列长度成正比
+        this.budget = (long) maxCost * (left.length + right.length + 1);
+
+        diff(0, left.length, 0, right.length);
+        return matches;
+    }
+
+    /**
+     * 递归求解[aLo, aHi)与[bLo, bHi)的差异
+     */
+    private void diff(int aLo, int aHi, int bLo, int bHi) {
+        // 公共前缀
+        while (aLo < aHi && bLo < bHi && left[aLo] == right[bLo]) {
+            matches[aLo++] = bLo++;
+        }
+
+        // 公共后缀，递归结束后再记录以保持顺序
+        int suffix = 0;
+        while (aLo < aHi - suffix && bLo < bHi - suffix && left[aHi - suffix - 1] == right[bHi - suffix - 1]) {
+            suffix++;
+        }
+        aHi -= suffix;
+        bHi -= suffix;
+
+        if (aLo < aHi && bLo < bHi) {
+            int[] split = bisect(aLo, aHi, bLo, bHi);
+            if (split != null) {
+                diff(aLo, split[0], bLo, split[1]);
+                diff(split[0], aHi, split[1], bHi);
+            }
+        }
+
+        for (int k = 0; k < suffix; k++) {
+            matches[aHi + k] = bHi + k;
+        }
+    }
+
+    /**
+     * 双向搜索中间分割点，超过代价上限时返回null
+     */
+    private int[] bisect(int aLo, int aHi, int bLo, int bHi) {
+        int n = aHi - aLo;
+        int m = bHi - bLo;
+        int maxD = Math.min((n + m + 1) / 2, maxCost);
+        int offset = maxD + 1;
+        int length = 2 * offset + 1;
+        int[] forward = new int[length];
+        int[] reverse = new int[length];
+        Arrays.fill(forward, -1);
+        Arrays.fill(reverse, -1);
+        forward[offset + 1] = 0;
+        reverse[offset + 1] = 0;
+
+        int delta = n - m;
+        // 差值为奇数时在正向搜索中检测重叠，否则在反向搜索中检测
+        boolean front = (delta & 1) != 0;
+        int k1Start = 0;
+        int k1End = 0;
+        int k2Start = 0;
+        int k2End = 0;
+
+        for (int d = 0; d <= maxD; d++) {
+            if (budget-- <= 0) {
+                return null;
+            }
+
+            // 正向搜索
+            for (int k1 = -d + k1Start; k1 <= d - k1End; k1 += 2) {
+                int k1Offset = offset + k1;
+                int x1;
+                if (k1 == -d || (k1 != d && forward[k1Offset - 1] < forward[k1Offset + 1])) {
+                    x1 = forward[k1Offset + 1];
+                } else {
+                    x1 = forward[k1Offset - 1] + 1;
+                }
+                int y1 = x1 - k1;
+                while (x1 < n && y1 < m && left[aLo + x1] == right[bLo + y1]) {
+                    x1++;
+                    y1++;
+                }
+                budget--;
+                forward[k1Offset] = x1;
+                if (x1 > n) {
+                    k1End += 2;
+                } else if (y1 > m) {
+                    k1Start += 2;
+                } else if (front) {
+                    int k2Offset = offset + delta - k1;
+                    if (k2Offset >= 0 && k2Offset < length && reverse[k2Offset] != -1) {
+                        int x2 = n - reverse[k2Offset];
+                        if (x1 >= x2) {
+                            return split(aLo, bLo, x1, y1, n, m);
+                        }
+                    }
+                }
+            }
+
+            // 反向搜索
+            for (int k2 = -d + k2Start; k2 <= d - k2End; k2 += 2) {
+                int k2Offset = offset + k2;
+                int x2;
+                if (k2 == -d || (k2 != d && reverse[k2Offset - 1] < reverse[k2Offset + 1])) {
+                    x2 = reverse[k2Offset + 1];
+                } else {
+                    x2 = reverse[k2Offset - 1] + 1;
+                }
+                int y2 = x2 - k2;
+                while (x2 < n && y2 < m && left[aHi - x2 - 1] == right[bHi - y2 - 1]) {
+                    x2++;
+                    y2++;
+                }
+                budget--;
+                reverse[k2Offset] = x2;
+                if (x2 > n) {
+                    k2End += 2;
+                } else if (y2 > m) {
+                    k2Start += 2;
+                } else if (!front) {
+                    int k1Offset = offset + delta - k2;
+                    if (k1Offset >= 0 && k1Offset < length && forward[k1Offset] != -1) {
+                        int x1 = forward[k1Offset];
+                        int y1 = x1 - (k1Offset - offset);
+                        if (x1 >= n - x2) {
+                            return split(aLo, bLo, x1, y1, n, m);
+                        }
+                    }
+                }
+            }
+        }
+
+        // 超过代价上限
+        return null;
+    }
+
+    /**
+     * 生成分割点，分割点必须把问题拆成两个更小的子问题
+     */
+    private int[] split(int aLo, int bLo, int x, int y, int n, int m) {
+        if ((x == 0 && y == 0) || (x == n && y == m)) {
+            return null;
+        }
+        return new int[]{aLo + x, bLo + y};
+    }
+}
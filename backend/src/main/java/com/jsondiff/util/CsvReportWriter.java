@@ -0,0 +1,135 @@
+package com.jsondiff.util;
+
+import com.jsondiff.model.DiffItem;
+import com.jsondiff.model.DiffResult;
+import com.jsondiff.model.DiffStats;
+import com.jsondiff.model.ExportConfig;
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+/**
+ * CSV差异报告输出器 - 值以紧凑JSON写出，字段统一加双引号
+ *
+ * @author JSON Diff Team
+ * @version 1.0.0
+ */
+public class CsvReportWriter extends ReportWriter {
+
+    private final Writer quoted;
+
+    public CsvReportWriter(OutputStream out, ExportConfig config) throws IOException {
+        super(out, config);
+        this.quoted = new QuotingWriter(this.out);
+    }
+
+    @Override
+    public void writeHeader() throws IOException {
+        out.write(config.isIncludePaths() ? "Path,Type,OldValue,NewValue\n" : "Type,OldValue,NewValue\n");
+    }
+
+    @Override
+    protected void writeItem(int index, DiffItem item) throws IOException {
+        if (config.isIncludePaths()) {
+            writeField(item.getPath());
+            out.write(',');
+        }
+        out.write(item.getType().toJson());
+        out.write(',');
+        writeValueField(item.getOldValue());
+        out.write(',');
+        writeValueField(item.getNewValue());
+        out.write('\n');
+    }
+
+    @Override
+    public void writeFooter(DiffResult result, Object left, Object right) throws IOException {
+        if (config.isIncludeStats()) {
+            DiffStats stats = result.getStats();
+            out.write("\n统计信息\n新增," + stats.getAdded() + "\n删除," + stats.getRemoved()
+                    + "\n修改," + stats.getModified() + "\n移动," + stats.getMoved() + "\n总计," + stats.getTotal() + "\n");
+            if (result.isTruncated() || result.isTimedOut()) {
+                out.write("不完整," + (result.isTimedOut() ? "对比超时" : "差异数量达到上限") + "\n");
+            }
+        }
+        if (config.isIncludeOriginal()) {
+            out.write("\n原始数据\nLeft,\"");
+            writeOriginal(left, quoted);
+            out.write("\"\nRight,\"");
+            writeOriginal(right, quoted);
+            out.write("\"\n");
+        }
+    }
+
+    @Override
+    public void writeError(String message) throws IOException {
+        out.write("\n错误,");
+        writeField(message);
+        out.write('\n');
+    }
+
+    private void writeField(String value) throws IOException {
+        out.write('"');
+        quoted.write(value);
+        out.write('"');
+    }
+
+    private void writeValueField(Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        out.write('"');
+        writeValue(value, quoted, false);
+        out.write('"');
+    }
+
+    /**
+     * 把双引号写成两个双引号，用于双引号内的字段值
+     */
+    private static class QuotingWriter extends FilterWriter {
+
+        QuotingWriter(Writer out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            if (c == '"') {
+                out.write('"');
+            }
+            out.write(c);
+        }
+
+        @Override
+        public void write(char[] buffer, int offset, int length) throws IOException {
+            int start = offset;
+            int end = offset + length;
+            for (int i = offset; i < end; i++) {
+                if (buffer[i] == '"') {
+                    out.write(buffer, start, i + 1 - start);
+                    start = i;
+                }
+            }
+            out.write(buffer, start, end - start);
+        }
+
+        @Override
+        public void write(String text, int offset, int length) throws IOException {
+            int start = offset;
+            int end = offset + length;
+            for (int i = offset; i < end; i++) {
+                if (text.charAt(i) == '"') {
+                    out.write(text, start, i + 1 - start);
+                    start = i;
+                }
+            }
+            out.write(text, start, end - start);
+        }
+
+        @Override
+        public void close() {
+            // 底层输出流由报告输出器关闭
+        }
+    }
+}
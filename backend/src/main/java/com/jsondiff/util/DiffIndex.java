@@ -0,0 +1,329 @@
+package com.jsondiff.util;
+
+import com.jsondiff.model.DiffItem;
+import com.jsondiff.model.DiffTreeNode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 差异列表的子树索引 - 支持按路径前缀、类型和深度分页查询，以及按子树统计差异数量
+ *
+ * 建立索引时按差异项的路径构造路径树，再按路径树的先序遍历重新排列差异项，
+ * 使任一子树内的差异项在排列后连续，路径前缀过滤只需定位到子树的区间。
+ * 子节点按首次出现的顺序排列，对比结果本身按深度优先输出，因此排列后的顺序与原顺序基本一致。
+ * 类型和深度另存为按排列顺序的数组，过滤时顺序扫描，不访问差异项本身。
+ * 索引建立后只读，可被多个请求同时查询。
+ *
+ * @author JSON Diff Team
+ * @version 1.0.0
+ */
+public class DiffIndex {
+
+    private static final String ROOT = "$";
+    private static final int TYPE_COUNT = DiffItem.DiffType.values().length;
+
+    private final DiffItem[] items;
+    private final byte[] types;
+    private final int[] depths;
+    private final Map<String, Node> nodes = new HashMap<>();
+    private final Node root;
+
+    /**
+     * 建立索引
+     */
+    public DiffIndex(List<DiffItem> differences) {
+        root = new Node(ROOT, ROOT);
+        nodes.put(ROOT, root);
+        // 路径中的键名不转义，可能含'.'或'['，各段的起点以比较时记录的为准，其次以差异项的父路径为准
+        Map<String, Integer> segmentStarts = new HashMap<>();
+        for (DiffItem item : differences) {
+            recordSegmentStarts(item, segmentStarts);
+        }
+        for (int i = 0; i < differences.size(); i++) {
+            DiffItem item = differences.get(i);
+            nodeOf(item.getPath(), item.getDepth() - 1, segmentStarts).add(i);
+        }
+
+        items = new DiffItem[differences.size()];
+        types = new byte[items.length];
+        depths = new int[items.length];
+        int position = 0;
+        // 先序遍历，用显式栈避免深层路径导致栈溢出
+        List<Node> stack = new ArrayList<>();
+        stack.add(root);
+        List<Node> finished = new ArrayList<>();
+        while (!stack.isEmpty()) {
+            Node node = stack.remove(stack.size() - 1);
+            if (node.start < 0) {
+                node.start = position;
+                for (int k = 0; k < node.size; k++) {
+                    DiffItem item = differences.get(node.positions[k]);
+                    items[position] = item;
+                    types[position] = (byte) item.getType().ordinal();
+                    depths[position] = item.getDepth();
+                    node.counts[item.getType().ordinal()]++;
+                    position++;
+                }
+                node.positions = null;
+                // 节点再次出栈时子树已全部排列，记录区间终点
+                stack.add(node);
+                for (int c = node.children.size() - 1; c >= 0; c--) {
+                    stack.add(node.children.get(c));
+                }
+            } else {
+                node.end = position;
+                finished.add(node);
+            }
+        }
+        // 后序累加子树计数
+        for (Node node : finished) {
+            for (Node child : node.children) {
+                for (int t = 0; t < TYPE_COUNT; t++) {
+                    node.counts[t] += child.counts[t];
+                }
+            }
+        }
+    }
+
+    /**
+     * 差异项总数
+     */
+    public int size() {
+        return items.length;
+    }
+
+    /**
+     * 路径树节点数量
+     */
+    public int nodeCount() {
+        return nodes.size();
+    }
+
+    /**
+     * 路径对应子树在排列中的起点，路径不存在时返回-1
+     */
+    public int start(String path) {
+        Node node = find(path);
+        return node != null ? node.start : -1;
+    }
+
+    /**
+     * 从游标位置开始查找满足条件的差异项
+     *
+     * @param path     路径前缀，为空时不限
+     * @param typeMask 类型位掩码，第n位对应DiffType的第n个值，0表示不限
+     * @param minDepth 最小深度，小于等于0时不限
+     * @param maxDepth 最大深度，小于等于0时不限
+     * @param cursor   起始位置，为子树起点之前时从子树起点开始
+     * @param limit    最多返回的数量
+     * @param result   匹配的差异项追加到此列表
+     * @return 下一页的游标，没有更多结果时返回-1
+     */
+    public int query(String path, int typeMask, int minDepth, int maxDepth, int cursor, int limit,
+                     List<DiffItem> result) {
+        Node node = find(path);
+        if (node == null) {
+            return -1;
+        }
+        int min = minDepth > 0 ? minDepth : Integer.MIN_VALUE;
+        int max = maxDepth > 0 ? maxDepth : Integer.MAX_VALUE;
+        int mask = typeMask != 0 ? typeMask : -1;
+
+        int position = Math.max(cursor, node.start);
+        for (; position < node.end; position++) {
+            if ((mask & (1 << types[position])) == 0 || depths[position] < min || depths[position] > max) {
+                continue;
+            }
+            if (result.size() == limit) {
+                return position;
+            }
+            result.add(items[position]);
+        }
+        return -1;
+    }
+
+    /**
+     * 获取路径对应子树的统计，子节点按[offset, offset + limit)分页；路径不存在时返回null
+     */
+    public DiffTreeNode tree(String path, int offset, int limit) {
+        Node node = find(path);
+        if (node == null) {
+            return null;
+        }
+        DiffTreeNode view = node.toView();
+        int from = Math.min(Math.max(offset, 0), node.children.size());
+        int to = (int) Math.min((long) from + Math.max(limit, 0), node.children.size());
+        List<DiffTreeNode> children = new ArrayList<>(to - from);
+        for (Node child : node.children.subList(from, to)) {
+            children.add(child.toView());
+        }
+        view.setChildren(children);
+        return view;
+    }
+
+    private Node find(String path) {
+        if (path == null || path.isEmpty()) {
+            return root;
+        }
+        return nodes.get(path);
+    }
+
+    /**
+     * 获取路径对应的节点，祖先节点不存在时一并创建
+     *
+     * @param keys          路径中键名的段数
+     * @param segmentStarts 已知的最后一段的起点，键为到该段为止的路径
+     */
+    private Node nodeOf(String path, int keys, Map<String, Integer> segmentStarts) {
+        if (path == null || path.isEmpty()) {
+            return root;
+        }
+        Node node = nodes.get(path);
+        if (node != null) {
+            return node;
+        }
+
+        // 向上查找已存在的祖先，沿途记录缺失的路径及其最后一段的起点
+        List<String> missing = new ArrayList<>();
+        List<Integer> splits = new ArrayList<>();
+        String current = path;
+        Node parent;
+        while (true) {
+            int split = lastSegment(current, keys, segmentStarts);
+            missing.add(current);
+            splits.add(split);
+            if (split == 0) {
+                parent = root;
+                break;
+            }
+            if (current.charAt(split) == '.') {
+                keys--;
+            }
+            current = current.substring(0, split);
+            parent = nodes.get(current);
+            if (parent != null) {
+                break;
+            }
+        }
+        for (int i = missing.size() - 1; i >= 0; i--) {
+            String missingPath = missing.get(i);
+            int split = splits.get(i);
+            String label = missingPath.charAt(split) == '.' ? missingPath.substring(split + 1) : missingPath.substring(split);
+            node = new Node(missingPath, label);
+            nodes.put(missingPath, node);
+            parent.children.add(node);
+            parent = node;
+        }
+        return node;
+    }
+
+    /**
+     * 记录差异项路径中各段的起点。比较时记录了各段起点的直接使用；否则路径为父路径加键名，
+     * 键名之后可带数组下标，由此得到最后一个键名段的起点
+     */
+    private static void recordSegmentStarts(DiffItem item, Map<String, Integer> segmentStarts) {
+        String path = item.getPath();
+        if (path == null) {
+            return;
+        }
+        int[] segments = item.getSegments();
+        if (segments != null) {
+            for (int i = 0; i < segments.length; i++) {
+                int end = i + 1 < segments.length ? segments[i + 1] : path.length();
+                segmentStarts.put(path.substring(0, end), segments[i]);
+            }
+            return;
+        }
+        String parentPath = item.getParentPath();
+        String key = item.getKey();
+        if (parentPath == null || parentPath.isEmpty() || key == null) {
+            return;
+        }
+        String keyPath = parentPath + "." + key.substring(0, indexSuffix(key));
+        if (path.startsWith(keyPath)) {
+            segmentStarts.putIfAbsent(keyPath, parentPath.length());
+        }
+    }
+
+    /**
+     * 最后一段路径的起点（'.'或'['的位置），只有一段时返回0。
+     * 优先使用已知的起点；其次末尾的数组下标单独成段，路径中只剩一个键名时整段都是键名，
+     * 都不适用时才按最后一个'.'拆分
+     */
+    private static int lastSegment(String path, int keys, Map<String, Integer> segmentStarts) {
+        Integer known = segmentStarts.get(path);
+        if (known != null) {
+            return known;
+        }
+        int index = indexSuffix(path);
+        if (index < path.length()) {
+            return path.lastIndexOf('[');
+        }
+        if (keys == 1) {
+            return Math.max(path.indexOf('.'), 0);
+        }
+        return Math.max(path.lastIndexOf('.'), 0);
+    }
+
+    /**
+     * 末尾数组下标（如[0][1]）的起点，没有下标时返回字符串长度
+     */
+    private static int indexSuffix(String path) {
+        int end = path.length();
+        while (end > 0 && path.charAt(end - 1) == ']') {
+            int open = path.lastIndexOf('[', end - 1);
+            if (open <= 0 || open + 1 == end - 1) {
+                break;
+            }
+            for (int i = open + 1; i < end - 1; i++) {
+                if (!Character.isDigit(path.charAt(i))) {
+                    return end;
+                }
+            }
+            end = open;
+        }
+        return end;
+    }
+
+    /**
+     * 路径树节点
+     */
+    private static final class Node {
+        private final String path;
+        private final String label;
+        private final List<Node> children = new ArrayList<>(0);
+        private final int[] counts = new int[TYPE_COUNT];
+        private int[] positions = new int[0];
+        private int size;
+        private int start = -1;
+        private int end;
+
+        Node(String path, String label) {
+            this.path = path;
+            this.label = label;
+        }
+
+        void add(int position) {
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, Math.max(4, size * 2));
+            }
+            positions[size++] = position;
+        }
+
+        DiffTreeNode toView() {
+            DiffTreeNode view = new DiffTreeNode();
+            view.setPath(path);
+            view.setLabel(label);
+            view.setTotal(end - start);
+            view.setAddedCount(counts[DiffItem.DiffType.ADDED.ordinal()]);
+            view.setRemovedCount(counts[DiffItem.DiffType.REMOVED.ordinal()]);
+            view.setModifiedCount(counts[DiffItem.DiffType.MODIFIED.ordinal()]);
+            view.setMovedCount(counts[DiffItem.DiffType.MOVED.ordinal()]);
+            view.setChildCount(children.size());
+            return view;
+        }
+    }
+}
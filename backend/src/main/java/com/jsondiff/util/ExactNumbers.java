@@ -0,0 +1,33 @@
+package com.jsondiff.util;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.cfg.JsonNodeFeature;
+
+/**
+ * 精确数值解析配置 - 小数按BigDecimal解析并保留原始精度和写法，避免转为double后不同的数值被判为相同
+ *
+ * @author JSON Diff Team
+ * @version 1.0.0
+ */
+public final class ExactNumbers {
+
+    private ExactNumbers() {
+    }
+
+    /**
+     * 配置ObjectMapper：浮点数解析为BigDecimal，树模型中不去掉末尾的0（1.50仍输出为1.50）
+     */
+    public static ObjectMapper configure(ObjectMapper mapper) {
+        mapper.enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+        mapper.configure(JsonNodeFeature.STRIP_TRAILING_BIGDECIMAL_ZEROES, false);
+        return mapper;
+    }
+
+    /**
+     * 创建按精确数值解析的ObjectMapper
+     */
+    public static ObjectMapper newMapper() {
+        return configure(new ObjectMapper());
+    }
+}
@@ -0,0 +1,796 @@
+package com.jsondiff.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.BooleanNode;
+import com.fasterxml.jackson.databind.node.DecimalNode;
+import com.fasterxml.jackson.databind.node.DoubleNode;
+import com.fasterxml.jackson.databind.node.IntNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.LongNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.jsondiff.model.DiffItem;
+import com.jsondiff.model.HistoryEntry;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 对比历史的二进制编码
+ *
+ * 文件依次为：魔数、未压缩的头部（元数据，建立索引时只读这一部分）、块表和各数据块。
+ * 差异项按固定条数分块，每块独立编码并用deflate压缩，块表记录每块的条数和字节数，
+ * 分页读取时跳过之前的块，只解码与请求范围重叠的块。
+ * 块内按列存放：先是字符串字典（父路径、键名、字符串值等只存一次），
+ * 然后依次是类型标记列、父路径列、键名列、深度差值列、附加字段列和差异值列，
+ * 同类数据相邻存放，压缩效果更好。整数均为变长编码。
+ * 读取时所有长度和数量都按实际剩余的字节数校验，损坏的文件抛出IOException。
+ *
+ * @author JSON Diff Team
+ * @version 1.0.0
+ */
+public final class HistoryCodec {
+
+    private static final int MAGIC = 0x4A444832;
+
+    /**
+     * 每块的差异项数量
+     */
+    static final int BLOCK_SIZE = 1024;
+
+    /**
+     * deflate的最大压缩比约为1032:1，解压后的长度超过该比例视为损坏
+     */
+    private static final long MAX_INFLATE_RATIO = 1032;
+
+    // 类型标记列：低2位为差异类型，其余为标志位
+    private static final int HAS_OLD = 1 << 2;
+    private static final int HAS_NEW = 1 << 3;
+    private static final int HAS_EXTRAS = 1 << 4;
+
+    // 附加字段列的标志位
+    private static final int EXTRA_FROM_PATH = 1;
+    private static final int EXTRA_TYPE_CHANGE = 1 << 1;
+    private static final int EXTRA_LEFT_POINTER = 1 << 2;
+    private static final int EXTRA_RIGHT_POINTER = 1 << 3;
+    private static final int EXTRA_LEFT_LINE = 1 << 4;
+    private static final int EXTRA_RIGHT_LINE = 1 << 5;
+    private static final int EXTRA_TRUNCATED = 1 << 6;
+    private static final int EXTRA_PATH = 1 << 7;
+
+    // 差异值的节点标记
+    private static final int NODE_NULL = 0;
+    private static final int NODE_FALSE = 1;
+    private static final int NODE_TRUE = 2;
+    private static final int NODE_INTEGER = 3;
+    private static final int NODE_DOUBLE = 4;
+    private static final int NODE_STRING = 5;
+    private static final int NODE_ARRAY = 6;
+    private static final int NODE_OBJECT = 7;
+    private static final int NODE_DECIMAL = 8;
+
+    private static final ObjectMapper MAPPER = ExactNumbers.newMapper();
+    private static final DiffItem.DiffType[] TYPES = DiffItem.DiffType.values();
+
+    private HistoryCodec() {
+    }
+
+    /**
+     * 写出历史记录
+     */
+    public static void write(HistoryEntry entry, List<DiffItem> items, OutputStream out) throws IOException {
+        // 各块先在内存中压缩，得到字节数后才能写出块表
+        List<byte[]> blocks = new ArrayList<>();
+        Column table = new Column();
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            for (int from = 0; from < items.size(); from += BLOCK_SIZE) {
+                List<DiffItem> block = items.subList(from, Math.min(from + BLOCK_SIZE, items.size()));
+                byte[] raw = new Encoder().encode(block);
+                byte[] compressed = deflate(deflater, raw);
+                table.writeVarint(block.size());
+                table.writeVarint(raw.length);
+                table.writeVarint(compressed.length);
+                blocks.add(compressed);
+            }
+        } finally {
+            deflater.end();
+        }
+
+        Column header = new Column();
+        writeHeader(entry, items.size(), header);
+
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        writeVarint(data, header.size());
+        header.writeTo(data);
+        writeVarint(data, blocks.size());
+        writeVarint(data, table.size());
+        table.writeTo(data);
+        for (byte[] block : blocks) {
+            data.write(block);
+        }
+        data.flush();
+    }
+
+    /**
+     * 只读取头部的元数据
+     *
+     * @param size 文件字节数
+     */
+    public static HistoryEntry readHeader(InputStream in, long size) throws IOException {
+        return parseHeader(new Source(in, size).header());
+    }
+
+    /**
+     * 读取[offset, offset + limit)范围内的差异项，之前的块直接跳过，不解压
+     *
+     * @param size 文件字节数
+     */
+    public static List<DiffItem> readItems(InputStream in, long size, int offset, int limit) throws IOException {
+        Source source = new Source(in, size);
+        Reader header = source.header();
+        parseHeader(header);
+        int count = header.readVarint();
+
+        int blockCount = source.readVarint();
+        Reader table = source.section();
+        int[] itemCounts = new int[blockCount];
+        int[] rawLengths = new int[blockCount];
+        int[] compressedLengths = new int[blockCount];
+        long total = 0;
+        for (int b = 0; b < blockCount; b++) {
+            itemCounts[b] = table.readVarint();
+            rawLengths[b] = table.readVarint();
+            compressedLengths[b] = table.readVarint();
+            total += itemCounts[b];
+            if (compressedLengths[b] > source.remaining()
+                    || rawLengths[b] > compressedLengths[b] * MAX_INFLATE_RATIO + 64) {
+                throw corrupted();
+            }
+        }
+        if (total != count) {
+            throw corrupted();
+        }
+
+        int from = Math.min(Math.max(offset, 0), count);
+        int to = (int) Math.min((long) from + Math.max(limit, 0), count);
+        List<DiffItem> items = new ArrayList<>(to - from);
+        int start = 0;
+        Inflater inflater = new Inflater();
+        try {
+            for (int b = 0; b < blockCount && start < to; b++) {
+                int end = start + itemCounts[b];
+                if (end <= from) {
+                    source.skip(compressedLengths[b]);
+                } else {
+                    byte[] raw = inflate(inflater, source.read(compressedLengths[b]), rawLengths[b]);
+                    List<DiffItem> block = new Decoder(new Reader(raw)).decode(itemCounts[b]);
+                    items.addAll(block.subList(Math.max(from - start, 0), Math.min(to - start, block.size())));
+                }
+                start = end;
+            }
+        } finally {
+            inflater.end();
+        }
+        return items;
+    }
+
+    private static void writeHeader(HistoryEntry entry, int count, Column header) throws IOException {
+        header.writeString(entry.getId());
+        header.writeString(entry.getName() != null ? entry.getName() : "");
+        header.writeLong(entry.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        header.writeLong(entry.getDuration());
+        header.write(entry.isTruncated() ? 1 : 0);
+        header.write(entry.isTimedOut() ? 1 : 0);
+        header.writeVarint(entry.getTotalDifferences());
+        header.writeVarint(entry.getAddedCount());
+        header.writeVarint(entry.getRemovedCount());
+        header.writeVarint(entry.getModifiedCount());
+        header.writeVarint(entry.getMovedCount());
+        header.writeString(entry.getSettings() != null ? MAPPER.writeValueAsString(entry.getSettings()) : "");
+        header.writeVarint(count);
+    }
+
+    /**
+     * 解析头部的元数据，读取器停在差异项数量之前
+     */
+    private static HistoryEntry parseHeader(Reader header) throws IOException {
+        HistoryEntry entry = new HistoryEntry();
+        entry.setId(header.readString());
+        String name = header.readString();
+        entry.setName(name.isEmpty() ? null : name);
+        entry.setCreatedAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(header.readLong()), ZoneId.systemDefault()));
+        entry.setDuration(header.readLong());
+        entry.setTruncated(header.readByte() != 0);
+        entry.setTimedOut(header.readByte() != 0);
+        entry.setTotalDifferences(header.readVarint());
+        entry.setAddedCount(header.readVarint());
+        entry.setRemovedCount(header.readVarint());
+        entry.setModifiedCount(header.readVarint());
+        entry.setMovedCount(header.readVarint());
+        String settings = header.readString();
+        entry.setSettings(settings.isEmpty() ? null : MAPPER.readTree(settings));
+        return entry;
+    }
+
+    private static byte[] deflate(Deflater deflater, byte[] raw) {
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+        byte[] buffer = new byte[8192];
+        while (!deflater.finished()) {
+            out.write(buffer, 0, deflater.deflate(buffer));
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 解压一个块，解压后的长度必须与块表记录的一致
+     */
+    private static byte[] inflate(Inflater inflater, byte[] compressed, int rawLength) throws IOException {
+        inflater.reset();
+        inflater.setInput(compressed);
+        byte[] raw = new byte[rawLength];
+        try {
+            int length = 0;
+            while (length < rawLength && !inflater.finished()) {
+                int n = inflater.inflate(raw, length, rawLength - length);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += n;
+            }
+            if (length != rawLength || !inflater.finished()) {
+                throw corrupted();
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("历史文件已损坏: " + e.getMessage(), e);
+        }
+        return raw;
+    }
+
+    private static IOException corrupted() {
+        return new IOException("历史文件已损坏");
+    }
+
+    /**
+     * 编码器 - 按列编码一个块并建立块内字典，再依次写出字典和各列
+     */
+    private static class Encoder {
+        private final Map<String, Integer> dictionary = new HashMap<>();
+        private final List<String> strings = new ArrayList<>();
+        private final Column types = new Column();
+        private final Column parents = new Column();
+        private final Column keys = new Column();
+        private final Column depths = new Column();
+        private final Column extras = new Column();
+        private final Column values = new Column();
+
+        byte[] encode(List<DiffItem> items) throws IOException {
+            int previousDepth = 0;
+            for (DiffItem item : items) {
+                String path = nonNull(item.getPath());
+                String parent = nonNull(item.getParentPath());
+                String key = nonNull(item.getKey());
+                boolean derivedPath = path.equals(joinPath(parent, key));
+
+                int extraFlags = extraFlags(item, derivedPath);
+                int flags = item.getType().ordinal();
+                if (item.getOldValue() != null) {
+                    flags |= HAS_OLD;
+                }
+                if (item.getNewValue() != null) {
+                    flags |= HAS_NEW;
+                }
+                if (extraFlags != 0) {
+                    flags |= HAS_EXTRAS;
+                }
+                types.write(flags);
+                parents.writeVarint(indexOf(parent));
+                keys.writeVarint(indexOf(key));
+                depths.writeVarint(zigzag(item.getDepth() - previousDepth));
+                previousDepth = item.getDepth();
+
+                if (extraFlags != 0) {
+                    writeExtras(item, extraFlags, path);
+                }
+                if (item.getOldValue() != null) {
+                    writeNode(MAPPER.valueToTree(item.getOldValue()));
+                }
+                if (item.getNewValue() != null) {
+                    writeNode(MAPPER.valueToTree(item.getNewValue()));
+                }
+            }
+
+            Column out = new Column();
+            out.writeVarint(strings.size());
+            for (String string : strings) {
+                out.writeString(string);
+            }
+            types.writeTo(out);
+            parents.writeTo(out);
+            keys.writeTo(out);
+            depths.writeTo(out);
+            extras.writeTo(out);
+            values.writeTo(out);
+            return out.toByteArray();
+        }
+
+        private int extraFlags(DiffItem item, boolean derivedPath) {
+            int flags = 0;
+            if (item.getFromPath() != null) {
+                flags |= EXTRA_FROM_PATH;
+            }
+            if (item.getTypeChange() != null) {
+                flags |= EXTRA_TYPE_CHANGE;
+            }
+            if (item.getLeftPointer() != null) {
+                flags |= EXTRA_LEFT_POINTER;
+            }
+            if (item.getRightPointer() != null) {
+                flags |= EXTRA_RIGHT_POINTER;
+            }
+            if (item.getLeftLineNumber() != null) {
+                flags |= EXTRA_LEFT_LINE;
+            }
+            if (item.getRightLineNumber() != null) {
+                flags |= EXTRA_RIGHT_LINE;
+            }
+            if (Boolean.TRUE.equals(item.getTruncated())) {
+                flags |= EXTRA_TRUNCATED;
+            }
+            if (!derivedPath) {
+                flags |= EXTRA_PATH;
+            }
+            return flags;
+        }
+
+        private void writeExtras(DiffItem item, int flags, String path) {
+            extras.write(flags);
+            if ((flags & EXTRA_FROM_PATH) != 0) {
+                extras.writeVarint(indexOf(item.getFromPath()));
+            }
+            if ((flags & EXTRA_TYPE_CHANGE) != 0) {
+                extras.writeVarint(indexOf(item.getTypeChange()));
+            }
+            if ((flags & EXTRA_LEFT_POINTER) != 0) {
+                extras.writeVarint(indexOf(item.getLeftPointer()));
+            }
+            if ((flags & EXTRA_RIGHT_POINTER) != 0) {
+                extras.writeVarint(indexOf(item.getRightPointer()));
+            }
+            if ((flags & EXTRA_LEFT_LINE) != 0) {
+                extras.writeVarint(item.getLeftLineNumber());
+            }
+            if ((flags & EXTRA_RIGHT_LINE) != 0) {
+                extras.writeVarint(item.getRightLineNumber());
+            }
+            if ((flags & EXTRA_PATH) != 0) {
+                extras.writeVarint(indexOf(path));
+            }
+        }
+
+        private void writeNode(JsonNode node) {
+            switch (node.getNodeType()) {
+                case BOOLEAN:
+                    values.write(node.booleanValue() ? NODE_TRUE : NODE_FALSE);
+                    break;
+                case NUMBER:
+                    if (node.canConvertToLong() && node.isIntegralNumber()) {
+                        values.write(NODE_INTEGER);
+                        values.writeVarlong(zigzag(node.longValue()));
+                    } else if (node.isDouble() || node.isFloat()) {
+                        values.write(NODE_DOUBLE);
+                        values.writeLong(Double.doubleToRawLongBits(node.doubleValue()));
+                    } else {
+                        values.write(NODE_DECIMAL);
+                        values.writeVarint(indexOf(node.decimalValue().toString()));
+                    }
+                    break;
+                case STRING:
+                    values.write(NODE_STRING);
+                    values.writeVarint(indexOf(node.textValue()));
+                    break;
+                case ARRAY:
+                    values.write(NODE_ARRAY);
+                    values.writeVarint(node.size());
+                    for (JsonNode child : node) {
+                        writeNode(child);
+                    }
+                    break;
+                case OBJECT:
+                    values.write(NODE_OBJECT);
+                    values.writeVarint(node.size());
+                    Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+                    while (fields.hasNext()) {
+                        Map.Entry<String, JsonNode> field = fields.next();
+                        values.writeVarint(indexOf(field.getKey()));
+                        writeNode(field.getValue());
+                    }
+                    break;
+                default:
+                    values.write(NODE_NULL);
+            }
+        }
+
+        private int indexOf(String string) {
+            Integer index = dictionary.get(string);
+            if (index == null) {
+                index = strings.size();
+                dictionary.put(string, index);
+                strings.add(string);
+            }
+            return index;
+        }
+    }
+
+    /**
+     * 解码器 - 按写出顺序逐列读取一个块
+     */
+    private static class Decoder {
+        private final Reader in;
+        private String[] strings;
+
+        Decoder(Reader in) {
+            this.in = in;
+        }
+
+        List<DiffItem> decode(int count) throws IOException {
+            strings = new String[in.readCount()];
+            for (int i = 0; i < strings.length; i++) {
+                strings[i] = in.readString();
+            }
+
+            if (count > in.remaining()) {
+                throw corrupted();
+            }
+            int[] flags = new int[count];
+            for (int i = 0; i < count; i++) {
+                flags[i] = in.readByte();
+            }
+            List<DiffItem> items = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                DiffItem item = new DiffItem();
+                item.setType(TYPES[flags[i] & 3]);
+                item.setParentPath(string());
+                items.add(item);
+            }
+            for (DiffItem item : items) {
+                item.setKey(string());
+                item.setPath(joinPath(item.getParentPath(), item.getKey()));
+            }
+            int depth = 0;
+            for (DiffItem item : items) {
+                depth += unzigzag(in.readVarint());
+                item.setDepth(depth);
+            }
+            for (int i = 0; i < count; i++) {
+                if ((flags[i] & HAS_EXTRAS) != 0) {
+                    readExtras(items.get(i));
+                }
+            }
+            for (int i = 0; i < count; i++) {
+                DiffItem item = items.get(i);
+                if ((flags[i] & HAS_OLD) != 0) {
+                    item.setOldValue(readNode());
+                }
+                if ((flags[i] & HAS_NEW) != 0) {
+                    item.setNewValue(readNode());
+                }
+            }
+            return items;
+        }
+
+        private void readExtras(DiffItem item) throws IOException {
+            int flags = in.readByte();
+            if ((flags & EXTRA_FROM_PATH) != 0) {
+                item.setFromPath(string());
+            }
+            if ((flags & EXTRA_TYPE_CHANGE) != 0) {
+                item.setTypeChange(string());
+            }
+            if ((flags & EXTRA_LEFT_POINTER) != 0) {
+                item.setLeftPointer(string());
+            }
+            if ((flags & EXTRA_RIGHT_POINTER) != 0) {
+                item.setRightPointer(string());
+            }
+            if ((flags & EXTRA_LEFT_LINE) != 0) {
+                item.setLeftLineNumber(in.readVarint());
+            }
+            if ((flags & EXTRA_RIGHT_LINE) != 0) {
+                item.setRightLineNumber(in.readVarint());
+            }
+            if ((flags & EXTRA_TRUNCATED) != 0) {
+                item.setTruncated(true);
+            }
+            if ((flags & EXTRA_PATH) != 0) {
+                item.setPath(string());
+            }
+        }
+
+        private JsonNode readNode() throws IOException {
+            int tag = in.readByte();
+            switch (tag) {
+                case NODE_NULL:
+                    return NullNode.getInstance();
+                case NODE_FALSE:
+                    return BooleanNode.FALSE;
+                case NODE_TRUE:
+                    return BooleanNode.TRUE;
+                case NODE_INTEGER:
+                    long value = unzigzag(in.readVarlong());
+                    return value == (int) value ? IntNode.valueOf((int) value) : LongNode.valueOf(value);
+                case NODE_DOUBLE:
+                    return DoubleNode.valueOf(Double.longBitsToDouble(in.readLong()));
+                case NODE_DECIMAL:
+                    try {
+                        return DecimalNode.valueOf(new BigDecimal(string()));
+                    } catch (NumberFormatException e) {
+                        throw corrupted();
+                    }
+                case NODE_STRING:
+                    return TextNode.valueOf(string());
+                case NODE_ARRAY:
+                    int size = in.readCount();
+                    ArrayNode array = JsonNodeFactory.instance.arrayNode(size);
+                    for (int i = 0; i < size; i++) {
+                        array.add(readNode());
+                    }
+                    return array;
+                case NODE_OBJECT:
+                    int fields = in.readCount();
+                    ObjectNode object = JsonNodeFactory.instance.objectNode();
+                    for (int i = 0; i < fields; i++) {
+                        String key = string();
+                        object.set(key, readNode());
+                    }
+                    return object;
+                default:
+                    throw corrupted();
+            }
+        }
+
+        private String string() throws IOException {
+            int index = in.readVarint();
+            if (index >= strings.length) {
+                throw corrupted();
+            }
+            return strings[index];
+        }
+    }
+
+    /**
+     * 文件输入 - 记录剩余字节数，读取的长度都不超过文件实际剩余的部分
+     */
+    private static final class Source {
+        private final DataInputStream in;
+        private long remaining;
+
+        Source(InputStream in, long size) {
+            this.in = new DataInputStream(in);
+            this.remaining = size;
+        }
+
+        /**
+         * 校验魔数并读取头部
+         */
+        Reader header() throws IOException {
+            if (remaining < 4 || in.readInt() != MAGIC) {
+                throw new IOException("不是对比历史文件");
+            }
+            remaining -= 4;
+            return section();
+        }
+
+        long remaining() {
+            return remaining;
+        }
+
+        int readVarint() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                if (remaining <= 0) {
+                    throw corrupted();
+                }
+                int b = in.readUnsignedByte();
+                remaining--;
+                value |= (long) (b & 0x7f) << shift;
+                if ((b & 0x80) == 0) {
+                    if (value > Integer.MAX_VALUE) {
+                        throw corrupted();
+                    }
+                    return (int) value;
+                }
+            }
+            throw corrupted();
+        }
+
+        /**
+         * 读取以变长整数长度开头的一段数据
+         */
+        Reader section() throws IOException {
+            return new Reader(read(readVarint()));
+        }
+
+        byte[] read(int length) throws IOException {
+            if (length > remaining) {
+                throw corrupted();
+            }
+            byte[] bytes = new byte[length];
+            in.readFully(bytes);
+            remaining -= length;
+            return bytes;
+        }
+
+        void skip(int length) throws IOException {
+            if (length > remaining) {
+                throw corrupted();
+            }
+            in.skipNBytes(length);
+            remaining -= length;
+        }
+    }
+
+    /**
+     * 有界读取器 - 从字节数组中读取，所有长度和数量都按剩余字节数校验
+     */
+    private static final class Reader {
+        private final byte[] data;
+        private int position;
+
+        Reader(byte[] data) {
+            this.data = data;
+        }
+
+        int remaining() {
+            return data.length - position;
+        }
+
+        int readByte() throws IOException {
+            if (position >= data.length) {
+                throw corrupted();
+            }
+            return data[position++] & 0xff;
+        }
+
+        long readVarlong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7f) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw corrupted();
+        }
+
+        int readVarint() throws IOException {
+            long value = readVarlong();
+            if (value < 0 || value > Integer.MAX_VALUE) {
+                throw corrupted();
+            }
+            return (int) value;
+        }
+
+        /**
+         * 读取元素数量，每个元素至少占一个字节，超过剩余字节数时视为损坏
+         */
+        int readCount() throws IOException {
+            int count = readVarint();
+            if (count > remaining()) {
+                throw corrupted();
+            }
+            return count;
+        }
+
+        long readLong() throws IOException {
+            if (remaining() < 8) {
+                throw corrupted();
+            }
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | (data[position++] & 0xff);
+            }
+            return value;
+        }
+
+        String readString() throws IOException {
+            int length = readVarint();
+            if (length > remaining()) {
+                throw corrupted();
+            }
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+
+    /**
+     * 内存中的一段数据
+     */
+    private static class Column extends ByteArrayOutputStream {
+
+        void writeVarint(int value) {
+            writeVarlong(value & 0xffffffffL);
+        }
+
+        void writeVarlong(long value) {
+            while ((value & ~0x7fL) != 0) {
+                write((int) ((value & 0x7f) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        void writeLong(long value) {
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                write((int) (value >>> shift));
+            }
+        }
+
+        void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(bytes.length);
+            write(bytes, 0, bytes.length);
+        }
+    }
+
+    private static String nonNull(String value) {
+        return value != null ? value : "";
+    }
+
+    /**
+     * 由父路径和键名拼接路径，与PathStack的渲染规则一致
+     */
+    private static String joinPath(String parent, String key) {
+        return parent.isEmpty() ? key : parent + "." + key;
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarint(OutputStream out, int value) throws IOException {
+        long remaining = value & 0xffffffffL;
+        while ((remaining & ~0x7fL) != 0) {
+            out.write((int) ((remaining & 0x7f) | 0x80));
+            remaining >>>= 7;
+        }
+        out.write((int) remaining);
+    }
+}
@@ -0,0 +1,224 @@
+package com.jsondiff.util;
+
+import com.jsondiff.model.DiffItem;
+import com.jsondiff.model.DiffResult;
+import com.jsondiff.model.DiffStats;
+import com.jsondiff.model.ExportConfig;
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+/**
+ * HTML差异报告输出器 - 卡片式布局，样式与前端生成的报告一致
+ *
+ * 统计信息在末尾写出，通过flex布局的order显示在差异明细之前。
+ *
+ * @author JSON Diff Team
+ * @version 1.0.0
+ */
+public class HtmlReportWriter extends ReportWriter {
+
+    private static final String STYLE = "*{margin:0;padding:0;box-sizing:border-box}"
+            + "body{font-family:'Segoe UI','Microsoft YaHei',sans-serif;line-height:1.6;color:#333;background:linear-gradient(135deg,#667eea 0%,#764ba2 100%);min-height:100vh;padding:20px}"
+            + ".report-container{max-width:1200px;margin:0 auto;background:white;border-radius:12px;box-shadow:0 10px 40px rgba(0,0,0,.1);overflow:hidden}"
+            + ".report-header{background:linear-gradient(135deg,#667eea 0%,#764ba2 100%);color:white;padding:30px;text-align:center}"
+            + ".report-header h1{font-size:28px;margin-bottom:10px;font-weight:600}"
+            + ".report-header .timestamp{opacity:.9;font-size:14px}"
+            + ".report-content{padding:30px;display:flex;flex-direction:column}"
+            + ".stats-container{order:-2;display:grid;grid-template-columns:repeat(auto-fit,minmax(200px,1fr));gap:20px;margin:30px 0;padding:20px;background:#f8f9fa;border-radius:8px;border:1px solid #e9ecef}"
+            + ".stat-item{text-align:center;padding:15px;border-radius:6px;background:white;box-shadow:0 2px 8px rgba(0,0,0,.05)}"
+            + ".stat-item.added{border-top:4px solid #67c23a}"
+            + ".stat-item.removed{border-top:4px solid #f56c6c}"
+            + ".stat-item.modified{border-top:4px solid #e6a23c}"
+            + ".stat-item.moved{border-top:4px solid #909399}"
+            + ".stat-item.total{border-top:4px solid #409eff}"
+            + ".stat-label{display:block;font-size:14px;color:#666;margin-bottom:5px}"
+            + ".stat-value{display:block;font-size:24px;font-weight:bold}"
+            + ".notice{order:-1;padding:12px 16px;border-radius:6px;background:#fdf6ec;color:#e6a23c;margin-bottom:20px}"
+            + ".diff-list{margin-top:40px}"
+            + ".diff-list h2{color:#2c3e50;margin-bottom:20px;padding-bottom:10px;border-bottom:2px solid #eaeaea}"
+            + ".diff-card{border:1px solid #e0e0e0;border-radius:8px;margin-bottom:16px;overflow:hidden;transition:all .3s;background:#fff}"
+            + ".diff-card:hover{box-shadow:0 4px 16px rgba(0,0,0,.1);border-color:#409eff}"
+            + ".diff-header{display:flex;justify-content:space-between;align-items:center;padding:12px 16px;background:#f5f7fa;border-bottom:1px solid #e0e0e0;gap:12px}"
+            + ".path-section{flex:1;overflow:hidden}"
+            + ".path-text{font-family:'Consolas',monospace;font-size:14px;color:#409eff;font-weight:500;word-break:break-all;line-height:1.4}"
+            + ".type-tag{padding:4px 12px;border-radius:4px;font-size:12px;font-weight:bold;color:white;white-space:nowrap;flex-shrink:0}"
+            + ".type-added{background:#67c23a}"
+            + ".type-removed{background:#f56c6c}"
+            + ".type-modified{background:#e6a23c}"
+            + ".type-moved{background:#909399}"
+            + ".diff-body{display:grid;grid-template-columns:1fr 1fr;gap:0}"
+            + ".value-panel{padding:16px;position:relative}"
+            + ".value-panel.old-value{background:#fff5f5}"
+            + ".value-panel.new-value{background:#f6ffed}"
+            + ".value-panel+.value-panel::before{content:'';position:absolute;left:0;top:16px;bottom:16px;width:1px;background:#e0e0e0}"
+            + ".panel-label{font-size:12px;font-weight:600;color:#666;margin-bottom:8px;text-transform:uppercase}"
+            + ".value-panel pre{margin:0;font-family:'Consolas','Monaco',monospace;font-size:13px;line-height:1.5;white-space:pre-wrap;word-break:break-all;max-height:300px;overflow-y:auto}"
+            + ".original-section{margin-top:40px}"
+            + ".original-grid{display:grid;grid-template-columns:1fr 1fr;gap:20px;margin-top:20px}"
+            + ".original-panel{border:1px solid #e0e0e0;border-radius:8px;overflow:hidden;background:white}"
+            + ".original-panel h4{background:#f8f9fa;padding:15px 20px;margin:0;border-bottom:1px solid #e0e0e0;font-size:16px}"
+            + ".original-json{padding:20px;margin:0;max-height:400px;overflow-y:auto;font-family:'Consolas','Monaco',monospace;font-size:13px;line-height:1.5;background:#fafafa}"
+            + "@media (max-width:768px){.diff-body{grid-template-columns:1fr}.value-panel+.value-panel::before{display:none}"
+            + ".original-grid{grid-template-columns:1fr}.diff-header{flex-direction:column;align-items:flex-start;gap:8px}.type-tag{align-self:flex-start}}"
+            + ".footer{text-align:center;padding:20px;color:#666;font-size:14px;border-top:1px solid #eaeaea;margin-top:30px}";
+
+    private final Writer escaped;
+
+    public HtmlReportWriter(OutputStream out, ExportConfig config) throws IOException {
+        super(out, config);
+        this.escaped = new EscapingWriter(this.out);
+    }
+
+    @Override
+    public void writeHeader() throws IOException {
+        out.write("<!DOCTYPE html>\n<html lang=\"zh-CN\">\n<head>\n"
+                + "<meta charset=\"" + ("gbk".equalsIgnoreCase(config.getEncoding()) ? "GBK" : "UTF-8") + "\">"
+                + "<meta name=\"viewport\" content=\"width=device-width, initial-scale=1.0\">\n"
+                + "<title>JSON 差异报告</title>\n<style>" + STYLE + "</style>\n</head>\n<body>\n"
+                + "<div class=\"report-container\">\n<div class=\"report-header\"><h1>📊 JSON 差异分析报告</h1>"
+                + "<div class=\"timestamp\">生成时间: " + now() + "</div></div>\n"
+                + "<div class=\"report-content\">\n<div class=\"diff-list\"><h2>📋 差异明细</h2>\n");
+    }
+
+    @Override
+    protected void writeItem(int index, DiffItem item) throws IOException {
+        out.write("<div class=\"diff-card\"><div class=\"diff-header\"><div class=\"path-section\"><span class=\"path-text\">");
+        escaped.write(pathOf(item));
+        if (item.getFromPath() != null && config.isIncludePaths()) {
+            out.write(" ← ");
+            escaped.write(item.getFromPath());
+        }
+        out.write("</span></div><span class=\"type-tag type-" + item.getType().toJson() + "\">"
+                + item.getType().name() + "</span></div><div class=\"diff-body\">");
+        if (item.getOldValue() != null) {
+            writePanel("old-value", "原值", item.getOldValue());
+        }
+        if (item.getNewValue() != null) {
+            writePanel("new-value", "新值", item.getNewValue());
+        }
+        out.write("</div></div>\n");
+    }
+
+    @Override
+    public void writeFooter(DiffResult result, Object left, Object right) throws IOException {
+        out.write("</div>\n");
+        if (result.isTruncated() || result.isTimedOut()) {
+            out.write("<div class=\"notice\">⚠️ " + (result.isTimedOut() ? "对比超时" : "差异数量达到上限")
+                    + "，报告不完整</div>\n");
+        }
+        if (config.isIncludeStats()) {
+            DiffStats stats = result.getStats();
+            out.write("<div class=\"stats-container\">");
+            writeStat("added", "新增", stats.getAdded());
+            writeStat("removed", "删除", stats.getRemoved());
+            writeStat("modified", "修改", stats.getModified());
+            if (stats.getMoved() > 0) {
+                writeStat("moved", "移动", stats.getMoved());
+            }
+            writeStat("total", "总计", stats.getTotal());
+            out.write("</div>\n");
+        }
+        if (config.isIncludeOriginal()) {
+            out.write("<div class=\"original-section\"><h3>📄 原始数据对比</h3><div class=\"original-grid\">"
+                    + "<div class=\"original-panel\"><h4>源数据 (Left)</h4><pre class=\"original-json\">");
+            writeOriginal(left, escaped);
+            out.write("</pre></div><div class=\"original-panel\"><h4>目标数据 (Right)</h4><pre class=\"original-json\">");
+            writeOriginal(right, escaped);
+            out.write("</pre></div></div></div>\n");
+        }
+        out.write("</div>\n<div class=\"footer\">本报告由 JSON Diff 工具生成 • " + now() + "</div>\n</div>\n</body>\n</html>\n");
+    }
+
+    @Override
+    public void writeError(String message) throws IOException {
+        out.write("</div>\n<div class=\"notice\">❌ 导出失败: ");
+        escaped.write(message != null ? message : "");
+        out.write("</div>\n</div>\n</div>\n</body>\n</html>\n");
+    }
+
+    private void writePanel(String type, String label, Object value) throws IOException {
+        out.write("<div class=\"value-panel " + type + "\"><div class=\"panel-label\">" + label + "</div><pre>");
+        writeValue(value, escaped, config.isPrettyPrint());
+        out.write("</pre></div>");
+    }
+
+    private void writeStat(String type, String label, int value) throws IOException {
+        out.write("<div class=\"stat-item " + type + "\"><span class=\"stat-label\">" + label
+                + "</span><span class=\"stat-value\">" + value + "</span></div>");
+    }
+
+    /**
+     * 转义HTML特殊字符
+     */
+    private static class EscapingWriter extends FilterWriter {
+
+        EscapingWriter(Writer out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            String replacement = replacementOf((char) c);
+            if (replacement != null) {
+                out.write(replacement);
+            } else {
+                out.write(c);
+            }
+        }
+
+        @Override
+        public void write(char[] buffer, int offset, int length) throws IOException {
+            // 不需要转义的连续字符整段写出
+            int start = offset;
+            int end = offset + length;
+            for (int i = offset; i < end; i++) {
+                String replacement = replacementOf(buffer[i]);
+                if (replacement != null) {
+                    out.write(buffer, start, i - start);
+                    out.write(replacement);
+                    start = i + 1;
+                }
+            }
+            out.write(buffer, start, end - start);
+        }
+
+        @Override
+        public void write(String text, int offset, int length) throws IOException {
+            int start = offset;
+            int end = offset + length;
+            for (int i = offset; i < end; i++) {
+                String replacement = replacementOf(text.charAt(i));
+                if (replacement != null) {
+                    out.write(text, start, i - start);
+                    out.write(replacement);
+                    start = i + 1;
+                }
+            }
+            out.write(text, start, end - start);
+        }
+
+        private static String replacementOf(char c) {
+            switch (c) {
+                case '&':
+                    return "&amp;";
+                case '<':
+                    return "&lt;";
+                case '>':
+                    return "&gt;";
+                case '"':
+                    return "&quot;";
+                case '\'':
+                    return "&#39;";
+                default:
+                    return null;
+            }
+        }
+
+        @Override
+        public void close() {
+            // 底层输出流由报告输出器关闭
+        }
+    }
+}
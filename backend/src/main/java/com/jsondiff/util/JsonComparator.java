@@ -5,9 +5,19 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.*;
 import com.jsondiff.model.DiffItem;
 import com.jsondiff.model.CompareSettings;
+import com.jsondiff.model.CompareSettings.ArrayMode;
+import com.jsondiff.model.CompareSettings.ValueMode;
 import com.jsondiff.model.DiffResult;
 import org.apache.commons.lang3.StringUtils;
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 /**
  * JSON比较器 - 核心算法实现
@@ -17,52 +27,102 @@ import java.util.*;
  */
 public class JsonComparator {
     
+    /**
+     * 每访问多少个节点检查一次截止时间（2的幂减1）
+     */
+    private static final int DEADLINE_CHECK_MASK = 1023;
+    
     private final ObjectMapper objectMapper;
     private final CompareSettings settings;
     private final List<DiffItem> differences;
     private final Map<String, Integer> lineNumberMap;
+    private final Consumer<DiffItem> listener;
+    private final PathStack path;
+    private StructuralHasher leftHashes;
+    private StructuralHasher rightHashes;
+    private StructuralHasher preparedLeftHashes;
+    private StructuralHasher preparedRightHashes;
+    private DiffResult result;
+    private final CompareLimits limits;
+    private long timeout;
+    private int ticks;
     private long startTime;
     
     /**
      * 构造函数
      */
     public JsonComparator(CompareSettings settings) {
-        this.objectMapper = new ObjectMapper();
+        this(settings, (Consumer<DiffItem>) null);
+    }
+    
+    /**
+     * 构造函数 - 差异项在发现时立即交给监听器，不在内存中保留
+     */
+    public JsonComparator(CompareSettings settings, Consumer<DiffItem> listener) {
+        this.objectMapper = ExactNumbers.newMapper();
         this.settings = settings != null ? settings : new CompareSettings();
         this.differences = new ArrayList<>();
         this.lineNumberMap = new HashMap<>();
+        this.listener = listener;
+        this.path = new PathStack();
+        this.limits = new CompareLimits();
+    }
+    
+    /**
+     * 构造函数 - 并行子任务使用，从指定路径开始比较，差异收集在本地缓冲区，与发起比较的实例共享终止条件
+     */
+    private JsonComparator(ObjectMapper objectMapper, CompareSettings settings, PathStack path, CompareLimits limits) {
+        this.objectMapper = objectMapper;
+        this.settings = settings;
+        this.differences = new ArrayList<>();
+        this.lineNumberMap = new HashMap<>();
+        this.listener = null;
+        this.path = path;
+        this.result = new DiffResult();
+        this.limits = limits;
     }
     
     /**
      * 比较两个JSON对象
      */
     public DiffResult compare(Object left, Object right) {
-        startTime = System.currentTimeMillis();
-        differences.clear();
-        lineNumberMap.clear();
+        reset();
         
         try {
-            JsonNode leftNode = convertToJsonNode(left);
-            JsonNode rightNode = convertToJsonNode(right);
+            JsonNode leftNode = indexLeft(convertToJsonNode(left));
+            JsonNode rightNode = indexRight(convertToJsonNode(right));
             
-            compareNodes("$", leftNode, rightNode, 0);
+            compareNodes(leftNode, rightNode, 0);
             
-            DiffResult result = new DiffResult();
-
-            result.setLeftData(left);
-            result.setRightData(right);
-            result.setSettings(settings);
-            result.setDuration(System.currentTimeMillis() - startTime);
+            return buildResult(left, right);
 
-            result.setDifferences(differences);
-            // 使用临时集合来避免并发修改
-            List<DiffItem> tempDifferences = new ArrayList<>(differences);
-            // 更新统计信息
-            for (DiffItem diff : tempDifferences) {
-                result.addDifference(diff);
+        } catch (Exception e) {
+            throw new RuntimeException("JSON比较失败: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * 只比较两侧指定位置的子树，差异项路径与完整比较时相同，用于文档局部修改后的增量比较
+     *
+     * @param scope 子树位置，应由scopeOf给出
+     */
+    public DiffResult compareAt(JsonNode leftRoot, JsonNode rightRoot, PathStack scope) {
+        reset();
+        path.set(scope);
+        
+        try {
+            JsonNode leftNode = scope.locate(leftRoot);
+            JsonNode rightNode = scope.locate(rightRoot);
+            if (leftNode != null) {
+                indexLeft(leftNode);
             }
-
-            return result;
+            if (rightNode != null) {
+                indexRight(rightNode);
+            }
+            
+            compareNodes(leftNode, rightNode, scope.size());
+            
+            return buildResult(null, null);
 
         } catch (Exception e) {
             throw new RuntimeException("JSON比较失败: " + e.getMessage(), e);
@@ -70,51 +130,246 @@ public class JsonComparator {
     }
     
     /**
-     * 递归比较JSON节点
+     * 计算修改位置所在的、可以单独重新比较的最小子树：从根向下逐层前进，
+     * 遇到任一侧缺失、两侧类型不同或不按下标比较的数组时停在该节点，
+     * 因为其下差异项的位置取决于整个节点的匹配结果。
+     *
+     * @param pointer 修改位置（JSON Pointer）
+     */
+    public PathStack scopeOf(JsonNode leftRoot, JsonNode rightRoot, String pointer) {
+        PathStack scope = new PathStack();
+        JsonNode left = leftRoot;
+        JsonNode right = rightRoot;
+        for (String token : JsonPatcher.tokens(pointer)) {
+            if (left == null || right == null || !left.isContainerNode() || left.getNodeType() != right.getNodeType()) {
+                break;
+            }
+            if (left.isObject()) {
+                scope.push(token);
+                left = left.get(token);
+                right = right.get(token);
+                continue;
+            }
+            if (!JsonPatcher.isIndex(token) || settings.isIgnoreOrder() || settings.getArrayMode() != ArrayMode.INDEX
+                    || identityKeys(scope) != null) {
+                break;
+            }
+            int index = Integer.parseInt(token);
+            scope.push(index);
+            left = left.get(index);
+            right = right.get(index);
+        }
+        return scope;
+    }
+    
+    /**
+     * 重置比较状态，开始一次新的比较
+     */
+    void reset() {
+        startTime = System.currentTimeMillis();
+        differences.clear();
+        lineNumberMap.clear();
+        path.clear();
+        result = new DiffResult();
+        // 只判断是否相同时发现第一个差异即停止
+        int maxDifferences = settings.isEqualityOnly() ? 1 : settings.getMaxDifferences();
+        long deadline = timeout > 0 ? System.nanoTime() + timeout * 1_000_000L : 0;
+        limits.reset(maxDifferences, settings.isEqualityOnly(), deadline);
+        ticks = 0;
+        boolean hashing = usesStructuralHash(settings);
+        leftHashes = hashing ? (preparedLeftHashes != null ? preparedLeftHashes : new StructuralHasher(settings)) : null;
+        rightHashes = hashing ? (preparedRightHashes != null ? preparedRightHashes : new StructuralHasher(settings)) : null;
+    }
+    
+    /**
+     * 按设置是否需要结构哈希：跳过相同子树，或忽略数组顺序和序列差异模式按元素哈希匹配
+     */
+    public static boolean usesStructuralHash(CompareSettings settings) {
+        return settings.isStructuralHash() || settings.isIgnoreOrder() || settings.getArrayMode() != ArrayMode.INDEX;
+    }
+    
+    /**
+     * 使用预先计算好的结构哈希（如已上传文档的缓存），为null的一侧在比较时重新计算。
+     * 哈希必须按与本次设置相同的归一化方式计算。
+     */
+    public void setPreparedHashes(StructuralHasher left, StructuralHasher right) {
+        this.preparedLeftHashes = left;
+        this.preparedRightHashes = right;
+    }
+    
+    /**
+     * 启用结构哈希时，预先计算左侧子树中所有容器节点的哈希
+     */
+    JsonNode indexLeft(JsonNode node) {
+        if (leftHashes != null) {
+            leftHashes.index(node);
+        }
+        return node;
+    }
+    
+    /**
+     * 启用结构哈希时，预先计算右侧子树中所有容器节点的哈希
+     */
+    JsonNode indexRight(JsonNode node) {
+        if (rightHashes != null) {
+            rightHashes.index(node);
+        }
+        return node;
+    }
+    
+    /**
+     * 两侧容器节点是否相同：结构哈希不同时直接判定不同，哈希相同时再逐节点确认，
+     * 哈希碰撞的子树不会被跳过。确认只读取节点，不产生差异项，比逐键比较开销小
+     */
+    private boolean isSameStructure(JsonNode left, JsonNode right) {
+        if (leftHashes == null) {
+            return false;
+        }
+        Long leftHash = leftHashes.get(left);
+        return leftHash != null && leftHash.equals(rightHashes.get(right)) && equivalent(left, right);
+    }
+    
+    /**
+     * 返回无差异的结果，用于已确定两侧相同、无需比较的输入（如字节完全相同的文件）
+     */
+    public DiffResult identicalResult() {
+        reset();
+        return buildResult(null, null);
+    }
+    
+    /**
+     * 根据已收集的差异构建对比结果
+     */
+    DiffResult buildResult(Object left, Object right) {
+        // 默认不回显原始数据，避免响应体过大
+        if (settings.isIncludeInputs()) {
+            result.setLeftData(left);
+            result.setRightData(right);
+        }
+        result.setTimestamp(LocalDateTime.now());
+        result.setSettings(settings);
+        result.setTruncated(limits.isReached());
+        result.setTimedOut(limits.isTimedOut());
+        result.setDuration(System.currentTimeMillis() - startTime);
+        result.setDifferences(listener != null ? Collections.emptyList() : differences);
+        return result;
+    }
+    
+    /**
+     * 当前比较位置的路径
+     */
+    PathStack path() {
+        return path;
+    }
+    
+    /**
+     * 设置单次比较的超时时间（毫秒），超时后停止遍历并返回已发现的差异，0表示不限制
+     */
+    public void setTimeout(long timeout) {
+        this.timeout = timeout;
+    }
+    
+    /**
+     * 取消比较，可从其他线程调用。正在进行的比较立即终止；
+     * 取消状态不会在比较开始时清除，在比较开始前调用时该次比较也立即结束，取消后的比较器不应再使用
+     */
+    public void cancel() {
+        limits.cancel();
+    }
+    
+    /**
+     * 已访问的节点数量（近似值，按检查截止时间的间隔累加），可从其他线程读取，用于显示进度
+     */
+    public long getVisitedNodes() {
+        return limits.getVisited();
+    }
+    
+    /**
+     * 是否应停止遍历：差异数量达到上限、超时或被取消。
+     * 截止时间每访问一定数量的节点才检查一次，避免每个节点都读取时钟。
+     */
+    boolean isStopped() {
+        if ((++ticks & DEADLINE_CHECK_MASK) == 0) {
+            limits.checkDeadline();
+            limits.visited(DEADLINE_CHECK_MASK + 1);
+        }
+        return limits.isStopped();
+    }
+    
+    /**
+     * 输出一个差异项并更新统计信息，调用前须已通过limits.acquire()取得名额
+     */
+    private void emit(DiffItem diff) {
+        result.addDifference(diff);
+        if (listener != null) {
+            try {
+                listener.accept(diff);
+            } catch (RuntimeException e) {
+                // 输出失败（如客户端断开）时终止其余并行任务
+                limits.cancel();
+                throw e;
+            }
+        } else {
+            differences.add(diff);
+        }
+    }
+    
+    /**
+     * 递归比较JSON节点，节点位置由路径栈给出
      */
-    private void compareNodes(String path, JsonNode left, JsonNode right, int depth) {
+    void compareNodes(JsonNode left, JsonNode right, int depth) {
         // 检查深度限制
         if (depth >= settings.getMaxDepth()) {
             return;
         }
         
+        // 差异数量达到上限、超时或被取消后不再下降
+        if (isStopped()) {
+            return;
+        }
+        
         // 处理null值
         if (left == null && right == null) {
             return;
         }
         
         if (left == null) {
-            differences.add(DiffItem.added(path, convertToObject(right)));
+            reportAdded(right);
             return;
         }
         
         if (right == null) {
-            differences.add(DiffItem.removed(path, convertToObject(left)));
+            reportRemoved(left);
             return;
         }
         
         // 检查节点类型
         if (left.getNodeType() != right.getNodeType()) {
-            differences.add(DiffItem.modified(path, convertToObject(left), convertToObject(right)));
+            reportModified(left, right);
+            return;
+        }
+        
+        // 结构哈希相同的子树直接跳过
+        if (left.isContainerNode() && isSameStructure(left, right)) {
             return;
         }
         
         // 根据节点类型进行比较
         switch (left.getNodeType()) {
             case OBJECT:
-                compareObjects(path, (ObjectNode) left, (ObjectNode) right, depth + 1);
+                compareObjects((ObjectNode) left, (ObjectNode) right, depth + 1);
                 break;
             case ARRAY:
-                compareArrays(path, (ArrayNode) left, (ArrayNode) right, depth + 1);
+                compareArrays((ArrayNode) left, (ArrayNode) right, depth + 1);
                 break;
             case STRING:
-                compareStrings(path, left.asText(), right.asText());
+                compareStrings(left.asText(), right.asText());
                 break;
             case NUMBER:
-                compareNumbers(path, left.asDouble(), right.asDouble());
+                compareNumbers(left, right);
                 break;
             case BOOLEAN:
-                compareBooleans(path, left.asBoolean(), right.asBoolean());
+                compareBooleans(left.asBoolean(), right.asBoolean());
                 break;
             case NULL:
                 // null值不需要比较
@@ -122,117 +377,959 @@ public class JsonComparator {
             default:
                 // 其他类型直接比较
                 if (!left.equals(right)) {
-                    differences.add(DiffItem.modified(path, convertToObject(left), convertToObject(right)));
+                    reportModified(left, right);
                 }
         }
     }
     
     /**
-     * 比较对象节点
+     * 比较对象节点，直接在字段表上查找，不复制键集合
      */
-    private void compareObjects(String path, ObjectNode left, ObjectNode right, int depth) {
-        Set<String> leftKeys = new HashSet<>();
-        left.fieldNames().forEachRemaining(leftKeys::add);
-        
-        Set<String> rightKeys = new HashSet<>();
-        right.fieldNames().forEachRemaining(rightKeys::add);
-        
+    private void compareObjects(ObjectNode left, ObjectNode right, int depth) {
         // 处理删除的键
-        for (String key : leftKeys) {
-            if (!rightKeys.contains(key)) {
-                String childPath = path + "." + key;
-                differences.add(DiffItem.removed(childPath, convertToObject(left.get(key))));
+        Iterator<Map.Entry<String, JsonNode>> fields = left.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (!right.has(field.getKey())) {
+                path.push(field.getKey());
+                reportRemoved(field.getValue());
+                path.pop();
             }
         }
         
         // 处理新增的键
-        for (String key : rightKeys) {
-            if (!leftKeys.contains(key)) {
-                String childPath = path + "." + key;
-                differences.add(DiffItem.added(childPath, convertToObject(right.get(key))));
+        fields = right.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (!left.has(field.getKey())) {
+                path.push(field.getKey());
+                reportAdded(field.getValue());
+                path.pop();
             }
         }
         
-        // 处理共同的键
-        for (String key : leftKeys) {
-            if (rightKeys.contains(key)) {
-                String childPath = path + "." + key;
-                compareNodes(childPath, left.get(key), right.get(key), depth);
+        // 处理共同的键，字段较多时拆分为并行任务
+        if (isParallel(left.size())) {
+            List<Map.Entry<String, JsonNode>> entries = new ArrayList<>(left.size());
+            left.fields().forEachRemaining(entries::add);
+            merge(new CompareTask(path.copy(), entries, right, null, null, 0, entries.size(), depth).invoke());
+            return;
+        }
+        
+        fields = left.fields();
+        while (fields.hasNext() && !isStopped()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            JsonNode rightValue = right.get(field.getKey());
+            if (rightValue != null) {
+                path.push(field.getKey());
+                compareNodes(field.getValue(), rightValue, depth);
+                path.pop();
             }
         }
     }
     
+    /**
+     * 在当前路径创建差异项
+     */
+    private DiffItem newItem(DiffItem.DiffType type) {
+        DiffItem item = DiffItem.of(type, path.render(), path.parentPath(), path.lastKey(), path.depth());
+        item.setSegments(path.segmentStarts());
+        return item;
+    }
+    
+    /**
+     * 引用模式下记录差异值在左右JSON中的位置
+     */
+    private DiffItem reference(DiffItem item) {
+        DiffItem.DiffType type = item.getType();
+        if (settings.getValueMode() == ValueMode.POINTER) {
+            String pointer = path.toPointer();
+            if (type != DiffItem.DiffType.ADDED) {
+                item.setLeftPointer(pointer);
+            }
+            if (type != DiffItem.DiffType.REMOVED) {
+                item.setRightPointer(pointer);
+            }
+        }
+        return item;
+    }
+    
+    /**
+     * 记录新增的节点
+     */
+    void reportAdded(JsonNode node) {
+        if (!limits.acquire()) {
+            return;
+        }
+        DiffItem item = reference(newItem(DiffItem.DiffType.ADDED));
+        item.setNewValue(valueOf(node, item));
+        emit(item);
+    }
+    
+    /**
+     * 记录删除的节点
+     */
+    void reportRemoved(JsonNode node) {
+        if (!limits.acquire()) {
+            return;
+        }
+        DiffItem item = reference(newItem(DiffItem.DiffType.REMOVED));
+        item.setOldValue(valueOf(node, item));
+        emit(item);
+    }
+    
+    /**
+     * 记录修改的节点
+     */
+    void reportModified(JsonNode left, JsonNode right) {
+        if (!limits.acquire()) {
+            return;
+        }
+        DiffItem item = reference(newItem(DiffItem.DiffType.MODIFIED));
+        item.setOldValue(valueOf(left, item));
+        item.setNewValue(valueOf(right, item));
+        // 引用和预览模式下值可能被替换，类型变化以节点类型为准
+        String leftType = typeOf(left);
+        String rightType = typeOf(right);
+        if (!leftType.equals(rightType)) {
+            item.setTypeChange(leftType + " -> " + rightType);
+        }
+        emit(item);
+    }
+    
+    /**
+     * 记录修改的标量值，标量值始终内联输出
+     */
+    private void reportModified(Object left, Object right) {
+        if (!limits.acquire()) {
+            return;
+        }
+        DiffItem item = reference(newItem(DiffItem.DiffType.MODIFIED));
+        item.setOldValue(left);
+        item.setNewValue(right);
+        emit(item);
+    }
+    
+    /**
+     * 记录移动的数组元素，路径为移动后的位置
+     */
+    private void reportMoved(JsonNode node, int from, int to) {
+        if (!limits.acquire()) {
+            return;
+        }
+        path.push(to);
+        DiffItem item = newItem(DiffItem.DiffType.MOVED);
+        String toPointer = settings.getValueMode() == ValueMode.POINTER ? path.toPointer() : null;
+        path.pop();
+        
+        path.push(from);
+        item.setFromPath(path.render());
+        if (toPointer != null) {
+            item.setLeftPointer(path.toPointer());
+            item.setRightPointer(toPointer);
+        }
+        path.pop();
+        
+        item.setNewValue(valueOf(node, item));
+        emit(item);
+    }
+    
+    /**
+     * 记录数组长度变化
+     */
+    void reportArrayLength(int leftSize, int rightSize) {
+        if (settings.isIncludeArrayLength() && leftSize != rightSize && limits.acquire()) {
+            // 长度项不对应JSON中的实际位置，不记录引用
+            path.push("_length");
+            DiffItem item = newItem(DiffItem.DiffType.MODIFIED);
+            path.pop();
+            item.setOldValue(leftSize);
+            item.setNewValue(rightSize);
+            emit(item);
+        }
+    }
+    
+    /**
+     * 数组是否需要完整读入后再比较（不能按下标流式比较）
+     */
+    boolean requiresArrayTree() {
+        return settings.isIgnoreOrder() || settings.getArrayMode() != ArrayMode.INDEX || identityKeys() != null;
+    }
+    
+    /**
+     * 当前数组配置的元素标识字段，未配置时返回null
+     */
+    private List<String> identityKeys() {
+        return identityKeys(path);
+    }
+    
+    /**
+     * 指定路径上的数组配置的元素标识字段，未配置时返回null；
+     * 没有配置任何标识字段时不渲染路径模式
+     */
+    private List<String> identityKeys(PathStack at) {
+        Map<String, List<String>> arrayKeys = settings.getArrayKeys();
+        if (arrayKeys == null || arrayKeys.isEmpty()) {
+            return null;
+        }
+        return arrayKeys.get(at.renderPattern());
+    }
+    
     /**
      * 比较数组节点
      */
-    private void compareArrays(String path, ArrayNode left, ArrayNode right, int depth) {
+    private void compareArrays(ArrayNode left, ArrayNode right, int depth) {
+        List<String> keys = identityKeys();
+        if (keys != null) {
+            compareKeyedArrays(left, right, keys, depth);
+            return;
+        }
+        if (settings.isIgnoreOrder()) {
+            compareUnorderedArrays(left, right, depth);
+            return;
+        }
+        if (settings.getArrayMode() == ArrayMode.LCS) {
+            compareSequenceArrays(left, right, depth);
+            return;
+        }
+        
         int leftSize = left.size();
         int rightSize = right.size();
         
         // 比较数组长度变化
-        if (settings.isIncludeArrayLength() && leftSize != rightSize) {
-            String lengthPath = path + "._length";
-            differences.add(DiffItem.modified(lengthPath, leftSize, rightSize));
-        }
+        reportArrayLength(leftSize, rightSize);
         
-        // 比较数组元素
+        // 比较数组元素，元素较多时拆分为并行任务
         int minSize = Math.min(leftSize, rightSize);
-        for (int i = 0; i < minSize; i++) {
-            String elementPath = path + "[" + i + "]";
-            compareNodes(elementPath, left.get(i), right.get(i), depth);
+        if (isParallel(minSize)) {
+            merge(new CompareTask(path.copy(), null, null, left, right, 0, minSize, depth).invoke());
+        } else {
+            for (int i = 0; i < minSize && !isStopped(); i++) {
+                path.push(i);
+                compareNodes(left.get(i), right.get(i), depth);
+                path.pop();
+            }
         }
         
         // 处理新增的元素
-        if (rightSize > leftSize) {
-            for (int i = leftSize; i < rightSize; i++) {
-                String elementPath = path + "[" + i + "]";
-                differences.add(DiffItem.added(elementPath, convertToObject(right.get(i))));
-            }
+        for (int i = leftSize; i < rightSize; i++) {
+            path.push(i);
+            reportAdded(right.get(i));
+            path.pop();
         }
         
         // 处理删除的元素
-        if (leftSize > rightSize) {
-            for (int i = rightSize; i < leftSize; i++) {
-                String elementPath = path + "[" + i + "]";
-                differences.add(DiffItem.removed(elementPath, convertToObject(left.get(i))));
+        for (int i = rightSize; i < leftSize; i++) {
+            path.push(i);
+            reportRemoved(left.get(i));
+            path.pop();
+        }
+    }
+    
+    /**
+     * 忽略顺序比较数组：按元素结构哈希做多重集匹配，时间复杂度O(n)。
+     * 未匹配的元素按出现顺序两两配对后递归比较，多余的元素记为新增或删除。
+     */
+    private void compareUnorderedArrays(ArrayNode left, ArrayNode right, int depth) {
+        int leftSize = left.size();
+        int rightSize = right.size();
+        
+        // 比较数组长度变化
+        reportArrayLength(leftSize, rightSize);
+        
+        // 右侧元素逐个消耗相同的左侧元素
+        int[] matchOf = matchUnordered(left, right);
+        boolean[] matched = new boolean[leftSize];
+        int[] unmatchedRight = new int[rightSize];
+        int unmatchedRightCount = 0;
+        for (int j = 0; j < rightSize; j++) {
+            if (matchOf[j] < 0) {
+                unmatchedRight[unmatchedRightCount++] = j;
+            } else {
+                matched[matchOf[j]] = true;
+            }
+        }
+        
+        // 未匹配的元素两两配对比较
+        int pairs = 0;
+        for (int i = 0; i < leftSize; i++) {
+            if (matched[i]) {
+                continue;
             }
+            path.push(i);
+            if (pairs < unmatchedRightCount) {
+                compareNodes(left.get(i), right.get(unmatchedRight[pairs]), depth);
+            } else {
+                reportRemoved(left.get(i));
+            }
+            path.pop();
+            pairs++;
+        }
+        
+        // 处理新增的元素
+        for (int k = pairs; k < unmatchedRightCount; k++) {
+            path.push(unmatchedRight[k]);
+            reportAdded(right.get(unmatchedRight[k]));
+            path.pop();
         }
     }
     
     /**
-     * 比较字符串值
+     * 忽略顺序匹配数组元素：右侧元素按结构哈希找到候选的左侧元素，确认两者确实相同后才配对，
+     * 哈希碰撞的候选不会被误认为相同
+     *
+     * @return 每个右侧元素配对的左侧下标，未配对为-1
      */
-    private void compareStrings(String path, String left, String right) {
-        if (settings.isIgnoreWhitespace()) {
-            left = left.trim();
-            right = right.trim();
+    private int[] matchUnordered(ArrayNode left, ArrayNode right) {
+        int leftSize = left.size();
+        
+        // 相同哈希的左侧元素以链表串联，头部为下标最小的元素
+        Map<Long, Integer> heads = new HashMap<>(leftSize * 4 / 3 + 1);
+        int[] next = new int[leftSize];
+        for (int i = leftSize - 1; i >= 0; i--) {
+            Integer head = heads.put(leftHashes.index(left.get(i)), i);
+            next[i] = head != null ? head : -1;
         }
         
-        if (!settings.isCaseSensitive()) {
-            left = left.toLowerCase();
-            right = right.toLowerCase();
+        int[] matchOf = new int[right.size()];
+        for (int j = 0; j < matchOf.length; j++) {
+            long hash = rightHashes.index(right.get(j));
+            Integer head = heads.get(hash);
+            int previous = -1;
+            int i = head != null ? head : -1;
+            while (i >= 0 && !equivalent(left.get(i), right.get(j))) {
+                previous = i;
+                i = next[i];
+            }
+            matchOf[j] = i;
+            if (i < 0) {
+                continue;
+            }
+            // 从链表中摘除已配对的左侧元素
+            if (previous >= 0) {
+                next[previous] = next[i];
+            } else if (next[i] < 0) {
+                heads.remove(hash);
+            } else {
+                heads.put(hash, next[i]);
+            }
+        }
+        return matchOf;
+    }
+    
+    /**
+     * 两个节点按比较规则是否相同：字符串和数值按比较时的规则判断，对象逐字段判断，
+     * 数组按顺序逐个判断，忽略顺序时按多重集判断
+     */
+    private boolean equivalent(JsonNode left, JsonNode right) {
+        if (left.getNodeType() != right.getNodeType()) {
+            return false;
+        }
+        switch (left.getNodeType()) {
+            case OBJECT: {
+                if (left.size() != right.size()) {
+                    return false;
+                }
+                Iterator<Map.Entry<String, JsonNode>> fields = left.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    JsonNode rightValue = right.get(field.getKey());
+                    if (rightValue == null || !equivalent(field.getValue(), rightValue)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            case ARRAY: {
+                if (left.size() != right.size()) {
+                    return false;
+                }
+                if (settings.isIgnoreOrder()) {
+                    for (int i : matchUnordered((ArrayNode) left, (ArrayNode) right)) {
+                        if (i < 0) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }
+                for (int i = 0; i < left.size(); i++) {
+                    if (!equivalent(left.get(i), right.get(i))) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            case STRING:
+                return stringsEqual(left.asText(), right.asText());
+            case NUMBER:
+                return numbersEqual(left, right) || withinTolerance(left, right);
+            case BOOLEAN:
+                return left.asBoolean() == right.asBoolean();
+            case NULL:
+                return true;
+            default:
+                return left.equals(right);
+        }
+    }
+    
+    /**
+     * 按标识字段匹配比较数组：左侧元素按标识建立哈希索引，右侧元素逐个查找，
+     * 匹配的元素逐对比较，其余左侧元素记为删除、右侧元素记为新增。
+     */
+    private void compareKeyedArrays(ArrayNode left, ArrayNode right, List<String> keys, int depth) {
+        int leftSize = left.size();
+        int rightSize = right.size();
+        
+        // 比较数组长度变化
+        reportArrayLength(leftSize, rightSize);
+        
+        // 相同标识的左侧元素以链表串联，头部为下标最小的元素
+        Map<Object, Integer> heads = new HashMap<>(leftSize * 4 / 3 + 1);
+        int[] next = new int[leftSize];
+        for (int i = leftSize - 1; i >= 0; i--) {
+            Object key = identityOf(left.get(i), keys);
+            if (key != null) {
+                Integer head = heads.put(key, i);
+                next[i] = head != null ? head : -1;
+            }
+        }
+        
+        // 右侧元素逐个消耗相同标识的左侧元素
+        int[] matchOf = new int[leftSize];
+        Arrays.fill(matchOf, -1);
+        boolean[] rightMatched = new boolean[rightSize];
+        for (int j = 0; j < rightSize; j++) {
+            Object key = identityOf(right.get(j), keys);
+            Integer i = key != null ? heads.get(key) : null;
+            if (i == null) {
+                continue;
+            }
+            matchOf[i] = j;
+            rightMatched[j] = true;
+            if (next[i] < 0) {
+                heads.remove(key);
+            } else {
+                heads.put(key, next[i]);
+            }
+        }
+        
+        // 比较匹配的元素，处理删除的元素
+        for (int i = 0; i < leftSize; i++) {
+            path.push(i);
+            if (matchOf[i] >= 0) {
+                compareNodes(left.get(i), right.get(matchOf[i]), depth);
+            } else {
+                reportRemoved(left.get(i));
+            }
+            path.pop();
+        }
+        
+        // 处理新增的元素
+        for (int j = 0; j < rightSize; j++) {
+            if (!rightMatched[j]) {
+                path.push(j);
+                reportAdded(right.get(j));
+                path.pop();
+            }
+        }
+    }
+    
+    /**
+     * 获取数组元素的标识，单个字段时为字段值，多个字段时为字段值列表；
+     * 元素不是对象或缺少任一标识字段时返回null
+     */
+    private static Object identityOf(JsonNode element, List<String> keys) {
+        if (element == null || !element.isObject()) {
+            return null;
+        }
+        if (keys.size() == 1) {
+            JsonNode value = element.get(keys.get(0));
+            return value == null || value.isNull() ? null : value;
+        }
+        List<JsonNode> values = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            JsonNode value = element.get(key);
+            if (value == null || value.isNull()) {
+                return null;
+            }
+            values.add(value);
+        }
+        return values;
+    }
+    
+    /**
+     * 按序列差异比较数组：以元素结构哈希求最长公共子序列对齐两侧，
+     * 公共子序列之外的元素先识别移动，再在每段空隙内两两配对比较，多余的记为新增或删除。
+     */
+    private void compareSequenceArrays(ArrayNode left, ArrayNode right, int depth) {
+        int leftSize = left.size();
+        int rightSize = right.size();
+        
+        // 比较数组长度变化
+        reportArrayLength(leftSize, rightSize);
+        
+        long[] leftHashArray = new long[leftSize];
+        for (int i = 0; i < leftSize; i++) {
+            leftHashArray[i] = leftHashes.index(left.get(i));
+        }
+        long[] rightHashArray = new long[rightSize];
+        for (int j = 0; j < rightSize; j++) {
+            rightHashArray[j] = rightHashes.index(right.get(j));
+        }
+        int[] matches = new ArrayDiffer(settings.getMaxEditCost()).match(leftHashArray, rightHashArray);
+        
+        // 公共子序列按哈希对齐，确认对齐的元素确实相同，哈希碰撞的一对拆开，归入所在的空隙
+        for (int i = 0; i < leftSize; i++) {
+            if (matches[i] >= 0 && !equivalent(left.get(i), right.get(matches[i]))) {
+                matches[i] = -1;
+            }
+        }
+        
+        // 公共子序列之外、两侧相同的元素视为移动
+        int[] movedTo = new int[leftSize];
+        Arrays.fill(movedTo, -1);
+        boolean[] rightUsed = new boolean[rightSize];
+        for (int i = 0; i < leftSize; i++) {
+            if (matches[i] >= 0) {
+                rightUsed[matches[i]] = true;
+            }
+        }
+        if (settings.isDetectMoves()) {
+            Map<Long, Integer> heads = new HashMap<>();
+            int[] next = new int[leftSize];
+            for (int i = leftSize - 1; i >= 0; i--) {
+                if (matches[i] < 0) {
+                    Integer head = heads.put(leftHashArray[i], i);
+                    next[i] = head != null ? head : -1;
+                }
+            }
+            for (int j = 0; j < rightSize && !heads.isEmpty(); j++) {
+                if (rightUsed[j]) {
+                    continue;
+                }
+                // 沿相同哈希的链表查找确实相同的左侧元素
+                Integer head = heads.get(rightHashArray[j]);
+                int previous = -1;
+                int i = head != null ? head : -1;
+                while (i >= 0 && !equivalent(left.get(i), right.get(j))) {
+                    previous = i;
+                    i = next[i];
+                }
+                if (i < 0) {
+                    continue;
+                }
+                movedTo[i] = j;
+                rightUsed[j] = true;
+                if (previous >= 0) {
+                    next[previous] = next[i];
+                } else if (next[i] < 0) {
+                    heads.remove(rightHashArray[j]);
+                } else {
+                    heads.put(rightHashArray[j], next[i]);
+                }
+            }
         }
         
-        if (!left.equals(right)) {
-            differences.add(DiffItem.modified(path, left, right));
+        // 逐段处理公共子序列之间的空隙
+        int i = 0;
+        int j = 0;
+        while (i < leftSize || j < rightSize) {
+            int leftEnd = i;
+            while (leftEnd < leftSize && matches[leftEnd] < 0) {
+                leftEnd++;
+            }
+            int rightEnd = leftEnd < leftSize ? matches[leftEnd] : rightSize;
+            compareGap(left, right, i, leftEnd, j, rightEnd, movedTo, rightUsed, depth);
+            i = leftEnd + 1;
+            j = rightEnd + 1;
         }
     }
     
     /**
-     * 比较数值
+     * 比较公共子序列之间的一段空隙
      */
-    private void compareNumbers(String path, double left, double right) {
-        if (Math.abs(left - right) > 1e-10) {
-            differences.add(DiffItem.modified(path, left, right));
+    private void compareGap(ArrayNode left, ArrayNode right, int leftFrom, int leftTo, int rightFrom, int rightTo,
+                            int[] movedTo, boolean[] rightUsed, int depth) {
+        int j = rightFrom;
+        for (int i = leftFrom; i < leftTo; i++) {
+            if (movedTo[i] >= 0) {
+                reportMoved(right.get(movedTo[i]), i, movedTo[i]);
+                continue;
+            }
+            
+            // 跳过已匹配或移动到此处的右侧元素
+            while (j < rightTo && rightUsed[j]) {
+                j++;
+            }
+            path.push(i);
+            if (j < rightTo) {
+                compareNodes(left.get(i), right.get(j), depth);
+                j++;
+            } else {
+                reportRemoved(left.get(i));
+            }
+            path.pop();
+        }
+        
+        // 处理新增的元素
+        for (; j < rightTo; j++) {
+            if (!rightUsed[j]) {
+                path.push(j);
+                reportAdded(right.get(j));
+                path.pop();
+            }
+        }
+    }
+    
+    /**
+     * 判断是否对指定数量的子节点启用并行比较
+     */
+    private boolean isParallel(int size) {
+        return settings.isParallel() && size > settings.getParallelThreshold();
+    }
+    
+    /**
+     * 按顺序合并并行子任务收集的差异项
+     */
+    private void merge(List<DiffItem> items) {
+        for (DiffItem item : items) {
+            emit(item);
+        }
+    }
+    
+    /**
+     * 并行比较任务 - 比较对象字段或数组元素的一个区间，超过阈值时二分拆分。
+     * 每个任务在自己的缓冲区中收集差异，合并时左半区在前，保证与顺序比较的输出顺序一致。
+     */
+    private class CompareTask extends RecursiveTask<List<DiffItem>> {
+        private static final long serialVersionUID = 1L;
+        private final PathStack prefix;
+        private final List<Map.Entry<String, JsonNode>> fields;
+        private final ObjectNode rightObject;
+        private final ArrayNode leftArray;
+        private final ArrayNode rightArray;
+        private final int from;
+        private final int to;
+        private final int depth;
+        
+        CompareTask(PathStack prefix, List<Map.Entry<String, JsonNode>> fields, ObjectNode rightObject,
+                    ArrayNode leftArray, ArrayNode rightArray, int from, int to, int depth) {
+            this.prefix = prefix;
+            this.fields = fields;
+            this.rightObject = rightObject;
+            this.leftArray = leftArray;
+            this.rightArray = rightArray;
+            this.from = from;
+            this.to = to;
+            this.depth = depth;
+        }
+        
+        @Override
+        protected List<DiffItem> compute() {
+            // 已终止时不再拆分或创建子任务
+            if (limits.isStopped()) {
+                return new ArrayList<>();
+            }
+            if (to - from > settings.getParallelThreshold()) {
+                int mid = (from + to) >>> 1;
+                CompareTask head = new CompareTask(prefix, fields, rightObject, leftArray, rightArray, from, mid, depth);
+                CompareTask tail = new CompareTask(prefix, fields, rightObject, leftArray, rightArray, mid, to, depth);
+                head.fork();
+                List<DiffItem> tailItems = tail.compute();
+                List<DiffItem> items = head.join();
+                items.addAll(tailItems);
+                return items;
+            }
+            
+            JsonComparator worker = new JsonComparator(objectMapper, settings, prefix.copy(), limits);
+            worker.leftHashes = leftHashes;
+            worker.rightHashes = rightHashes;
+            for (int i = from; i < to && !worker.isStopped(); i++) {
+                if (fields != null) {
+                    Map.Entry<String, JsonNode> field = fields.get(i);
+                    JsonNode rightValue = rightObject.get(field.getKey());
+                    if (rightValue != null) {
+                        worker.path.push(field.getKey());
+                        worker.compareNodes(field.getValue(), rightValue, depth);
+                        worker.path.pop();
+                    }
+                } else {
+                    worker.path.push(i);
+                    worker.compareNodes(leftArray.get(i), rightArray.get(i), depth);
+                    worker.path.pop();
+                }
+            }
+            return worker.differences;
         }
     }
     
+    /**
+     * 比较的终止条件 - 差异数量上限、超时时间和外部取消。
+     * 每个比较器只有一个实例，并行子任务共享该实例，每次比较开始时重置（取消状态除外）
+     */
+    private static class CompareLimits {
+        private final AtomicInteger found = new AtomicInteger();
+        private final AtomicLong visited = new AtomicLong();
+        private volatile int max;
+        private volatile boolean stopAtMax;
+        private volatile long deadline;
+        private volatile boolean reached;
+        private volatile boolean timedOut;
+        private volatile boolean cancelled;
+        
+        /**
+         * 开始新的比较，清除上一次的计数；取消状态保留，避免比较开始前到达的取消被清除
+         *
+         * @param stopAtMax 名额用完即停止，不再确认是否还有更多差异（只判断是否相同时）
+         */
+        void reset(int max, boolean stopAtMax, long deadline) {
+            this.max = max;
+            this.stopAtMax = stopAtMax;
+            this.deadline = deadline;
+            found.set(0);
+            visited.set(0);
+            reached = false;
+            timedOut = false;
+        }
+        
+        /**
+         * 申请输出一个差异项，超过上限或已终止时返回false
+         */
+        boolean acquire() {
+            if (timedOut || cancelled) {
+                return false;
+            }
+            if (max <= 0) {
+                return true;
+            }
+            if (found.incrementAndGet() <= max) {
+                return true;
+            }
+            reached = true;
+            return false;
+        }
+        
+        /**
+         * 是否应停止比较。名额刚好用完时继续比较，直到有差异项被拒绝才确定结果被截断；
+         * 恰好有上限数量差异的比较不标记为截断
+         */
+        boolean isStopped() {
+            if (timedOut || cancelled || reached) {
+                return true;
+            }
+            return stopAtMax && max > 0 && found.get() >= max;
+        }
+        
+        /**
+         * 检查是否已超过截止时间（System.nanoTime），0表示不限制
+         */
+        void checkDeadline() {
+            if (deadline != 0 && System.nanoTime() - deadline > 0) {
+                timedOut = true;
+            }
+        }
+        
+        void visited(int count) {
+            visited.addAndGet(count);
+        }
+        
+        long getVisited() {
+            return visited.get();
+        }
+        
+        void cancel() {
+            cancelled = true;
+        }
+        
+        boolean isReached() {
+            return reached;
+        }
+        
+        boolean isTimedOut() {
+            return timedOut;
+        }
+    }
+    
+    /**
+     * 比较字符串值：忽略空白时只收缩首尾边界，忽略大小写时逐字符折叠比较，相同时不复制字符串。
+     * 只有记录差异时才生成去除空白、转为小写后的值，预览模式下只处理预览长度以内的部分
+     */
+    private void compareStrings(String left, String right) {
+        if (stringsEqual(left, right)) {
+            return;
+        }
+        int leftStart = 0;
+        int leftEnd = left.length();
+        int rightStart = 0;
+        int rightEnd = right.length();
+        if (settings.isIgnoreWhitespace()) {
+            leftStart = trimStart(left, leftEnd);
+            leftEnd = trimEnd(left, leftStart, leftEnd);
+            rightStart = trimStart(right, rightEnd);
+            rightEnd = trimEnd(right, rightStart, rightEnd);
+        }
+        
+        if (!limits.acquire()) {
+            return;
+        }
+        DiffItem item = reference(newItem(DiffItem.DiffType.MODIFIED));
+        item.setOldValue(textValue(left, leftStart, leftEnd, item));
+        item.setNewValue(textValue(right, rightStart, rightEnd, item));
+        emit(item);
+    }
+    
+    /**
+     * 生成修改后输出的字符串：预览模式下超过预览长度时先截断再归一化，并标记差异项
+     */
+    private String textValue(String value, int start, int end, DiffItem item) {
+        boolean ignoreCase = !settings.isCaseSensitive();
+        int limit = settings.getPreviewLength();
+        if (settings.getValueMode() == ValueMode.PREVIEW && end - start > limit) {
+            item.setTruncated(true);
+            return normalize(value, start, start + limit, ignoreCase) + "...";
+        }
+        return normalize(value, start, end, ignoreCase);
+    }
+    
+    /**
+     * 字符串按设置是否相同，不复制字符串
+     */
+    private boolean stringsEqual(String left, String right) {
+        int leftStart = 0;
+        int leftEnd = left.length();
+        int rightStart = 0;
+        int rightEnd = right.length();
+        if (settings.isIgnoreWhitespace()) {
+            leftStart = trimStart(left, leftEnd);
+            leftEnd = trimEnd(left, leftStart, leftEnd);
+            rightStart = trimStart(right, rightEnd);
+            rightEnd = trimEnd(right, rightStart, rightEnd);
+        }
+        int length = leftEnd - leftStart;
+        return length == rightEnd - rightStart
+                && left.regionMatches(!settings.isCaseSensitive(), leftStart, right, rightStart, length);
+    }
+    
+    /**
+     * 跳过开头的空白，与String.trim()一致，码点不大于空格的字符都视为空白
+     */
+    private static int trimStart(String value, int end) {
+        int start = 0;
+        while (start < end && value.charAt(start) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+    
+    /**
+     * 跳过末尾的空白
+     */
+    private static int trimEnd(String value, int start, int end) {
+        while (end > start && value.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+    
+    /**
+     * 生成归一化后的字符串，未去除空白且区分大小写时返回原值
+     */
+    private static String normalize(String value, int start, int end, boolean ignoreCase) {
+        String trimmed = start == 0 && end == value.length() ? value : value.substring(start, end);
+        return ignoreCase ? trimmed.toLowerCase(Locale.ROOT) : trimmed;
+    }
+    
+    /**
+     * 比较数值，按解析得到的原始表示精确比较；设置了容差时，不相等的数值再按容差判断
+     */
+    private void compareNumbers(JsonNode left, JsonNode right) {
+        if (!numbersEqual(left, right) && !withinTolerance(left, right)) {
+            reportModified(left, right);
+        }
+    }
+    
+    /**
+     * 数值是否精确相等：int/long直接比较，两侧都是浮点数时按double比较，
+     * 整数与浮点数混合时按浮点数的精确值比较，均不分配对象；大整数和高精度小数按BigDecimal比较
+     */
+    private static boolean numbersEqual(JsonNode left, JsonNode right) {
+        boolean leftLong = isLongNumber(left);
+        boolean rightLong = isLongNumber(right);
+        if (leftLong && rightLong) {
+            return left.longValue() == right.longValue();
+        }
+        boolean leftFloat = left.isFloatingPointNumber() && !left.isBigDecimal();
+        boolean rightFloat = right.isFloatingPointNumber() && !right.isBigDecimal();
+        if (leftFloat && rightFloat) {
+            return left.doubleValue() == right.doubleValue();
+        }
+        if (leftLong && rightFloat) {
+            return sameValue(right.doubleValue(), left.longValue());
+        }
+        if (leftFloat && rightLong) {
+            return sameValue(left.doubleValue(), right.longValue());
+        }
+        BigDecimal leftValue = exactValue(left, leftFloat);
+        BigDecimal rightValue = exactValue(right, rightFloat);
+        return leftValue != null && rightValue != null && leftValue.compareTo(rightValue) == 0;
+    }
+    
+    /**
+     * 数值差是否在容差范围内：差的绝对值不超过绝对容差，或不超过较大绝对值乘以相对容差
+     */
+    private boolean withinTolerance(JsonNode left, JsonNode right) {
+        double absolute = settings.getNumberTolerance();
+        double relative = settings.getRelativeTolerance();
+        if (absolute <= 0 && relative <= 0) {
+            return false;
+        }
+        double leftValue = left.doubleValue();
+        double rightValue = right.doubleValue();
+        double difference;
+        if (isLongNumber(left) && isLongNumber(right)) {
+            // 整数先按long求差，避免大整数转为double后的差为0
+            long a = left.longValue();
+            long b = right.longValue();
+            long d = a - b;
+            difference = ((a ^ b) & (a ^ d)) < 0 ? Math.abs(leftValue - rightValue) : Math.abs((double) d);
+        } else {
+            difference = Math.abs(leftValue - rightValue);
+        }
+        return difference <= absolute
+                || difference <= relative * Math.max(Math.abs(leftValue), Math.abs(rightValue));
+    }
+    
+    /**
+     * 是否为int/long范围内的整数节点（不含BigInteger）
+     */
+    private static boolean isLongNumber(JsonNode node) {
+        return node.isIntegralNumber() && !node.isBigInteger();
+    }
+    
+    /**
+     * double与long是否表示同一个数值
+     */
+    private static boolean sameValue(double value, long integer) {
+        return value == Math.rint(value) && value >= -0x1p63 && value < 0x1p63 && (long) value == integer;
+    }
+    
+    /**
+     * 数值的精确值，浮点数按其二进制精确值换算；非有限浮点数返回null
+     */
+    private static BigDecimal exactValue(JsonNode node, boolean binaryFloat) {
+        if (!binaryFloat) {
+            return node.decimalValue();
+        }
+        double value = node.doubleValue();
+        return Double.isFinite(value) ? new BigDecimal(value) : null;
+    }
+    
     /**
      * 比较布尔值
      */
-    private void compareBooleans(String path, boolean left, boolean right) {
+    private void compareBooleans(boolean left, boolean right) {
         if (left != right) {
-            differences.add(DiffItem.modified(path, left, right));
+            reportModified((Object) left, (Object) right);
         }
     }
     
@@ -261,42 +1358,76 @@ public class JsonComparator {
     }
     
     /**
-     * 将JsonNode转换为Java对象
+     * 按输出模式转换差异值：完整值、仅引用（容器值省略）或截断预览
      */
-    private Object convertToObject(JsonNode node) {
+    private Object valueOf(JsonNode node, DiffItem item) {
+        // 直接引用原节点，序列化时由Jackson输出，不做深拷贝
         if (node == null || node.isNull()) {
             return null;
         }
         
+        switch (settings.getValueMode()) {
+            case POINTER:
+                return node.isContainerNode() ? null : node;
+            case PREVIEW:
+                return node.isContainerNode() || node.isTextual() ? preview(node, item) : node;
+            default:
+                return node;
+        }
+    }
+    
+    /**
+     * 生成节点的预览，未超过预览长度时返回完整值，超过时返回截断文本并标记差异项
+     */
+    private Object preview(JsonNode node, DiffItem item) {
+        int limit = settings.getPreviewLength();
         if (node.isTextual()) {
-            return node.asText();
+            String text = node.textValue();
+            if (text.length() <= limit) {
+                return node;
+            }
+            item.setTruncated(true);
+            return text.substring(0, limit) + "...";
         }
         
-        if (node.isNumber()) {
-            return node.asDouble();
+        // 序列化超过预览长度时立即停止
+        LimitedWriter writer = new LimitedWriter(limit);
+        try {
+            objectMapper.writeValue(writer, node);
+        } catch (Exception e) {
+            // 达到长度上限，序列化中止
         }
-        
-        if (node.isBoolean()) {
-            return node.asBoolean();
+        if (!writer.isOverflow()) {
+            return node;
         }
-        
-        if (node.isArray()) {
-            List<Object> list = new ArrayList<>();
-            for (JsonNode element : node) {
-                list.add(convertToObject(element));
-            }
-            return list;
+        item.setTruncated(true);
+        return writer.toString() + "...";
+    }
+    
+    /**
+     * 获取节点的值类型
+     */
+    private String typeOf(JsonNode node) {
+        if (node == null) {
+            return "null";
         }
-        
-        if (node.isObject()) {
-            Map<String, Object> map = new HashMap<>();
-            node.fields().forEachRemaining(entry -> {
-                map.put(entry.getKey(), convertToObject(entry.getValue()));
-            });
-            return map;
+        switch (node.getNodeType()) {
+            case OBJECT:
+                return "object";
+            case ARRAY:
+                return "array";
+            case STRING:
+                return "string";
+            case NUMBER:
+                return "number";
+            case BOOLEAN:
+                return "boolean";
+            case NULL:
+            case MISSING:
+                return "null";
+            default:
+                return "unknown";
         }
-        
-        return node.toString();
     }
     
     /**
@@ -324,4 +1455,45 @@ public class JsonComparator {
         String key = (isLeft ? "left_" : "right_") + path;
         return lineNumberMap.get(key);
     }
-}
\ No newline at end of file
+    
+    /**
+     * 限制长度的字符输出，超过上限时抛出异常中止序列化
+     */
+    private static class LimitedWriter extends Writer {
+        private final StringBuilder buffer = new StringBuilder();
+        private final int limit;
+        private boolean overflow;
+        
+        LimitedWriter(int limit) {
+            this.limit = limit;
+        }
+        
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            int remaining = limit - buffer.length();
+            if (len > remaining) {
+                buffer.append(cbuf, off, Math.max(remaining, 0));
+                overflow = true;
+                throw new IOException("preview limit reached");
+            }
+            buffer.append(cbuf, off, len);
+        }
+        
+        @Override
+        public void flush() {
+        }
+        
+        @Override
+        public void close() {
+        }
+        
+        boolean isOverflow() {
+            return overflow;
+        }
+        
+        @Override
+        public String toString() {
+            return buffer.toString();
+        }
+    }
+}
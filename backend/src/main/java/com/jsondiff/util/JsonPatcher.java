@@ -0,0 +1,355 @@
+package com.jsondiff.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.jsondiff.model.PatchOperation;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JSON Patch（RFC 6902）执行器 - 直接修改树模型
+ *
+ * 每个操作记录撤销动作，任一操作失败时按相反顺序撤销，整个补丁不生效。
+ * 同时记录受影响的位置和估算的内存变化，供增量比较使用：
+ * 数组元素的插入和删除会移动后续下标，记为所在数组；其他操作记为目标位置本身。
+ *
+ * @author JSON Diff Team
+ * @version 1.0.0
+ */
+public class JsonPatcher {
+
+    private JsonNode root;
+    private final Deque<Runnable> undo;
+    private final List<String> touched;
+    private long sizeDelta;
+
+    /**
+     * 构造函数
+     */
+    public JsonPatcher(JsonNode root) {
+        this.root = root;
+        this.undo = new ArrayDeque<>();
+        this.touched = new ArrayList<>();
+    }
+
+    /**
+     * 依次应用补丁操作，失败时撤销已应用的操作并抛出IllegalArgumentException
+     */
+    public void apply(List<PatchOperation> operations) {
+        try {
+            for (int i = 0; i < operations.size(); i++) {
+                apply(operations.get(i), i);
+            }
+            undo.clear();
+        } catch (IllegalArgumentException e) {
+            while (!undo.isEmpty()) {
+                undo.pop().run();
+            }
+            touched.clear();
+            sizeDelta = 0;
+            throw e;
+        }
+    }
+
+    /**
+     * 修改后的根节点，替换根节点时与传入的不同
+     */
+    public JsonNode getRoot() {
+        return root;
+    }
+
+    /**
+     * 受影响的位置（JSON Pointer），可能重复或互相包含
+     */
+    public List<String> getTouched() {
+        return touched;
+    }
+
+    /**
+     * 估算的内存变化（字节）
+     */
+    public long getSizeDelta() {
+        return sizeDelta;
+    }
+
+    /**
+     * 将JSON Pointer拆分为解码后的路径段，空字符串表示根节点
+     */
+    public static List<String> tokens(String pointer) {
+        List<String> tokens = new ArrayList<>();
+        if (pointer == null || pointer.isEmpty()) {
+            return tokens;
+        }
+        if (pointer.charAt(0) != '/') {
+            throw new IllegalArgumentException("无效的JSON Pointer: " + pointer);
+        }
+        int start = 1;
+        while (true) {
+            int end = pointer.indexOf('/', start);
+            String token = pointer.substring(start, end < 0 ? pointer.length() : end);
+            tokens.add(token.replace("~1", "/").replace("~0", "~"));
+            if (end < 0) {
+                return tokens;
+            }
+            start = end + 1;
+        }
+    }
+
+    private void apply(PatchOperation operation, int index) {
+        String op = operation.getOp();
+        if (op == null || operation.getPath() == null) {
+            throw new IllegalArgumentException("第 " + (index + 1) + " 个操作缺少op或path");
+        }
+        String path = operation.getPath();
+        switch (op) {
+            case "add":
+                add(path, valueOf(operation));
+                break;
+            case "remove":
+                remove(path);
+                break;
+            case "replace":
+                replace(path, valueOf(operation));
+                break;
+            case "move":
+                String from = fromOf(operation);
+                if (path.startsWith(from + "/")) {
+                    throw new IllegalArgumentException("不能将节点移动到其子节点: " + path);
+                }
+                if (!path.equals(from)) {
+                    add(path, remove(from));
+                }
+                break;
+            case "copy":
+                JsonNode source = locate(fromOf(operation));
+                if (source == null) {
+                    throw new IllegalArgumentException("路径不存在: " + operation.getFrom());
+                }
+                add(path, source.deepCopy());
+                break;
+            case "test":
+                if (!isEqual(locate(path), valueOf(operation))) {
+                    throw new IllegalArgumentException("test操作不成立: " + path);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("不支持的操作类型: " + op);
+        }
+    }
+
+    /**
+     * 新增节点：数组中插入元素（"-"表示末尾），对象中新增或覆盖字段，空路径替换根节点
+     */
+    private void add(String path, JsonNode value) {
+        List<String> tokens = tokens(path);
+        if (tokens.isEmpty()) {
+            replaceRoot(value);
+            return;
+        }
+        JsonNode parent = parentOf(path);
+        String token = tokens.get(tokens.size() - 1);
+        if (parent.isArray()) {
+            ArrayNode array = (ArrayNode) parent;
+            int i = "-".equals(token) ? array.size() : indexOf(token, array.size() + 1, path);
+            array.insert(i, value);
+            undo.push(() -> array.remove(i));
+            touch(parentPointer(path), value, null);
+        } else {
+            ObjectNode object = (ObjectNode) parent;
+            JsonNode previous = object.replace(token, value);
+            undo.push(() -> {
+                if (previous == null) {
+                    object.remove(token);
+                } else {
+                    object.replace(token, previous);
+                }
+            });
+            touch(path, value, previous);
+        }
+    }
+
+    /**
+     * 删除节点，返回被删除的节点
+     */
+    private JsonNode remove(String path) {
+        List<String> tokens = tokens(path);
+        if (tokens.isEmpty()) {
+            throw new IllegalArgumentException("不能删除根节点");
+        }
+        JsonNode parent = parentOf(path);
+        String token = tokens.get(tokens.size() - 1);
+        if (parent.isArray()) {
+            ArrayNode array = (ArrayNode) parent;
+            int i = indexOf(token, array.size(), path);
+            JsonNode removed = array.remove(i);
+            undo.push(() -> array.insert(i, removed));
+            touch(parentPointer(path), null, removed);
+            return removed;
+        }
+        ObjectNode object = (ObjectNode) parent;
+        JsonNode removed = object.remove(token);
+        if (removed == null) {
+            throw new IllegalArgumentException("路径不存在: " + path);
+        }
+        undo.push(() -> object.set(token, removed));
+        touch(path, null, removed);
+        return removed;
+    }
+
+    /**
+     * 替换已存在的节点
+     */
+    private void replace(String path, JsonNode value) {
+        List<String> tokens = tokens(path);
+        if (tokens.isEmpty()) {
+            replaceRoot(value);
+            return;
+        }
+        JsonNode parent = parentOf(path);
+        String token = tokens.get(tokens.size() - 1);
+        JsonNode previous;
+        if (parent.isArray()) {
+            ArrayNode array = (ArrayNode) parent;
+            int i = indexOf(token, array.size(), path);
+            previous = array.set(i, value);
+            undo.push(() -> array.set(i, previous));
+        } else {
+            ObjectNode object = (ObjectNode) parent;
+            if (!object.has(token)) {
+                throw new IllegalArgumentException("路径不存在: " + path);
+            }
+            previous = object.replace(token, value);
+            undo.push(() -> object.replace(token, previous));
+        }
+        touch(path, value, previous);
+    }
+
+    private void replaceRoot(JsonNode value) {
+        JsonNode previous = root;
+        root = value;
+        undo.push(() -> root = previous);
+        touch("", value, previous);
+    }
+
+    /**
+     * 记录受影响的位置和内存变化
+     */
+    private void touch(String pointer, JsonNode added, JsonNode removed) {
+        touched.add(pointer);
+        sizeDelta += JsonSizeEstimator.estimate(added) - JsonSizeEstimator.estimate(removed);
+    }
+
+    /**
+     * 查找节点，不存在时返回null
+     */
+    private JsonNode locate(String path) {
+        JsonNode node = root;
+        for (String token : tokens(path)) {
+            if (node == null) {
+                return null;
+            }
+            if (node.isArray()) {
+                node = isIndex(token) ? node.get(Integer.parseInt(token)) : null;
+            } else {
+                node = node.get(token);
+            }
+        }
+        return node;
+    }
+
+    /**
+     * 查找目标位置的父节点，父节点必须是对象或数组
+     */
+    private JsonNode parentOf(String path) {
+        JsonNode parent = locate(parentPointer(path));
+        if (parent == null || !parent.isContainerNode()) {
+            throw new IllegalArgumentException("父节点不存在或不是容器: " + path);
+        }
+        return parent;
+    }
+
+    /**
+     * 父节点的JSON Pointer，键名中的"/"已转义，最后一个"/"即为分隔符
+     */
+    private static String parentPointer(String path) {
+        return path.substring(0, path.lastIndexOf('/'));
+    }
+
+    /**
+     * 解析数组下标，要求在[0, bound)范围内
+     */
+    private static int indexOf(String token, int bound, String path) {
+        if (!isIndex(token)) {
+            throw new IllegalArgumentException("无效的数组下标: " + path);
+        }
+        int index = Integer.parseInt(token);
+        if (index >= bound) {
+            throw new IllegalArgumentException("数组下标越界: " + path);
+        }
+        return index;
+    }
+
+    /**
+     * 是否为合法的数组下标：非负十进制整数，不带前导零
+     */
+    static boolean isIndex(String token) {
+        if (token.isEmpty() || token.length() > 9 || (token.length() > 1 && token.charAt(0) == '0')) {
+            return false;
+        }
+        for (int i = 0; i < token.length(); i++) {
+            if (!Character.isDigit(token.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static JsonNode valueOf(PatchOperation operation) {
+        // 值为JSON null时反序列化结果为null
+        return operation.getValue() != null ? operation.getValue() : NullNode.getInstance();
+    }
+
+    private static String fromOf(PatchOperation operation) {
+        if (operation.getFrom() == null) {
+            throw new IllegalArgumentException(operation.getOp() + "操作缺少from: " + operation.getPath());
+        }
+        return operation.getFrom();
+    }
+
+    /**
+     * 按RFC 6902判断相等，数值按数学值比较
+     */
+    private static boolean isEqual(JsonNode left, JsonNode right) {
+        if (left == null || right == null) {
+            return left == right;
+        }
+        if (left.isNumber() && right.isNumber()) {
+            return left.decimalValue().compareTo(right.decimalValue()) == 0;
+        }
+        if (left.isContainerNode() && left.getNodeType() == right.getNodeType() && left.size() == right.size()) {
+            if (left.isArray()) {
+                for (int i = 0; i < left.size(); i++) {
+                    if (!isEqual(left.get(i), right.get(i))) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            Iterator<Map.Entry<String, JsonNode>> fields = left.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                if (!isEqual(field.getValue(), right.get(field.getKey()))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return left.equals(right);
+    }
+}
@@ -0,0 +1,122 @@
+package com.jsondiff.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.jsondiff.model.DiffItem;
+import com.jsondiff.model.DiffResult;
+import com.jsondiff.model.ExportConfig;
+import com.jsondiff.model.StoredDocument;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+/**
+ * JSON差异报告输出器 - 结构与前端生成的报告一致，summary在differences之后写出
+ *
+ * @author JSON Diff Team
+ * @version 1.0.0
+ */
+public class JsonReportWriter extends ReportWriter {
+
+    private final JsonGenerator generator;
+
+    public JsonReportWriter(OutputStream out, ExportConfig config) throws IOException {
+        super(out, config);
+        this.generator = objectMapper.createGenerator(this.out);
+        if (config.isPrettyPrint()) {
+            generator.useDefaultPrettyPrinter();
+        }
+    }
+
+    @Override
+    public void writeHeader() throws IOException {
+        generator.writeStartObject();
+        generator.writeObjectFieldStart("metadata");
+        generator.writeStringField("generatedAt", LocalDateTime.now().toString());
+        generator.writeStringField("version", "1.0.0");
+        generator.writeEndObject();
+        generator.writeArrayFieldStart("differences");
+    }
+
+    @Override
+    protected void writeItem(int index, DiffItem item) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", item.getType().toJson());
+        if (config.isIncludePaths()) {
+            generator.writeStringField("path", item.getPath());
+            if (item.getFromPath() != null) {
+                generator.writeStringField("fromPath", item.getFromPath());
+            }
+        }
+        if (item.getOldValue() != null) {
+            generator.writeFieldName("oldValue");
+            generator.writeObject(item.getOldValue());
+        }
+        if (item.getNewValue() != null) {
+            generator.writeFieldName("newValue");
+            generator.writeObject(item.getNewValue());
+        }
+        generator.writeEndObject();
+    }
+
+    @Override
+    public void writeFooter(DiffResult result, Object left, Object right) throws IOException {
+        generator.writeEndArray();
+        if (config.isIncludeStats()) {
+            generator.writeObjectField("summary", result.getStats());
+        }
+        generator.writeBooleanField("truncated", result.isTruncated());
+        generator.writeBooleanField("timedOut", result.isTimedOut());
+        if (config.isIncludeOriginal()) {
+            generator.writeObjectFieldStart("originalData");
+            writeOriginalField("left", left);
+            writeOriginalField("right", right);
+            generator.writeEndObject();
+        }
+        generator.writeEndObject();
+    }
+
+    @Override
+    public void writeError(String message) throws IOException {
+        generator.writeEndArray();
+        generator.writeStringField("error", message);
+        generator.writeEndObject();
+    }
+
+    @Override
+    protected void flush() throws IOException {
+        // 生成器的刷新不传给输出流，需要再刷新输出流
+        generator.flush();
+        super.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+        super.close();
+    }
+
+    /**
+     * 原始数据以JSON值写出，JSON文本先解析，无法解析时写出null
+     */
+    private void writeOriginalField(String name, Object input) throws IOException {
+        generator.writeFieldName(name);
+        if (input instanceof String) {
+            JsonNode tree;
+            try {
+                tree = objectMapper.readTree((String) input);
+            } catch (IOException e) {
+                tree = null;
+            }
+            if (tree == null || tree.isMissingNode()) {
+                generator.writeNull();
+            } else {
+                generator.writeTree(tree);
+            }
+        } else if (input instanceof StoredDocument) {
+            generator.writeTree(((StoredDocument) input).getTree());
+        } else {
+            generator.writeObject(input);
+        }
+    }
+}
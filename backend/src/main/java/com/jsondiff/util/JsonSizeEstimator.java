@@ -0,0 +1,51 @@
+package com.jsondiff.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * JSON值内存占用估算工具 - 用于按字节数限制容量的缓存
+ *
+ * @author JSON Diff Team
+ * @version 1.0.0
+ */
+public final class JsonSizeEstimator {
+
+    /**
+     * 每个节点的固定开销（对象头、字段和所在容器的引用）
+     */
+    private static final long NODE_SIZE = 64;
+
+    private JsonSizeEstimator() {
+    }
+
+    /**
+     * 估算值占用的字节数，容器节点按节点数量和字符串长度计算
+     */
+    public static long estimate(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof String) {
+            return 48 + ((String) value).length();
+        }
+        if (!(value instanceof JsonNode)) {
+            return NODE_SIZE;
+        }
+
+        long size = 0;
+        Deque<JsonNode> stack = new ArrayDeque<>();
+        stack.push((JsonNode) value);
+        while (!stack.isEmpty()) {
+            JsonNode node = stack.pop();
+            size += node.isTextual() ? NODE_SIZE + node.textValue().length() : NODE_SIZE;
+            if (node.isContainerNode()) {
+                for (JsonNode child : node) {
+                    stack.push(child);
+                }
+            }
+        }
+        return size;
+    }
+}
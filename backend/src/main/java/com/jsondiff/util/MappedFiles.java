@@ -0,0 +1,110 @@
+package com.jsondiff.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * 内存映射文件工具 - 按区域映射文件，直接在映射的内存上比较或读取，不复制到堆中的字符串
+ *
+ * 每次最多映射 REGION_SIZE 字节，超过2GB的文件也可以处理，且不会一次占用过多地址空间。
+ *
+ * @author JSON Diff Team
+ * @version 1.0.0
+ */
+public final class MappedFiles {
+
+    /**
+     * 单次映射的最大字节数
+     */
+    private static final long REGION_SIZE = 64L * 1024 * 1024;
+
+    private MappedFiles() {
+    }
+
+    /**
+     * 两个文件的内容是否逐字节相同，长度不同时不做映射
+     */
+    public static boolean contentEquals(FileChannel left, FileChannel right) throws IOException {
+        long size = left.size();
+        if (size != right.size()) {
+            return false;
+        }
+        for (long position = 0; position < size; position += REGION_SIZE) {
+            long length = Math.min(REGION_SIZE, size - position);
+            MappedByteBuffer leftRegion = left.map(FileChannel.MapMode.READ_ONLY, position, length);
+            MappedByteBuffer rightRegion = right.map(FileChannel.MapMode.READ_ONLY, position, length);
+            if (leftRegion.mismatch(rightRegion) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 以映射的内存为数据源的输入流，按顺序逐个区域映射
+     */
+    public static InputStream newInputStream(FileChannel channel) throws IOException {
+        return new MappedInputStream(channel);
+    }
+
+    /**
+     * 映射文件的输入流，不关闭底层的FileChannel
+     */
+    private static class MappedInputStream extends InputStream {
+        private final FileChannel channel;
+        private final long size;
+        private long mapped;
+        private ByteBuffer region;
+
+        MappedInputStream(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+            this.region = ByteBuffer.allocate(0);
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!ensureRegion()) {
+                return -1;
+            }
+            return region.get() & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (!ensureRegion()) {
+                return -1;
+            }
+            int count = Math.min(length, region.remaining());
+            region.get(buffer, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(Integer.MAX_VALUE, region.remaining() + size - mapped);
+        }
+
+        /**
+         * 当前区域读完时映射下一个区域，文件结束时返回false
+         */
+        private boolean ensureRegion() throws IOException {
+            if (region.hasRemaining()) {
+                return true;
+            }
+            if (mapped >= size) {
+                return false;
+            }
+            long length = Math.min(REGION_SIZE, size - mapped);
+            region = channel.map(FileChannel.MapMode.READ_ONLY, mapped, length);
+            mapped += length;
+            return true;
+        }
+    }
+}
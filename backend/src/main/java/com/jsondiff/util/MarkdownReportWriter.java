@@ -0,0 +1,78 @@
+package com.jsondiff.util;
+
+import com.jsondiff.model.DiffItem;
+import com.jsondiff.model.DiffResult;
+import com.jsondiff.model.DiffStats;
+import com.jsondiff.model.ExportConfig;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Markdown差异报告输出器
+ *
+ * @author JSON Diff Team
+ * @version 1.0.0
+ */
+public class MarkdownReportWriter extends ReportWriter {
+
+    public MarkdownReportWriter(OutputStream out, ExportConfig config) throws IOException {
+        super(out, config);
+    }
+
+    @Override
+    public void writeHeader() throws IOException {
+        out.write("# JSON 差异报告\n\n**生成时间**: " + now() + "\n\n## 📋 差异详情\n\n");
+    }
+
+    @Override
+    protected void writeItem(int index, DiffItem item) throws IOException {
+        out.write("### " + index + ". " + pathOf(item) + "\n\n");
+        out.write("**操作类型**: `" + item.getType().name() + "`\n\n");
+        if (item.getFromPath() != null && config.isIncludePaths()) {
+            out.write("**原位置**: " + item.getFromPath() + "\n\n");
+        }
+        if (item.getOldValue() != null) {
+            writeBlock("原值", item.getOldValue());
+        }
+        if (item.getNewValue() != null) {
+            writeBlock("新值", item.getNewValue());
+        }
+        out.write("---\n\n");
+    }
+
+    @Override
+    public void writeFooter(DiffResult result, Object left, Object right) throws IOException {
+        if (result.isTruncated() || result.isTimedOut()) {
+            out.write("> ⚠️ " + (result.isTimedOut() ? "对比超时" : "差异数量达到上限") + "，报告不完整\n\n");
+        }
+        if (config.isIncludeStats()) {
+            DiffStats stats = result.getStats();
+            out.write("## 📊 统计信息\n\n| 类型 | 数量 |\n|------|------|\n");
+            out.write("| 新增 | " + stats.getAdded() + " 项 |\n| 删除 | " + stats.getRemoved() + " 项 |\n");
+            out.write("| 修改 | " + stats.getModified() + " 项 |\n");
+            if (stats.getMoved() > 0) {
+                out.write("| 移动 | " + stats.getMoved() + " 项 |\n");
+            }
+            out.write("| **总计** | **" + stats.getTotal() + " 项** |\n\n");
+        }
+        if (config.isIncludeOriginal()) {
+            out.write("## 📄 原始数据对比\n\n### 源数据 (Left)\n```json\n");
+            writeOriginal(left, out);
+            out.write("\n```\n\n### 目标数据 (Right)\n```json\n");
+            writeOriginal(right, out);
+            out.write("\n```\n\n");
+        }
+        out.write("*由 JSON Diff 工具生成*\n");
+    }
+
+    @Override
+    public void writeError(String message) throws IOException {
+        out.write("> ❌ 导出失败: " + message + "\n");
+    }
+
+    private void writeBlock(String label, Object value) throws IOException {
+        out.write("**" + label + "**:\n```json\n");
+        writeValue(value, out, config.isPrettyPrint());
+        out.write("\n```\n\n");
+    }
+}
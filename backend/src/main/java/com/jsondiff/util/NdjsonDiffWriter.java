@@ -0,0 +1,88 @@
+package com.jsondiff.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.jsondiff.model.DiffItem;
+import com.jsondiff.model.DiffResult;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * NDJSON差异输出器 - 每发现一个差异项就写出一行JSON，最后写出统计信息行
+ *
+ * @author JSON Diff Team
+ * @version 1.0.0
+ */
+public class NdjsonDiffWriter implements Consumer<DiffItem>, Closeable {
+
+    /**
+     * 每写出多少行刷新一次输出流
+     */
+    private static final int FLUSH_INTERVAL = 256;
+
+    private final ObjectWriter writer;
+    private final JsonGenerator generator;
+    private int pending;
+
+    /**
+     * 构造函数
+     */
+    public NdjsonDiffWriter(OutputStream out) throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        this.writer = objectMapper.writer()
+                .without(SerializationFeature.INDENT_OUTPUT)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n");
+        this.generator = writer.createGenerator(out);
+    }
+
+    /**
+     * 写出一个差异项
+     */
+    @Override
+    public void accept(DiffItem diff) {
+        try {
+            writer.writeValue(generator, diff);
+            // 首行立即刷新，尽快返回首字节
+            if (pending++ % FLUSH_INTERVAL == 0) {
+                generator.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 写出统计信息行
+     */
+    public void writeSummary(DiffResult result) throws IOException {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("stats", result.getStats());
+        summary.put("truncated", result.isTruncated());
+        summary.put("timedOut", result.isTimedOut());
+        summary.put("duration", result.getDuration());
+        writer.writeValue(generator, summary);
+    }
+
+    /**
+     * 写出错误信息行
+     */
+    public void writeError(String message) throws IOException {
+        Map<String, Object> error = new LinkedHashMap<>();
+        error.put("error", message);
+        writer.writeValue(generator, error);
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.writeRaw('\n');
+        generator.close();
+    }
+}
@@ -0,0 +1,265 @@
+package com.jsondiff.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.util.Arrays;
+
+/**
+ * JSON路径栈 - 比较过程中逐层压入键名或下标
+ *
+ * 遍历时只做数组写入，不拼接字符串；只有在输出差异项时才渲染为 $.a.b[0] 形式的路径。
+ * 深度、键名和父路径的计算方式与按 "." 拆分渲染后的路径一致。
+ *
+ * @author JSON Diff Team
+ * @version 1.0.0
+ */
+public class PathStack {
+
+    private static final String ROOT = "$";
+
+    private String[] keys;
+    private int[] indexes;
+    private int size;
+    private int keyCount;
+
+    /**
+     * 构造函数 - 根路径
+     */
+    public PathStack() {
+        this.keys = new String[16];
+        this.indexes = new int[16];
+    }
+
+    /**
+     * 复制路径栈，用于在其他线程上继续遍历
+     */
+    public PathStack copy() {
+        PathStack copy = new PathStack();
+        copy.keys = Arrays.copyOf(keys, keys.length);
+        copy.indexes = Arrays.copyOf(indexes, indexes.length);
+        copy.size = size;
+        copy.keyCount = keyCount;
+        return copy;
+    }
+
+    /**
+     * 替换为另一个路径栈的内容
+     */
+    public void set(PathStack other) {
+        clear();
+        if (keys.length < other.size) {
+            keys = new String[other.keys.length];
+            indexes = new int[other.indexes.length];
+        }
+        System.arraycopy(other.keys, 0, keys, 0, other.size);
+        System.arraycopy(other.indexes, 0, indexes, 0, other.size);
+        size = other.size;
+        keyCount = other.keyCount;
+    }
+
+    /**
+     * 压入对象键名
+     */
+    public void push(String key) {
+        ensureCapacity();
+        keys[size] = key;
+        size++;
+        keyCount++;
+    }
+
+    /**
+     * 压入数组下标
+     */
+    public void push(int index) {
+        ensureCapacity();
+        keys[size] = null;
+        indexes[size] = index;
+        size++;
+    }
+
+    /**
+     * 弹出最后一段
+     */
+    public void pop() {
+        size--;
+        if (keys[size] != null) {
+            keys[size] = null;
+            keyCount--;
+        }
+    }
+
+    /**
+     * 清空到根路径
+     */
+    public void clear() {
+        Arrays.fill(keys, 0, size, null);
+        size = 0;
+        keyCount = 0;
+    }
+
+    /**
+     * 路径段数量（不含根）
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 路径深度，根路径为1，每个键名加1
+     */
+    public int depth() {
+        return keyCount + 1;
+    }
+
+    /**
+     * 渲染为完整路径
+     */
+    public String render() {
+        return render(size);
+    }
+
+    /**
+     * 渲染为路径模式，数组下标统一写作[*]，如 $.a[0].b -> $.a[*].b
+     */
+    public String renderPattern() {
+        StringBuilder builder = new StringBuilder(ROOT);
+        for (int i = 0; i < size; i++) {
+            if (keys[i] != null) {
+                builder.append('.').append(keys[i]);
+            } else {
+                builder.append("[*]");
+            }
+        }
+        return builder.toString();
+    }
+    
+    /**
+     * 获取最后一个键名，其后的数组下标一并保留，如 $.a.b[0] -> b[0]
+     */
+    public String lastKey() {
+        int last = lastKeyPosition();
+        if (last < 0) {
+            return render();
+        }
+        StringBuilder builder = new StringBuilder(keys[last]);
+        appendRange(builder, last + 1, size);
+        return builder.toString();
+    }
+
+    /**
+     * 各段在渲染后路径中的起点（'.'或'['的位置）。键名不转义，只有键名含'.'或'['时
+     * 路径才无法按字符拆分，此时返回各段起点，否则返回null
+     */
+    public int[] segmentStarts() {
+        boolean ambiguous = false;
+        for (int i = 0; i < size && !ambiguous; i++) {
+            ambiguous = keys[i] != null && (keys[i].indexOf('.') >= 0 || keys[i].indexOf('[') >= 0);
+        }
+        if (!ambiguous) {
+            return null;
+        }
+        int[] starts = new int[size];
+        int position = ROOT.length();
+        for (int i = 0; i < size; i++) {
+            starts[i] = position;
+            position += keys[i] != null ? keys[i].length() + 1 : Integer.toString(indexes[i]).length() + 2;
+        }
+        return starts;
+    }
+
+    /**
+     * 获取父路径，即最后一个键名之前的部分，没有键名时为空
+     */
+    public String parentPath() {
+        int last = lastKeyPosition();
+        return last < 0 ? "" : render(last);
+    }
+
+    /**
+     * 渲染为JSON Pointer（RFC 6901），如 $.a.b[0] -> /a/b/0
+     */
+    public String toPointer() {
+        StringBuilder pointer = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            pointer.append('/');
+            String key = keys[i];
+            if (key == null) {
+                pointer.append(indexes[i]);
+                continue;
+            }
+            for (int j = 0; j < key.length(); j++) {
+                char c = key.charAt(j);
+                if (c == '~') {
+                    pointer.append("~0");
+                } else if (c == '/') {
+                    pointer.append("~1");
+                } else {
+                    pointer.append(c);
+                }
+            }
+        }
+        return pointer.toString();
+    }
+
+    /**
+     * 在树中查找当前路径指向的节点，不存在时返回null
+     */
+    public JsonNode locate(JsonNode root) {
+        JsonNode node = root;
+        for (int i = 0; i < size && node != null; i++) {
+            node = keys[i] != null ? node.get(keys[i]) : node.get(indexes[i]);
+        }
+        return node;
+    }
+
+    @Override
+    public String toString() {
+        return render();
+    }
+
+    /**
+     * 渲染前count段路径
+     */
+    private String render(int count) {
+        if (count == 0) {
+            return ROOT;
+        }
+        StringBuilder builder = new StringBuilder(ROOT);
+        appendRange(builder, 0, count);
+        return builder.toString();
+    }
+
+    /**
+     * 追加[from, to)范围内的路径段
+     */
+    private void appendRange(StringBuilder builder, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (keys[i] != null) {
+                builder.append('.').append(keys[i]);
+            } else {
+                builder.append('[').append(indexes[i]).append(']');
+            }
+        }
+    }
+
+    /**
+     * 最后一个键名所在位置，没有键名时返回-1
+     */
+    private int lastKeyPosition() {
+        for (int i = size - 1; i >= 0; i--) {
+            if (keys[i] != null) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 确保容量足够压入新的一段
+     */
+    private void ensureCapacity() {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            indexes = Arrays.copyOf(indexes, size * 2);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.jsondiff.util;
+
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.jsondiff.model.DiffItem;
+import com.jsondiff.model.DiffResult;
+import com.jsondiff.model.ExportConfig;
+import com.jsondiff.model.StoredDocument;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.function.Consumer;
+
+/**
+ * 差异报告输出器 - 差异项在发现时逐个写出，内存占用与差异数量无关
+ *
+ * 统计信息在比较结束后才知道，各格式都在报告末尾写出；HTML报告通过样式显示在差异明细之前。
+ *
+ * @author JSON Diff Team
+ * @version 1.0.0
+ */
+public abstract class ReportWriter implements Consumer<DiffItem>, Closeable {
+
+    /**
+     * 每写出多少个差异项刷新一次输出流
+     */
+    private static final int FLUSH_INTERVAL = 256;
+
+    protected static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    protected final Writer out;
+    protected final ExportConfig config;
+    protected final ObjectMapper objectMapper;
+    protected final ObjectWriter valueWriter;
+    private int count;
+
+    protected ReportWriter(OutputStream out, ExportConfig config) throws IOException {
+        this.out = new BufferedWriter(new OutputStreamWriter(out, charsetOf(config.getEncoding())));
+        this.config = config;
+        // 值直接写入输出流，不能关闭输出流，也不在每个值之后刷新；每次写值结束时关闭生成器，
+        // 生成器的刷新不传给输出流，只按FLUSH_INTERVAL刷新
+        this.objectMapper = JsonMapper.builder()
+                .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+                .disable(StreamWriteFeature.FLUSH_PASSED_TO_STREAM)
+                .disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .build();
+        this.valueWriter = config.isPrettyPrint() ? objectMapper.writerWithDefaultPrettyPrinter() : objectMapper.writer();
+        if ("utf-8-bom".equalsIgnoreCase(config.getEncoding())) {
+            this.out.write('\uFEFF');
+        }
+    }
+
+    /**
+     * 按配置的格式创建输出器
+     */
+    public static ReportWriter create(OutputStream out, ExportConfig config) throws IOException {
+        switch (config.getFormat()) {
+            case MARKDOWN:
+                return new MarkdownReportWriter(out, config);
+            case CSV:
+                return new CsvReportWriter(out, config);
+            case JSON:
+                return new JsonReportWriter(out, config);
+            default:
+                return new HtmlReportWriter(out, config);
+        }
+    }
+
+    /**
+     * 写出一个差异项
+     */
+    @Override
+    public void accept(DiffItem item) {
+        try {
+            writeItem(++count, item);
+            // 首项立即刷新，尽快返回首字节
+            if (count % FLUSH_INTERVAL == 1) {
+                flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 写出报告开头
+     */
+    public abstract void writeHeader() throws IOException;
+
+    /**
+     * 写出报告末尾：统计信息和原始数据
+     *
+     * @param left  左侧输入（JSON文本、树模型或已上传文档），不包含原始数据时不使用
+     * @param right 右侧输入
+     */
+    public abstract void writeFooter(DiffResult result, Object left, Object right) throws IOException;
+
+    /**
+     * 比较失败时写出错误信息并结束报告
+     */
+    public abstract void writeError(String message) throws IOException;
+
+    /**
+     * 写出一个差异项，序号从1开始
+     */
+    protected abstract void writeItem(int index, DiffItem item) throws IOException;
+
+    protected void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    /**
+     * 路径列，不包含路径时隐藏
+     */
+    protected String pathOf(DiffItem item) {
+        return config.isIncludePaths() ? item.getPath() : "(路径已隐藏)";
+    }
+
+    /**
+     * 以JSON写出值
+     */
+    protected void writeValue(Object value, Writer target, boolean pretty) throws IOException {
+        (pretty ? valueWriter : objectMapper.writer()).writeValue(target, value);
+    }
+
+    /**
+     * 写出原始数据，JSON文本原样输出，其他输入序列化为JSON
+     */
+    protected void writeOriginal(Object input, Writer target) throws IOException {
+        if (input == null) {
+            return;
+        }
+        if (input instanceof String) {
+            target.write((String) input);
+        } else if (input instanceof StoredDocument) {
+            writeValue(((StoredDocument) input).getTree(), target, config.isPrettyPrint());
+        } else {
+            writeValue(input, target, config.isPrettyPrint());
+        }
+    }
+
+    protected static String now() {
+        return LocalDateTime.now().format(TIME_FORMAT);
+    }
+
+    private static Charset charsetOf(String encoding) {
+        return "gbk".equalsIgnoreCase(encoding) ? Charset.forName("GBK") : StandardCharsets.UTF_8;
+    }
+}
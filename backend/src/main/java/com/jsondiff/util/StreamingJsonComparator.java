@@ -0,0 +1,272 @@
+package com.jsondiff.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.jsondiff.model.CompareSettings;
+import com.jsondiff.model.DiffItem;
+import com.jsondiff.model.DiffResult;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 流式JSON比较器 - 基于Token流的逐层对比
+ *
+ * 同步推进左右两个JsonParser，只有在出现差异或键顺序不一致时才把对应的子树
+ * 读入内存，交给JsonComparator处理，因此内存占用取决于差异规模而不是文档大小。
+ * 差异项在发现时立即输出，输出顺序与树模型比较不同：对象中键顺序一致的字段按读取顺序输出，
+ * 未配对的删除和新增键在对象结束时输出，数组长度变化在数组结束时输出。差异项的集合与树模型相同。
+ *
+ * @author JSON Diff Team
+ * @version 1.0.0
+ */
+public class StreamingJsonComparator {
+
+    private final ObjectMapper objectMapper;
+    private final CompareSettings settings;
+    private final JsonComparator delegate;
+
+    /**
+     * 构造函数
+     */
+    public StreamingJsonComparator(CompareSettings settings) {
+        this(settings, null);
+    }
+
+    /**
+     * 构造函数 - 差异项在发现时立即交给监听器，不在内存中保留
+     */
+    public StreamingJsonComparator(CompareSettings settings, Consumer<DiffItem> listener) {
+        this.objectMapper = ExactNumbers.newMapper();
+        this.settings = settings != null ? settings : new CompareSettings();
+        this.delegate = new JsonComparator(this.settings, listener);
+    }
+
+    /**
+     * 设置单次比较的超时时间（毫秒），0表示不限制
+     */
+    public void setTimeout(long timeout) {
+        delegate.setTimeout(timeout);
+    }
+    
+    /**
+     * 取消比较，可从其他线程调用；比较开始前调用时该次比较也立即结束，取消后不应再使用
+     */
+    public void cancel() {
+        delegate.cancel();
+    }
+    
+    /**
+     * 比较两个JSON Token流
+     */
+    public DiffResult compare(JsonParser left, JsonParser right) {
+        delegate.reset();
+
+        try {
+            if (left.getCodec() == null) {
+                left.setCodec(objectMapper);
+            }
+            if (right.getCodec() == null) {
+                right.setCodec(objectMapper);
+            }
+
+            left.nextToken();
+            right.nextToken();
+            compareValues(left, right, 0);
+
+            // 流式对比不保留原始数据
+            return delegate.buildResult(null, null);
+
+        } catch (IOException e) {
+            throw new RuntimeException("JSON流式比较失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 比较两侧当前位置的值，结束时两侧都停在该值的最后一个Token上
+     */
+    private void compareValues(JsonParser left, JsonParser right, int depth) throws IOException {
+        JsonToken leftToken = left.currentToken();
+        JsonToken rightToken = right.currentToken();
+
+        // 处理空文档
+        if (leftToken == null || rightToken == null) {
+            delegate.compareNodes(readLeft(left), readRight(right), depth);
+            return;
+        }
+
+        // 检查深度限制
+        if (depth >= settings.getMaxDepth()) {
+            left.skipChildren();
+            right.skipChildren();
+            return;
+        }
+        
+        // 差异数量达到上限、超时或被取消后不再读取，剩余输入直接放弃
+        if (delegate.isStopped()) {
+            return;
+        }
+
+        if (leftToken == JsonToken.START_OBJECT && rightToken == JsonToken.START_OBJECT) {
+            compareObjects(left, right, depth + 1);
+            return;
+        }
+
+        if (leftToken == JsonToken.START_ARRAY && rightToken == JsonToken.START_ARRAY && !delegate.requiresArrayTree()) {
+            compareArrays(left, right, depth + 1);
+            return;
+        }
+
+        // 类型不同、标量值或需要整体匹配的数组，读取为节点后按树模型比较
+        delegate.compareNodes(readLeft(left), readRight(right), depth);
+    }
+
+    /**
+     * 比较对象，键顺序一致时逐个字段流式比较，不一致的字段暂存等待配对
+     */
+    private void compareObjects(JsonParser left, JsonParser right, int depth) throws IOException {
+        PathStack path = delegate.path();
+        Map<String, JsonNode> pendingLeft = null;
+        Map<String, JsonNode> pendingRight = null;
+        boolean leftOpen = true;
+        boolean rightOpen = true;
+
+        while (leftOpen || rightOpen) {
+            if (delegate.isStopped()) {
+                return;
+            }
+            String leftKey = leftOpen ? left.nextFieldName() : null;
+            String rightKey = rightOpen ? right.nextFieldName() : null;
+            leftOpen = leftKey != null;
+            rightOpen = rightKey != null;
+
+            // 键一致，直接流式比较
+            if (leftOpen && rightOpen && leftKey.equals(rightKey)) {
+                left.nextToken();
+                right.nextToken();
+                path.push(leftKey);
+                compareValues(left, right, depth);
+                path.pop();
+                continue;
+            }
+
+            if (leftOpen) {
+                left.nextToken();
+                JsonNode match = pendingRight != null ? pendingRight.remove(leftKey) : null;
+                if (match != null) {
+                    path.push(leftKey);
+                    delegate.compareNodes(readLeft(left), match, depth);
+                    path.pop();
+                } else {
+                    if (pendingLeft == null) {
+                        pendingLeft = new LinkedHashMap<>();
+                    }
+                    pendingLeft.put(leftKey, readLeft(left));
+                }
+            }
+
+            if (rightOpen) {
+                right.nextToken();
+                JsonNode match = pendingLeft != null ? pendingLeft.remove(rightKey) : null;
+                if (match != null) {
+                    path.push(rightKey);
+                    delegate.compareNodes(match, readRight(right), depth);
+                    path.pop();
+                } else {
+                    if (pendingRight == null) {
+                        pendingRight = new LinkedHashMap<>();
+                    }
+                    pendingRight.put(rightKey, readRight(right));
+                }
+            }
+        }
+
+        // 处理删除的键
+        if (pendingLeft != null) {
+            for (Map.Entry<String, JsonNode> entry : pendingLeft.entrySet()) {
+                path.push(entry.getKey());
+                delegate.reportRemoved(entry.getValue());
+                path.pop();
+            }
+        }
+
+        // 处理新增的键
+        if (pendingRight != null) {
+            for (Map.Entry<String, JsonNode> entry : pendingRight.entrySet()) {
+                path.push(entry.getKey());
+                delegate.reportAdded(entry.getValue());
+                path.pop();
+            }
+        }
+    }
+
+    /**
+     * 按下标同步比较数组元素
+     */
+    private void compareArrays(JsonParser left, JsonParser right, int depth) throws IOException {
+        PathStack path = delegate.path();
+        int leftSize = 0;
+        int rightSize = 0;
+        boolean leftOpen = true;
+        boolean rightOpen = true;
+
+        while (leftOpen || rightOpen) {
+            if (delegate.isStopped()) {
+                return;
+            }
+            leftOpen = leftOpen && left.nextToken() != JsonToken.END_ARRAY;
+            rightOpen = rightOpen && right.nextToken() != JsonToken.END_ARRAY;
+
+            if (leftOpen && rightOpen) {
+                path.push(leftSize);
+                compareValues(left, right, depth);
+                path.pop();
+                leftSize++;
+                rightSize++;
+            } else if (rightOpen) {
+                // 处理新增的元素
+                path.push(rightSize);
+                delegate.reportAdded(readTree(right));
+                path.pop();
+                rightSize++;
+            } else if (leftOpen) {
+                // 处理删除的元素
+                path.push(leftSize);
+                delegate.reportRemoved(readTree(left));
+                path.pop();
+                leftSize++;
+            }
+        }
+
+        // 比较数组长度变化
+        delegate.reportArrayLength(leftSize, rightSize);
+    }
+
+    /**
+     * 读取左侧当前位置的值，启用结构哈希时同时计算子树哈希
+     */
+    private JsonNode readLeft(JsonParser parser) throws IOException {
+        return delegate.indexLeft(readTree(parser));
+    }
+
+    /**
+     * 读取右侧当前位置的值，启用结构哈希时同时计算子树哈希
+     */
+    private JsonNode readRight(JsonParser parser) throws IOException {
+        return delegate.indexRight(readTree(parser));
+    }
+
+    /**
+     * 将当前位置的值读取为JsonNode
+     */
+    private JsonNode readTree(JsonParser parser) throws IOException {
+        if (parser.currentToken() == null) {
+            return NullNode.getInstance();
+        }
+        return parser.readValueAsTree();
+    }
+}
@@ -0,0 +1,214 @@
+package com.jsondiff.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.jsondiff.model.CompareSettings;
+import java.math.BigDecimal;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * 结构哈希计算器 - 为一份JSON文档中的每个容器节点预先计算64位结构哈希
+ *
+ * 哈希按比较设置做与比较器相同的归一化（忽略首尾空白、忽略大小写、忽略数组顺序），对象字段与顺序无关。
+ * 哈希不同的子树需要逐键比较；哈希相同时比较器只需逐节点确认内容相同即可跳过，无需逐键比较和输出。
+ *
+ * @author JSON Diff Team
+ * @version 1.0.0
+ */
+public class StructuralHasher {
+
+    private static final long NULL_TAG = 0x6a09e667f3bcc909L;
+    private static final long TRUE_TAG = 0xbb67ae8584caa73bL;
+    private static final long FALSE_TAG = 0x3c6ef372fe94f82bL;
+    private static final long NUMBER_TAG = 0xa54ff53a5f1d36f1L;
+    private static final long STRING_TAG = 0x510e527fade682d1L;
+    private static final long ARRAY_TAG = 0x9b05688c2b3e6c1fL;
+    private static final long OBJECT_TAG = 0x1f83d9abfb41bd6bL;
+
+    private final CompareSettings settings;
+    private final Map<JsonNode, Long> hashes;
+
+    /**
+     * 构造函数
+     */
+    public StructuralHasher(CompareSettings settings) {
+        this.settings = settings != null ? settings : new CompareSettings();
+        this.hashes = new IdentityHashMap<>();
+    }
+
+    /**
+     * 计算并记录节点及其所有容器子节点的哈希
+     */
+    public long index(JsonNode node) {
+        if (node == null || !node.isContainerNode()) {
+            return hashValue(node);
+        }
+
+        Long cached = hashes.get(node);
+        if (cached != null) {
+            return cached;
+        }
+
+        long hash = node.isObject() ? hashObject(node) : hashArray(node);
+        hashes.put(node, hash);
+        return hash;
+    }
+
+    /**
+     * 获取已记录的容器节点哈希，未记录时返回null
+     */
+    public Long get(JsonNode node) {
+        return hashes.get(node);
+    }
+
+    /**
+     * 已记录哈希的容器节点数量
+     */
+    public int size() {
+        return hashes.size();
+    }
+
+    /**
+     * 对象哈希，字段哈希相加使结果与字段顺序无关
+     */
+    private long hashObject(JsonNode node) {
+        long sum = 0;
+        Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            sum += mix(hashChars(field.getKey(), 0, field.getKey().length(), true) ^ Long.rotateLeft(index(field.getValue()), 29));
+        }
+        return mix(OBJECT_TAG ^ sum ^ node.size());
+    }
+
+    /**
+     * 数组哈希，按元素顺序累积；忽略顺序时元素哈希相加，与顺序无关
+     */
+    private long hashArray(JsonNode node) {
+        if (settings.isIgnoreOrder()) {
+            long sum = 0;
+            for (JsonNode element : node) {
+                sum += mix(index(element));
+            }
+            return mix(ARRAY_TAG ^ sum ^ node.size());
+        }
+        
+        long hash = ARRAY_TAG ^ node.size();
+        for (JsonNode element : node) {
+            hash = mix(hash ^ index(element)) + 0x9e3779b97f4a7c15L;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * 标量值哈希
+     */
+    private long hashValue(JsonNode node) {
+        if (node == null || node.isNull() || node.isMissingNode()) {
+            return NULL_TAG;
+        }
+        if (node.isBoolean()) {
+            return node.booleanValue() ? TRUE_TAG : FALSE_TAG;
+        }
+        if (node.isNumber()) {
+            return mix(NUMBER_TAG ^ hashNumber(node));
+        }
+        if (node.isTextual()) {
+            return mix(STRING_TAG ^ hashString(node.textValue()));
+        }
+        return mix(STRING_TAG ^ hashString(node.toString()));
+    }
+
+    /**
+     * 数值哈希，与比较器的精确比较一致：数值相等的整数、浮点数和高精度小数得到相同的哈希。
+     * 整数值按long取值，其余按去掉末尾0的精确十进制值取值（浮点数按其二进制精确值）
+     */
+    private long hashNumber(JsonNode node) {
+        if (node.isIntegralNumber() && !node.isBigInteger()) {
+            return node.longValue();
+        }
+        if (node.isFloatingPointNumber() && !node.isBigDecimal()) {
+            double value = node.doubleValue();
+            if (value == Math.rint(value) && value >= -0x1p63 && value < 0x1p63) {
+                return (long) value;
+            }
+            if (!Double.isFinite(value)) {
+                return Double.doubleToLongBits(value);
+            }
+            return hashDecimal(new BigDecimal(value));
+        }
+        return hashDecimal(node.decimalValue());
+    }
+
+    /**
+     * 十进制数值哈希，long范围内的整数与对应的long哈希相同
+     */
+    private static long hashDecimal(BigDecimal value) {
+        BigDecimal stripped = value.signum() == 0 ? BigDecimal.ZERO : value.stripTrailingZeros();
+        if (stripped.scale() <= 0 && stripped.precision() - stripped.scale() <= 19) {
+            try {
+                return stripped.longValueExact();
+            } catch (ArithmeticException e) {
+                // 超出long范围，按十进制表示计算
+            }
+        }
+        // 对完整的未缩放值逐字节计算64位哈希，BigInteger.hashCode()只有32位，容易碰撞
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : stripped.unscaledValue().toByteArray()) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash ^ mix(stripped.scale()));
+    }
+
+    /**
+     * 字符串哈希，按设置忽略首尾空白和大小写
+     */
+    private long hashString(String value) {
+        int start = 0;
+        int end = value.length();
+        if (settings.isIgnoreWhitespace()) {
+            while (start < end && value.charAt(start) <= ' ') {
+                start++;
+            }
+            while (end > start && value.charAt(end - 1) <= ' ') {
+                end--;
+            }
+        }
+        return hashChars(value, start, end, settings.isCaseSensitive());
+    }
+
+    /**
+     * 字符区间的FNV-1a哈希
+     */
+    private static long hashChars(String value, int start, int end, boolean caseSensitive) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (!caseSensitive) {
+                // 按码点折叠大小写，与比较器使用的String.regionMatches(true, ...)一致
+                int codePoint = value.codePointAt(i);
+                if (Character.isSupplementaryCodePoint(codePoint)) {
+                    i++;
+                    hash ^= Character.toLowerCase(Character.toUpperCase(codePoint));
+                    hash *= 0x100000001b3L;
+                    continue;
+                }
+                c = Character.toLowerCase(Character.toUpperCase(c));
+            }
+            hash ^= c;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * 64位混合函数（SplitMix64）
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
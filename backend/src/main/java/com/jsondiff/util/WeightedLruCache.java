@@ -0,0 +1,158 @@
+package com.jsondiff.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * 按权重限制容量的LRU缓存 - 权重通常为估算的字节数，总权重超过上限时淘汰最久未访问的条目
+ *
+ * 所有操作在同一把锁下执行，适合读多写少、单次操作很短的场景。
+ *
+ * @author JSON Diff Team
+ * @version 1.0.0
+ */
+public class WeightedLruCache<K, V> {
+
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private final ToLongFunction<V> weigher;
+    private final long maxWeight;
+    private long weight;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * 构造函数
+     *
+     * @param maxWeight 总权重上限
+     * @param weigher   条目权重的计算函数
+     */
+    public WeightedLruCache(long maxWeight, ToLongFunction<V> weigher) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.weigher = weigher;
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * 获取缓存值，不存在时返回null
+     */
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value;
+    }
+
+    /**
+     * 放入缓存，单个条目权重超过上限时不缓存
+     *
+     * @return 是否已缓存
+     */
+    public boolean put(K key, V value) {
+        // 权重计算可能较慢，在锁外完成
+        long entryWeight = Math.max(1, weigher.applyAsLong(value));
+        if (entryWeight > maxWeight) {
+            return false;
+        }
+
+        synchronized (this) {
+            Entry<V> previous = entries.put(key, new Entry<>(value, entryWeight));
+            if (previous != null) {
+                weight -= previous.weight;
+            }
+            weight += entryWeight;
+
+            Iterator<Entry<V>> eldest = entries.values().iterator();
+            while (weight > maxWeight && eldest.hasNext()) {
+                weight -= eldest.next().weight;
+                eldest.remove();
+                evictions++;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 条目的权重变化后重新计算，总权重超过上限时淘汰最久未访问的其他条目。
+     * 键已被淘汰或已对应其他值时不做任何事；新权重超过上限时移除该条目
+     *
+     * @return 条目是否仍在缓存中
+     */
+    public synchronized boolean reweigh(K key, V value) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null || entry.value != value) {
+            return false;
+        }
+        long entryWeight = Math.max(1, weigher.applyAsLong(value));
+        if (entryWeight > maxWeight) {
+            entries.remove(key);
+            weight -= entry.weight;
+            evictions++;
+            return false;
+        }
+
+        // get已把条目移到最新位置，淘汰时最后才会轮到它
+        entries.put(key, new Entry<>(value, entryWeight));
+        weight += entryWeight - entry.weight;
+        Iterator<Entry<V>> eldest = entries.values().iterator();
+        while (weight > maxWeight && eldest.hasNext()) {
+            weight -= eldest.next().weight;
+            eldest.remove();
+            evictions++;
+        }
+        return true;
+    }
+
+    /**
+     * 移除缓存值
+     *
+     * @return 被移除的值，不存在时返回null
+     */
+    public synchronized V remove(K key) {
+        Entry<V> entry = entries.remove(key);
+        if (entry == null) {
+            return null;
+        }
+        weight -= entry.weight;
+        return entry.value;
+    }
+
+    /**
+     * 清空缓存，统计信息保留
+     */
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    /**
+     * 获取统计信息
+     */
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long requests = hits + misses;
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("hitRate", requests == 0 ? 0.0 : (double) hits / requests);
+        stats.put("evictions", evictions);
+        stats.put("size", entries.size());
+        stats.put("weight", weight);
+        stats.put("maxWeight", maxWeight);
+        return stats;
+    }
+
+    private static class Entry<V> {
+        private final V value;
+        private final long weight;
+
+        Entry(V value, long weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+}
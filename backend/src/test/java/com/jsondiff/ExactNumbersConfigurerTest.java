@@ -0,0 +1,69 @@
+package com.jsondiff;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jsondiff.model.CompareRequest;
+import com.jsondiff.service.ComputeAdmission;
+import com.jsondiff.service.DiffResultCache;
+import com.jsondiff.service.DocumentStore;
+import com.jsondiff.service.JsonDiffService;
+import com.jsondiff.service.MemoryBudget;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpInputMessage;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+/**
+ * 精确数值解析范围测试 - 只有对比请求体和对比输入按BigDecimal解析，其他请求体保持默认
+ */
+class ExactNumbersConfigurerTest {
+
+    private static final String BODY = "{\"left\":{\"a\":0.1000000000000000001},\"price\":1.50}";
+
+    @Test
+    void onlyCompareRequestsParseExactly() throws Exception {
+        MappingJackson2HttpMessageConverter converter = new MappingJackson2HttpMessageConverter(new ObjectMapper());
+        List<HttpMessageConverter<?>> converters = new ArrayList<>(List.of(converter));
+        new JsonDiffApplication().exactNumbersConfigurer().extendMessageConverters(converters);
+
+        CompareRequest compare = (CompareRequest) converter.read(CompareRequest.class, message());
+        Map<?, ?> left = (Map<?, ?>) compare.get("left");
+        assertEquals(new BigDecimal("0.1000000000000000001"), left.get("a"));
+
+        Map<?, ?> other = (Map<?, ?>) converter.read(Map.class, message());
+        assertInstanceOf(Double.class, other.get("price"));
+        assertEquals(1.5, other.get("price"));
+    }
+
+    @Test
+    void compareStringsParseExactlyWithDefaultMapper() {
+        ObjectMapper mapper = new ObjectMapper();
+        JsonDiffService service = new JsonDiffService(mapper, new DiffResultCache(false, 0),
+                new DocumentStore(mapper, 1 << 20), new MemoryBudget(1 << 20, 1, 1, 1 << 20),
+                new ComputeAdmission(false, 1, 1, 1, 0), 30_000, 0);
+        Map<String, Object> request = new HashMap<>();
+        request.put("left", "{\"a\":0.1000000000000000001}");
+        request.put("right", "{\"a\":0.1}");
+        assertEquals(1, service.compare(request).getTotalDifferences());
+
+        // 压缩等接口仍使用全局ObjectMapper的默认解析
+        Map<String, Object> compress = new HashMap<>();
+        compress.put("data", "{\"price\":1.50}");
+        assertEquals("{\"price\":1.5}", service.compress(compress).get("compressed"));
+    }
+
+    private static MockHttpInputMessage message() {
+        MockHttpInputMessage message = new MockHttpInputMessage(BODY.getBytes(StandardCharsets.UTF_8));
+        message.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return message;
+    }
+}
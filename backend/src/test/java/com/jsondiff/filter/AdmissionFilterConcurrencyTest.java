@@ -0,0 +1,303 @@
+package com.jsondiff.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jsondiff.service.ComputeAdmission;
+import com.jsondiff.service.MemoryBudget;
+import jakarta.servlet.Filter;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 准入过滤器并发测试 - 多个请求同时经过过滤器链，检查并发上限和许可、预算的归还
+ */
+class AdmissionFilterConcurrencyTest {
+
+    private static final int REQUESTS = 24;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void computePermitsLimitConcurrentRequests() throws Exception {
+        ComputeAdmissionFilter admission = newAdmissionFilter(2, 1024, 1 << 20, 10_000);
+        SlowServlet servlet = new SlowServlet(20);
+
+        List<Integer> statuses = run(servlet, 1024, admission);
+
+        assertTrue(statuses.stream().allMatch(status -> status == 200), statuses.toString());
+        assertTrue(servlet.maxActive.get() <= 2, "并发数 " + servlet.maxActive.get());
+        assertEquals(REQUESTS, servlet.calls.get());
+    }
+
+    @Test
+    void largerRequestsTakeMorePermits() throws Exception {
+        ComputeAdmission permits = new ComputeAdmission(true, 4, 1024, 1 << 20, 10_000);
+        assertEquals(1, permits.weightOf(1500));
+        assertEquals(2, permits.weightOf(2048));
+        assertEquals(4, permits.weightOf(1 << 20));
+        assertEquals(4, permits.weightOf(-1));
+        ComputeAdmissionFilter admission = new ComputeAdmissionFilter(objectMapper, permits);
+
+        // 每个请求占两个许可，4个许可最多同时执行两个
+        SlowServlet servlet = new SlowServlet(20);
+        List<Integer> statuses = run(servlet, 2048, admission);
+
+        assertTrue(statuses.stream().allMatch(status -> status == 200), statuses.toString());
+        assertTrue(servlet.maxActive.get() <= 2, "并发数 " + servlet.maxActive.get());
+        assertEquals(REQUESTS, servlet.calls.get());
+    }
+
+    @Test
+    void sessionRequestsAreGuarded() {
+        ComputeAdmissionFilter admission = newAdmissionFilter(4, 1024, 1 << 20, 10_000);
+        MockHttpServletRequest create = new MockHttpServletRequest("POST", "/api/compare/sessions");
+        create.setContent(new byte[2048]);
+        assertFalse(admission.shouldNotFilter(create));
+
+        // 补丁很小也需要许可，查询会话不需要
+        MockHttpServletRequest patch = new MockHttpServletRequest("PATCH", "/api/compare/sessions/abc");
+        patch.setContent(new byte[16]);
+        assertFalse(admission.shouldNotFilter(patch));
+        assertTrue(admission.shouldNotFilter(new MockHttpServletRequest("GET", "/api/compare/sessions/abc")));
+    }
+
+    @Test
+    void memoryBudgetLimitsConcurrentRequestsAndIsFullyReturned() throws Exception {
+        MemoryBudget budget = new MemoryBudget(1024 * 1024, 1, 1, 1024 * 1024);
+        MemoryBudgetFilter memory = new MemoryBudgetFilter(objectMapper, budget, 10_000);
+        ComputeAdmissionFilter admission = newAdmissionFilter(4, 1024, 1 << 20, 10_000);
+        SlowServlet servlet = new SlowServlet(20);
+
+        // 每个请求预留400KB，1MB预算最多同时执行两个
+        List<Integer> statuses = run(servlet, 400 * 1024, memory, admission);
+
+        assertTrue(statuses.stream().allMatch(status -> status == 200), statuses.toString());
+        assertTrue(servlet.maxActive.get() <= 2, "并发数 " + servlet.maxActive.get());
+        assertEquals(budget.getTotal(), budget.getAvailable());
+    }
+
+    @Test
+    void rejectedRequestsReturn503AndLeaveNothingReserved() throws Exception {
+        MemoryBudget budget = new MemoryBudget(1024 * 1024, 1, 1, 1024 * 1024);
+        MemoryBudgetFilter memory = new MemoryBudgetFilter(objectMapper, budget, 5);
+        ComputeAdmissionFilter admission = newAdmissionFilter(1, 1024, 1 << 20, 5);
+        SlowServlet servlet = new SlowServlet(50);
+
+        List<Integer> statuses = run(servlet, 300 * 1024, memory, admission);
+
+        long served = statuses.stream().filter(status -> status == 200).count();
+        long rejected = statuses.stream().filter(status -> status == 503).count();
+        assertEquals(REQUESTS, served + rejected, statuses.toString());
+        assertTrue(served >= 1 && rejected >= 1, statuses.toString());
+        assertEquals(served, servlet.calls.get());
+        assertTrue(servlet.maxActive.get() <= 1, "并发数 " + servlet.maxActive.get());
+        assertEquals(budget.getTotal(), budget.getAvailable());
+    }
+
+    @Test
+    void oversizedRequestsAreRejectedWithoutWaiting() throws Exception {
+        MemoryBudget budget = new MemoryBudget(1024 * 1024, 1, 1, 1024 * 1024);
+        MemoryBudgetFilter memory = new MemoryBudgetFilter(objectMapper, budget, 10_000);
+        SlowServlet servlet = new SlowServlet(0);
+
+        List<Integer> statuses = run(servlet, 2 * 1024 * 1024, memory);
+
+        assertTrue(statuses.stream().allMatch(status -> status == 413), statuses.toString());
+        assertEquals(0, servlet.calls.get());
+        assertEquals(budget.getTotal(), budget.getAvailable());
+    }
+
+    @Test
+    void smallCallsPassWhileLargeComparesHoldPermits() throws Exception {
+        smallCallsPassWhileLargeComparesHoldPermits(Executors.defaultThreadFactory());
+    }
+
+    @Test
+    void smallCallsPassWhileLargeComparesHoldPermitsOnVirtualThreads() throws Exception {
+        ThreadFactory factory = virtualThreadFactory();
+        assumeTrue(factory != null, "运行时不支持虚拟线程");
+        smallCallsPassWhileLargeComparesHoldPermits(factory);
+    }
+
+    private ComputeAdmissionFilter newAdmissionFilter(int permits, long threshold, long unknownSize, long waitMillis) {
+        return new ComputeAdmissionFilter(objectMapper,
+                new ComputeAdmission(true, permits, threshold, unknownSize, waitMillis));
+    }
+
+    /**
+     * 一个大对比占住唯一的许可，其余大对比排队等待许可，小的校验请求不需要许可，在大对比结束前全部完成
+     */
+    private void smallCallsPassWhileLargeComparesHoldPermits(ThreadFactory factory) throws Exception {
+        ComputeAdmission permits = new ComputeAdmission(true, 1, 1024, 1 << 20, 10_000);
+        Filter[] filters = {new ComputeAdmissionFilter(objectMapper, permits)};
+        GatedServlet servlet = new GatedServlet();
+        int large = 4;
+        int small = 40;
+        ExecutorService executor = Executors.newCachedThreadPool(factory);
+        try {
+            List<Future<Integer>> largeCalls = new ArrayList<>();
+            largeCalls.add(executor.submit(() -> call(servlet, filters, "/api/compare", 64 * 1024)));
+            assertTrue(servlet.entered.await(30, TimeUnit.SECONDS), "大对比没有开始执行");
+            for (int i = 1; i < large; i++) {
+                largeCalls.add(executor.submit(() -> call(servlet, filters, "/api/compare", 64 * 1024)));
+            }
+
+            List<Future<Integer>> smallCalls = new ArrayList<>();
+            for (int i = 0; i < small; i++) {
+                smallCalls.add(executor.submit(() -> call(servlet, filters, "/api/validate", 128)));
+            }
+            for (Future<Integer> future : smallCalls) {
+                assertEquals(200, future.get(30, TimeUnit.SECONDS));
+            }
+            // 小请求全部完成时许可仍被第一个大对比占用，其余大对比都还没有进入
+            assertEquals(small, servlet.validations.get());
+            assertEquals(1, servlet.compares.get());
+            assertFalse(largeCalls.stream().anyMatch(Future::isDone));
+
+            servlet.release.countDown();
+            for (Future<Integer> future : largeCalls) {
+                assertEquals(200, future.get(30, TimeUnit.SECONDS));
+            }
+            assertEquals(large, servlet.compares.get());
+            assertEquals(1, servlet.maxActive.get());
+            assertTrue(permits.acquire(1), "许可没有归还");
+            permits.release(1);
+        } finally {
+            servlet.release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 经过过滤器链发出一个请求，返回状态码
+     */
+    private int call(HttpServlet servlet, Filter[] filters, String uri, int contentLength) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.setContent(new byte[contentLength]);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new MockFilterChain(servlet, filters).doFilter(request, response);
+        return response.getStatus();
+    }
+
+    /**
+     * Java 21起可用的虚拟线程工厂，运行时不支持时返回null
+     */
+    private static ThreadFactory virtualThreadFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            return (ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 同时发出REQUESTS个对比请求，返回各请求的状态码
+     */
+    private List<Integer> run(HttpServlet servlet, int contentLength, Filter... filters) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(REQUESTS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < REQUESTS; i++) {
+                futures.add(executor.submit(() -> {
+                    MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/compare");
+                    request.setContent(new byte[contentLength]);
+                    MockHttpServletResponse response = new MockHttpServletResponse();
+                    start.await();
+                    new MockFilterChain(servlet, filters).doFilter(request, response);
+                    return response.getStatus();
+                }));
+            }
+            start.countDown();
+            List<Integer> statuses = new ArrayList<>();
+            for (Future<Integer> future : futures) {
+                statuses.add(future.get(30, TimeUnit.SECONDS));
+            }
+            return statuses;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 模拟耗时的对比，记录同时执行的最大请求数
+     */
+    private static class SlowServlet extends HttpServlet {
+        private static final long serialVersionUID = 1L;
+
+        private final long millis;
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicInteger maxActive = new AtomicInteger();
+        private final AtomicInteger calls = new AtomicInteger();
+
+        SlowServlet(long millis) {
+            this.millis = millis;
+        }
+
+        @Override
+        protected void service(HttpServletRequest request, HttpServletResponse response) {
+            calls.incrementAndGet();
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                active.decrementAndGet();
+            }
+            response.setStatus(200);
+        }
+    }
+
+    /**
+     * 对比请求在release打开前一直执行，其他请求立即完成，记录同时执行的最大对比数
+     */
+    private static class GatedServlet extends HttpServlet {
+        private static final long serialVersionUID = 1L;
+
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicInteger maxActive = new AtomicInteger();
+        private final AtomicInteger compares = new AtomicInteger();
+        private final AtomicInteger validations = new AtomicInteger();
+
+        @Override
+        protected void service(HttpServletRequest request, HttpServletResponse response) {
+            if (request.getRequestURI().startsWith("/api/compare")) {
+                compares.incrementAndGet();
+                maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    active.decrementAndGet();
+                }
+            } else {
+                validations.incrementAndGet();
+            }
+            response.setStatus(200);
+        }
+    }
+}
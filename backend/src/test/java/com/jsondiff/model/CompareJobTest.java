@@ -0,0 +1,49 @@
+package com.jsondiff.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jsondiff.util.JsonComparator;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 对比任务状态测试
+ */
+class CompareJobTest {
+
+    @Test
+    void cancelledJobDoesNotKeepResult() {
+        CompareJob job = new CompareJob("j1", null);
+        assertTrue(job.transition(CompareJob.JobStatus.QUEUED, CompareJob.JobStatus.RUNNING));
+        assertEquals(CompareJob.JobStatus.RUNNING, job.markCancelled());
+
+        assertFalse(job.complete(new DiffResult()));
+        assertNull(job.getResult());
+        assertEquals(CompareJob.JobStatus.CANCELLED, job.getStatus());
+    }
+
+    @Test
+    void runningJobCompletesWithResult() {
+        CompareJob job = new CompareJob("j2", null);
+        job.transition(CompareJob.JobStatus.QUEUED, CompareJob.JobStatus.RUNNING);
+        DiffResult result = new DiffResult();
+
+        assertTrue(job.complete(result));
+        assertEquals(CompareJob.JobStatus.COMPLETED, job.getStatus());
+        assertEquals(result, job.getResult());
+        assertEquals(CompareJob.JobStatus.COMPLETED, job.markCancelled());
+        assertEquals(CompareJob.JobStatus.COMPLETED, job.getStatus());
+    }
+
+    @Test
+    void cancelBeforeCompareStartsIsNotLost() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        JsonComparator comparator = new JsonComparator(new CompareSettings());
+        comparator.cancel();
+        DiffResult result = comparator.compare(mapper.readTree("{\"a\":1}"), mapper.readTree("{\"a\":2}"));
+        assertEquals(0, result.getTotalDifferences());
+    }
+}
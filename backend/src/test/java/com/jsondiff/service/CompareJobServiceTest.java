@@ -0,0 +1,127 @@
+package com.jsondiff.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jsondiff.model.CompareJob;
+import com.jsondiff.util.ExactNumbers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 异步对比任务服务测试 - 已完成任务的结果按大小限制容量，预算在任务结束时全部归还
+ */
+class CompareJobServiceTest {
+
+    private final ObjectMapper mapper = ExactNumbers.newMapper();
+    private final MemoryBudget budget = new MemoryBudget(1 << 20, 1, 1, 1 << 20);
+    private final DocumentStore documents = new DocumentStore(mapper, 1 << 20);
+    private CompareJobService service;
+
+    @AfterEach
+    void shutdown() {
+        service.shutdown();
+    }
+
+    @Test
+    void oldestResultsAreEvictedWhenResultCacheIsFull() throws Exception {
+        // 每个结果估算约17KB，容量只够保留一个
+        service = newService(3600_000, 24 * 1024);
+        CompareJob first = await(service.submit(request(40), 1024));
+        assertNotNull(service.getResult(first));
+        CompareJob second = await(service.submit(request(40), 1024));
+
+        assertNull(first.getResult());
+        assertNull(service.getResult(first));
+        assertEquals(40, first.getTotalDifferences());
+        assertEquals(40, service.getResult(second).getTotalDifferences());
+        assertEquals(budget.getTotal(), budget.getAvailable());
+    }
+
+    @Test
+    void expiredJobsAndResultsArePurged() throws Exception {
+        service = newService(0, 1 << 20);
+        CompareJob job = await(service.submit(request(3), 1024));
+        Thread.sleep(5);
+
+        service.purgeExpired();
+        assertNull(service.get(job.getId()));
+        assertNull(service.getResult(job));
+        assertEquals(0, (int) service.getStats().get("size"));
+    }
+
+    @Test
+    void documentsEvictedWhileQueuedAreStillCompared() throws Exception {
+        // 任务开始执行前先等待start，期间文档被移出存储
+        CountDownLatch start = new CountDownLatch(1);
+        service = newService(new ThreadPoolTaskExecutorBuilder().taskDecorator(task -> () -> {
+            try {
+                start.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            task.run();
+        }), 3600_000, 1 << 20);
+        Map<String, Object> request = request(5);
+        String left = upload((String) request.remove("left"));
+        String right = upload((String) request.remove("right"));
+        request.put("leftHandle", left);
+        request.put("rightHandle", right);
+
+        CompareJob job = service.submit(request, 64);
+        documents.remove(left);
+        documents.remove(right);
+        start.countDown();
+
+        assertEquals(5, await(job).getTotalDifferences());
+        assertEquals(budget.getTotal(), budget.getAvailable());
+    }
+
+    private CompareJobService newService(long retention, long maxResultSize) {
+        return newService(new ThreadPoolTaskExecutorBuilder(), retention, maxResultSize);
+    }
+
+    private CompareJobService newService(ThreadPoolTaskExecutorBuilder executorBuilder, long retention,
+                                         long maxResultSize) {
+        JsonDiffService jsonDiffService = new JsonDiffService(mapper, new DiffResultCache(false, 0),
+                documents, budget, new ComputeAdmission(false, 1, 1, 1, 0), 30_000, 0);
+        return new CompareJobService(jsonDiffService, budget, executorBuilder, 30_000, retention, maxResultSize);
+    }
+
+    private String upload(String json) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        return documents.upload(new ByteArrayInputStream(bytes), bytes.length).getHandle();
+    }
+
+    private Map<String, Object> request(int differences) {
+        StringBuilder left = new StringBuilder("{");
+        StringBuilder right = new StringBuilder("{");
+        for (int i = 0; i < differences; i++) {
+            String separator = i == 0 ? "" : ",";
+            left.append(separator).append("\"k").append(i).append("\":").append(i);
+            right.append(separator).append("\"k").append(i).append("\":").append(-i - 1);
+        }
+        Map<String, Object> request = new HashMap<>();
+        request.put("left", left.append('}').toString());
+        request.put("right", right.append('}').toString());
+        return request;
+    }
+
+    private CompareJob await(CompareJob job) throws InterruptedException {
+        for (int i = 0; i < 500 && (!job.isFinished() || job.getFinishedAt() == null); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(job.isFinished(), String.valueOf(job.getStatus()));
+        assertEquals(CompareJob.JobStatus.COMPLETED, job.getStatus());
+        return job;
+    }
+}
@@ -0,0 +1,240 @@
+package com.jsondiff.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.jsondiff.model.CompareSettings;
+import com.jsondiff.model.DiffDelta;
+import com.jsondiff.model.DiffItem;
+import com.jsondiff.model.PatchOperation;
+import com.jsondiff.util.ExactNumbers;
+import com.jsondiff.util.JsonComparator;
+import com.jsondiff.util.JsonPatcher;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+/**
+ * 增量对比会话测试 - 连续应用补丁并增量合并后，差异列表应与重新完整比较一致
+ */
+class CompareSessionServiceTest {
+
+    private final ObjectMapper mapper = ExactNumbers.newMapper();
+
+    private final JsonDiffService jsonDiffService = new JsonDiffService(mapper, new DiffResultCache(false, 0),
+            new DocumentStore(mapper, 1 << 24), new MemoryBudget(1 << 24, 1, 1, 1 << 20),
+            new ComputeAdmission(false, 1, 1, 1, 0), 30_000, 0);
+
+    private final CompareSessionService service = new CompareSessionService(jsonDiffService, mapper, 1 << 24, 30_000);
+
+    @Test
+    void incrementalMergeMatchesFullRecompare() throws Exception {
+        Random random = new Random(23);
+        List<Map<String, Object>> variants = new ArrayList<>();
+        variants.add(Map.of());
+        variants.add(Map.of("ignoreOrder", true));
+        variants.add(Map.of("arrayMode", "lcs"));
+        variants.add(Map.of("arrayKeys", Map.of("$.items", List.of("id"))));
+
+        for (int round = 0; round < 60; round++) {
+            for (Map<String, Object> settingsMap : variants) {
+                JsonNode left = randomDocument(random);
+                JsonNode right = random.nextBoolean() ? left.deepCopy() : randomDocument(random);
+
+                Map<String, Object> request = new HashMap<>();
+                request.put("left", mapper.writeValueAsString(left));
+                request.put("right", mapper.writeValueAsString(right));
+                request.put("settings", settingsMap);
+                String id = service.create(request).getSessionId();
+
+                for (int step = 0; step < 8; step++) {
+                    boolean isLeft = random.nextInt(3) == 0;
+                    JsonNode target = isLeft ? left : right;
+                    ArrayNode patch = randomPatch(random, target);
+                    JsonPatcher patcher = new JsonPatcher(target);
+                    patcher.apply(mapper.convertValue(patch,
+                            mapper.getTypeFactory().constructCollectionType(List.class, PatchOperation.class)));
+                    if (isLeft) {
+                        left = patcher.getRoot();
+                    } else {
+                        right = patcher.getRoot();
+                    }
+
+                    Map<String, Object> patchRequest = new HashMap<>();
+                    patchRequest.put("side", isLeft ? "left" : "right");
+                    patchRequest.put("patch", patch);
+                    service.patch(id, patchRequest);
+
+                    CompareSettings settings = jsonDiffService.createCompareSettings(settingsMap);
+                    List<String> expected = describe(new JsonComparator(settings).compare(left, right).getDifferences());
+                    List<String> actual = describe(service.snapshot(id).getDifferences());
+                    assertEquals(expected, actual, "第 " + step + " 次补丁 " + patch + "\n左: " + left + "\n右: " + right);
+                }
+                service.remove(id);
+            }
+        }
+    }
+
+    @Test
+    void returnedValuesAreDetachedFromSessionTrees() throws Exception {
+        Map<String, Object> request = new HashMap<>();
+        request.put("left", "{\"a\":1}");
+        request.put("right", "{\"a\":{\"b\":1}}");
+        String id = service.create(request).getSessionId();
+
+        DiffItem first = service.snapshot(id).getDifferences().get(0);
+        DiffItem second = service.snapshot(id).getDifferences().get(0);
+        assertEquals(first, second);
+        assertNotSame(first.getNewValue(), second.getNewValue());
+
+        // 补丁原地修改会话中的树后，已返回的值保持不变
+        Map<String, Object> patchRequest = new HashMap<>();
+        patchRequest.put("patch", mapper.readTree("[{\"op\":\"add\",\"path\":\"/a/c\",\"value\":2}]"));
+        DiffDelta delta = service.patch(id, patchRequest);
+        assertEquals(mapper.readTree("{\"b\":1}"), first.getNewValue());
+        assertEquals(mapper.readTree("{\"b\":1,\"c\":2}"), delta.getDifferences().get(0).getNewValue());
+    }
+
+    @Test
+    void keysContainingDotsStayOutsideSiblingScopes() throws Exception {
+        // 键名"a.x"和 $.a 下的 x 渲染为同一路径，合并时不能互相替换
+        JsonNode left = mapper.readTree("{\"a\":{\"x\":1,\"y\":1},\"a.x\":1}");
+        JsonNode right = mapper.readTree("{\"a\":{\"x\":2,\"y\":1},\"a.x\":2}");
+        Map<String, Object> request = new HashMap<>();
+        request.put("left", mapper.writeValueAsString(left));
+        request.put("right", mapper.writeValueAsString(right));
+        String id = service.create(request).getSessionId();
+        assertEquals(2, service.snapshot(id).getDifferences().size());
+
+        for (String patch : List.of("[{\"op\":\"replace\",\"path\":\"/a/y\",\"value\":2}]",
+                "[{\"op\":\"replace\",\"path\":\"/a.x\",\"value\":1}]",
+                "[{\"op\":\"replace\",\"path\":\"/a/x\",\"value\":1}]")) {
+            JsonPatcher patcher = new JsonPatcher(right);
+            patcher.apply(mapper.readValue(patch,
+                    mapper.getTypeFactory().constructCollectionType(List.class, PatchOperation.class)));
+            right = patcher.getRoot();
+            Map<String, Object> patchRequest = new HashMap<>();
+            patchRequest.put("patch", mapper.readTree(patch));
+            service.patch(id, patchRequest);
+
+            List<String> expected = describe(new JsonComparator(new CompareSettings()).compare(left, right).getDifferences());
+            assertEquals(expected, describe(service.snapshot(id).getDifferences()), patch);
+        }
+        service.remove(id);
+    }
+
+    /**
+     * 差异项按序列化后的文本排序：增量结果按DiffDelta的约定合并，新子树的差异项位于列表末尾
+     */
+    private List<String> describe(List<DiffItem> differences) throws Exception {
+        List<String> items = new ArrayList<>();
+        for (DiffItem item : differences) {
+            items.add(mapper.writeValueAsString(item));
+        }
+        items.sort(null);
+        return items;
+    }
+
+    /**
+     * 随机生成1到3个修改已有位置的补丁操作
+     */
+    private ArrayNode randomPatch(Random random, JsonNode root) {
+        ArrayNode patch = mapper.createArrayNode();
+        JsonNode scratch = root.deepCopy();
+        for (int i = random.nextInt(3); i >= 0; i--) {
+            List<String> containers = new ArrayList<>();
+            List<String> members = new ArrayList<>();
+            collect(scratch, "", containers, members);
+
+            ObjectNode operation = patch.addObject();
+            int kind = members.isEmpty() ? 0 : random.nextInt(3);
+            if (kind == 0) {
+                String container = containers.get(random.nextInt(containers.size()));
+                JsonNode node = scratch.at(container);
+                String member = node.isArray() ? String.valueOf(random.nextInt(node.size() + 1))
+                        : "n" + random.nextInt(3);
+                operation.put("op", "add").put("path", container + "/" + member)
+                        .set("value", randomValue(random, 1));
+            } else if (kind == 1) {
+                operation.put("op", "replace").put("path", members.get(random.nextInt(members.size())))
+                        .set("value", randomValue(random, 1));
+            } else {
+                operation.put("op", "remove").put("path", members.get(random.nextInt(members.size())));
+            }
+            JsonPatcher patcher = new JsonPatcher(scratch);
+            patcher.apply(List.of(mapper.convertValue(operation, PatchOperation.class)));
+            scratch = patcher.getRoot();
+        }
+        return patch;
+    }
+
+    /**
+     * 收集容器节点和成员节点的JSON Pointer
+     */
+    private void collect(JsonNode node, String pointer, List<String> containers, List<String> members) {
+        if (!node.isContainerNode()) {
+            return;
+        }
+        containers.add(pointer);
+        if (node.isArray()) {
+            for (int i = 0; i < node.size(); i++) {
+                members.add(pointer + "/" + i);
+                collect(node.get(i), pointer + "/" + i, containers, members);
+            }
+        } else {
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                members.add(pointer + "/" + field.getKey());
+                collect(field.getValue(), pointer + "/" + field.getKey(), containers, members);
+            }
+        }
+    }
+
+    private JsonNode randomDocument(Random random) {
+        ObjectNode document = mapper.createObjectNode();
+        for (int i = random.nextInt(5); i >= 0; i--) {
+            document.set("f" + random.nextInt(6), randomValue(random, 2));
+        }
+        ArrayNode items = document.putArray("items");
+        for (int i = random.nextInt(5); i > 0; i--) {
+            ObjectNode item = items.addObject();
+            item.put("id", random.nextInt(4));
+            item.put("v", random.nextInt(3));
+        }
+        return document;
+    }
+
+    private JsonNode randomValue(Random random, int depth) {
+        switch (random.nextInt(depth > 0 ? 6 : 4)) {
+            case 0:
+                return mapper.getNodeFactory().numberNode(random.nextInt(3));
+            case 1:
+                return mapper.getNodeFactory().textNode(random.nextBoolean() ? "a" : "b");
+            case 2:
+                return mapper.getNodeFactory().booleanNode(random.nextBoolean());
+            case 3:
+                return mapper.getNodeFactory().nullNode();
+            case 4:
+                ArrayNode array = mapper.createArrayNode();
+                for (int i = random.nextInt(4); i > 0; i--) {
+                    array.add(randomValue(random, depth - 1));
+                }
+                return array;
+            default:
+                ObjectNode object = mapper.createObjectNode();
+                for (int i = random.nextInt(3); i > 0; i--) {
+                    object.set("k" + random.nextInt(3), randomValue(random, depth - 1));
+                }
+                return object;
+        }
+    }
+}
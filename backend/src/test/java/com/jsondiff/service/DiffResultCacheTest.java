@@ -0,0 +1,84 @@
+package com.jsondiff.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jsondiff.model.CompareSettings;
+import com.jsondiff.model.DiffResult;
+import com.jsondiff.util.ExactNumbers;
+import org.junit.jupiter.api.Test;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 对比结果缓存测试 - 键的相等性和命中时返回的结果
+ */
+class DiffResultCacheTest {
+
+    private final DiffResultCache cache = new DiffResultCache(true, 1 << 20);
+
+    @Test
+    void equalInputsGiveEqualKeys() {
+        CompareSettings settings = new CompareSettings();
+        assertEquals(cache.keyOf("{\"a\":1}", "{\"a\":2}", settings), cache.keyOf("{\"a\":1}", "{\"a\":2}", settings));
+
+        Map<String, Object> first = new LinkedHashMap<>();
+        first.put("a", 1);
+        first.put("b", "x");
+        Map<String, Object> second = new LinkedHashMap<>();
+        second.put("b", "x");
+        second.put("a", 1);
+        assertEquals(cache.keyOf(first, second, settings), cache.keyOf(second, first, settings));
+    }
+
+    @Test
+    void differentInputsOrSettingsGiveDifferentKeys() {
+        CompareSettings settings = new CompareSettings();
+        CompareSettings ignoreCase = new CompareSettings();
+        ignoreCase.setCaseSensitive(false);
+
+        assertNotEquals(cache.keyOf("{\"a\":1}", "{\"a\":2}", settings), cache.keyOf("{\"a\":2}", "{\"a\":1}", settings));
+        assertNotEquals(cache.keyOf("{\"a\":1}", "{}", settings), cache.keyOf("{\"a\":1}", "{}", ignoreCase));
+        // 原文与解析后的对象即使序列化相同也不共用键
+        assertNotEquals(cache.keyOf("{\"a\":1}", "{}", settings), cache.keyOf(Map.of("a", 1), "{}", settings));
+    }
+
+    @Test
+    void hitsReturnIndependentCopiesWithFreshTimestamps() throws Exception {
+        ObjectMapper mapper = ExactNumbers.newMapper();
+        JsonDiffService service = new JsonDiffService(mapper, cache, new DocumentStore(mapper, 1 << 20),
+                new MemoryBudget(1 << 20, 1, 1, 1 << 20), new ComputeAdmission(false, 1, 1, 1, 0), 30_000, 0);
+        Map<String, Object> request = new HashMap<>();
+        request.put("left", "{\"a\":1,\"b\":[1,2]}");
+        request.put("right", "{\"a\":2,\"b\":[1]}");
+
+        DiffResult first = service.compare(request);
+        assertFalse(first.isCached());
+        // 修改首次返回的结果不影响缓存
+        first.getDifferences().clear();
+        Thread.sleep(5);
+
+        DiffResult hit = service.compare(request);
+        DiffResult again = service.compare(request);
+        assertTrue(hit.isCached());
+        assertNotSame(hit, again);
+        assertNotSame(hit.getDifferences(), again.getDifferences());
+        assertTrue(hit.getTimestamp().isAfter(first.getTimestamp()));
+        assertEquals(first.getTotalDifferences(), hit.getTotalDifferences());
+        assertEquals(hit.getTotalDifferences(), hit.getDifferences().size());
+
+        hit.getDifferences().clear();
+        assertEquals(again.getTotalDifferences(), service.compare(request).getDifferences().size());
+    }
+
+    @Test
+    void disabledCacheHasNoKeys() {
+        assertNull(new DiffResultCache(false, 1 << 20).keyOf("{}", "{}", new CompareSettings()));
+    }
+}
@@ -0,0 +1,104 @@
+package com.jsondiff.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jsondiff.model.CompareSettings;
+import com.jsondiff.model.StoredDocument;
+import com.jsondiff.util.ExactNumbers;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 已上传文档测试 - 结构哈希计入缓存容量，引用文档的对比按文档大小预留内存
+ */
+class DocumentStoreTest {
+
+    private final ObjectMapper mapper = ExactNumbers.newMapper();
+
+    @Test
+    void hashersAreCountedInCacheWeight() {
+        DocumentStore store = new DocumentStore(mapper, 1 << 20);
+        StoredDocument document = upload(store, document(200));
+        long treeSize = document.getEstimatedSize();
+        assertEquals(treeSize, weightOf(store));
+
+        CompareSettings ignoreOrder = new CompareSettings();
+        ignoreOrder.setIgnoreOrder(true);
+        assertSame(store.hasherFor(document, new CompareSettings()), store.hasherFor(document, new CompareSettings()));
+        long withOne = document.getEstimatedSize();
+        store.hasherFor(document, ignoreOrder);
+
+        assertTrue(withOne > treeSize);
+        assertEquals(2 * withOne - treeSize, document.getEstimatedSize());
+        assertEquals(document.getEstimatedSize(), weightOf(store));
+    }
+
+    @Test
+    void growingDocumentEvictsOlderOnes() {
+        StoredDocument probe = upload(new DocumentStore(mapper, 1 << 20), document(200));
+        long treeSize = probe.getEstimatedSize();
+
+        // 容量刚好放下两份文档的树，计算结构哈希后放不下
+        DocumentStore store = new DocumentStore(mapper, 2 * treeSize + 16);
+        StoredDocument older = upload(store, document(200));
+        StoredDocument newer = upload(store, document(200));
+        store.hasherFor(newer, new CompareSettings());
+
+        assertNull(store.get(older.getHandle()));
+        assertNotNull(store.get(newer.getHandle()));
+        assertEquals(newer.getEstimatedSize(), weightOf(store));
+    }
+
+    @Test
+    void handleComparesReserveByDocumentSize() {
+        DocumentStore store = new DocumentStore(mapper, 1 << 24);
+        StoredDocument left = upload(store, document(500));
+        StoredDocument right = upload(store, document(501));
+        Map<String, Object> request = new HashMap<>();
+        request.put("leftHandle", left.getHandle());
+        request.put("rightHandle", right.getHandle());
+
+        // 请求体只有句柄，但两侧文档超过内存预算
+        MemoryBudget small = new MemoryBudget(left.getEstimatedSize(), 1, 1, 1024);
+        JsonDiffService rejecting = new JsonDiffService(mapper, new DiffResultCache(false, 0), store, small,
+                new ComputeAdmission(true, 2, 1024, 1024, 0), 30_000, 0);
+        assertThrows(TaskRejectedException.class, () -> rejecting.compare(request));
+        assertEquals(small.getTotal(), small.getAvailable());
+
+        MemoryBudget large = new MemoryBudget(1 << 24, 1, 1, 1024);
+        JsonDiffService service = new JsonDiffService(mapper, new DiffResultCache(false, 0), store, large,
+                new ComputeAdmission(true, 2, 1024, 1024, 0), 30_000, 0);
+        assertEquals(1, service.compare(request).getTotalDifferences());
+        assertEquals(large.getTotal(), large.getAvailable());
+    }
+
+    private StoredDocument upload(DocumentStore store, String json) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        return store.upload(new ByteArrayInputStream(bytes), bytes.length);
+    }
+
+    private static long weightOf(DocumentStore store) {
+        return ((Number) store.getStats().get("weight")).longValue();
+    }
+
+    /**
+     * 含200个对象元素的文档，last字段取给定的值
+     */
+    private static String document(int last) {
+        StringBuilder json = new StringBuilder("{\"items\":[");
+        for (int i = 0; i < 200; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"id\":").append(i).append(",\"tags\":[\"a\",\"b\"]}");
+        }
+        return json.append("],\"last\":").append(last).append('}').toString();
+    }
+}
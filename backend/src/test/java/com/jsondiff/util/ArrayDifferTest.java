@@ -0,0 +1,180 @@
+package com.jsondiff.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jsondiff.model.CompareSettings;
+import com.jsondiff.model.DiffItem;
+import com.jsondiff.model.DiffResult;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 数组序列差异算法测试
+ */
+class ArrayDifferTest {
+
+    private final ObjectMapper mapper = ExactNumbers.newMapper();
+
+    @Test
+    void matchesKnownEditScript() {
+        // ABCABBA -> CBABAC，最长公共子序列长度为4
+        long[] left = {1, 2, 3, 1, 2, 2, 1};
+        long[] right = {3, 2, 1, 2, 1, 3};
+        int[] matches = new ArrayDiffer(100).match(left, right);
+        assertValid(left, right, matches);
+        assertEquals(4, matchedCount(matches));
+    }
+
+    @Test
+    void identicalAndDisjointSequences() {
+        long[] same = {5, 6, 7, 8};
+        assertArrayEquals(new int[]{0, 1, 2, 3}, new ArrayDiffer(100).match(same, same.clone()));
+        assertArrayEquals(new int[]{-1, -1}, new ArrayDiffer(100).match(new long[]{1, 2}, new long[]{3, 4, 5}));
+        assertEquals(0, new ArrayDiffer(100).match(new long[0], new long[]{1}).length);
+    }
+
+    @Test
+    void matchLengthEqualsLongestCommonSubsequence() {
+        Random random = new Random(42);
+        for (int round = 0; round < 500; round++) {
+            long[] left = randomSequence(random, random.nextInt(40));
+            long[] right = randomSequence(random, random.nextInt(40));
+            int[] matches = new ArrayDiffer(1000).match(left, right);
+            assertValid(left, right, matches);
+            assertEquals(lcsLength(left, right), matchedCount(matches));
+        }
+    }
+
+    @Test
+    void costLimitStillGivesValidMatching() {
+        Random random = new Random(7);
+        long[] left = randomSequence(random, 2000);
+        long[] right = randomSequence(random, 2000);
+        int[] matches = new ArrayDiffer(2).match(left, right);
+        assertValid(left, right, matches);
+    }
+
+    @Test
+    void lcsModeReportsInsertionsAndMoves() throws Exception {
+        CompareSettings settings = new CompareSettings();
+        settings.setArrayMode(CompareSettings.ArrayMode.LCS);
+        settings.setIncludeArrayLength(false);
+
+        DiffResult inserted = compare("[1, 2, 3, 4]", "[1, 2, 9, 3, 4]", settings);
+        assertEquals(1, inserted.getTotalDifferences());
+        DiffItem added = inserted.getDifferences().get(0);
+        assertEquals(DiffItem.DiffType.ADDED, added.getType());
+        assertEquals("$[2]", added.getPath());
+
+        DiffResult moved = compare("[{\"id\":1}, {\"id\":2}, {\"id\":3}, {\"id\":4}]",
+                "[{\"id\":2}, {\"id\":3}, {\"id\":4}, {\"id\":1}]", settings);
+        assertEquals(1, moved.getTotalDifferences());
+        DiffItem item = moved.getDifferences().get(0);
+        assertEquals(DiffItem.DiffType.MOVED, item.getType());
+        assertEquals("$[0]", item.getFromPath());
+        assertEquals("$[3]", item.getPath());
+
+        settings.setDetectMoves(false);
+        DiffResult plain = compare("[1, 2, 3]", "[2, 3, 1]", settings);
+        assertEquals(2, plain.getTotalDifferences());
+        assertEquals(1, plain.getRemovedCount());
+        assertEquals(1, plain.getAddedCount());
+    }
+
+    @Test
+    void collidingElementsAreNotMatchedOrMoved() throws Exception {
+        // 所有数值哈希相同，对齐和移动都要确认元素确实相同
+        CompareSettings settings = new CompareSettings();
+        settings.setArrayMode(CompareSettings.ArrayMode.LCS);
+        settings.setIncludeArrayLength(false);
+
+        DiffResult matched = compareColliding("[1, 2, 3]", "[1, 5, 3]", settings);
+        assertEquals(1, matched.getTotalDifferences());
+        DiffItem item = matched.getDifferences().get(0);
+        assertEquals(DiffItem.DiffType.MODIFIED, item.getType());
+        assertEquals("$[1]", item.getPath());
+
+        DiffResult moved = compareColliding("[1, \"a\"]", "[\"a\", 2]", settings);
+        assertTrue(moved.getTotalDifferences() > 0);
+        for (DiffItem difference : moved.getDifferences()) {
+            assertTrue(difference.getType() != DiffItem.DiffType.MOVED
+                    || "$[1]".equals(difference.getFromPath()), difference.toString());
+        }
+    }
+
+    private DiffResult compareColliding(String left, String right, CompareSettings settings) throws Exception {
+        JsonComparator comparator = new JsonComparator(settings);
+        comparator.setPreparedHashes(new CollidingHasher(settings), new CollidingHasher(settings));
+        return comparator.compare(mapper.readTree(left), mapper.readTree(right));
+    }
+
+    private DiffResult compare(String left, String right, CompareSettings settings) throws Exception {
+        return new JsonComparator(settings).compare(mapper.readTree(left), mapper.readTree(right));
+    }
+
+    /**
+     * 匹配必须等长、下标单调递增且两侧元素相同
+     */
+    private static void assertValid(long[] left, long[] right, int[] matches) {
+        assertEquals(left.length, matches.length);
+        int previous = -1;
+        for (int i = 0; i < matches.length; i++) {
+            if (matches[i] < 0) {
+                continue;
+            }
+            assertTrue(matches[i] > previous, "匹配下标不是单调递增");
+            assertEquals(left[i], right[matches[i]]);
+            previous = matches[i];
+        }
+    }
+
+    private static int matchedCount(int[] matches) {
+        int count = 0;
+        for (int match : matches) {
+            if (match >= 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static long[] randomSequence(Random random, int length) {
+        long[] sequence = new long[length];
+        for (int i = 0; i < length; i++) {
+            sequence[i] = random.nextInt(5);
+        }
+        return sequence;
+    }
+
+    private static int lcsLength(long[] left, long[] right) {
+        int[][] table = new int[left.length + 1][right.length + 1];
+        for (int i = 1; i <= left.length; i++) {
+            for (int j = 1; j <= right.length; j++) {
+                table[i][j] = left[i - 1] == right[j - 1]
+                        ? table[i - 1][j - 1] + 1
+                        : Math.max(table[i - 1][j], table[i][j - 1]);
+            }
+        }
+        return table[left.length][right.length];
+    }
+
+    /**
+     * 所有数值哈希相同的结构哈希
+     */
+    private static final class CollidingHasher extends StructuralHasher {
+
+        CollidingHasher(CompareSettings settings) {
+            super(settings);
+        }
+
+        @Override
+        public long index(JsonNode node) {
+            return node != null && node.isNumber() ? 7 : super.index(node);
+        }
+    }
+}
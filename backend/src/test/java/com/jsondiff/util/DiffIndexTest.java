@@ -0,0 +1,225 @@
+package com.jsondiff.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.jsondiff.model.CompareSettings;
+import com.jsondiff.model.DiffItem;
+import com.jsondiff.model.DiffTreeNode;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 差异结果索引测试
+ */
+class DiffIndexTest {
+
+    private final ObjectMapper mapper = ExactNumbers.newMapper();
+
+    @Test
+    void cursorPagesCoverFilteredItemsExactlyOnce() {
+        List<DiffItem> differences = differences(new Random(5));
+        DiffIndex index = new DiffIndex(differences);
+        assertEquals(differences.size(), index.size());
+
+        String[] paths = {"", "$", "$.g1", "$.g2.list", "$.g0.k3"};
+        int[] masks = {0, 1 << DiffItem.DiffType.ADDED.ordinal(),
+                (1 << DiffItem.DiffType.REMOVED.ordinal()) | (1 << DiffItem.DiffType.MODIFIED.ordinal())};
+        for (String path : paths) {
+            for (int mask : masks) {
+                for (int[] depths : new int[][]{{0, 0}, {3, 0}, {0, 3}}) {
+                    List<DiffItem> expected = bruteForce(differences, path, mask, depths[0], depths[1]);
+                    for (int limit : new int[]{1, 7, 1000}) {
+                        List<DiffItem> paged = new ArrayList<>();
+                        int cursor = 0;
+                        do {
+                            List<DiffItem> page = new ArrayList<>();
+                            cursor = index.query(path, mask, depths[0], depths[1], cursor, limit, page);
+                            assertTrue(page.size() <= limit);
+                            paged.addAll(page);
+                        } while (cursor >= 0);
+                        assertSameItems(expected, paged);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void cursorsAreStableAcrossRepeatedAndResizedQueries() {
+        DiffIndex index = new DiffIndex(differences(new Random(9)));
+        List<DiffItem> first = new ArrayList<>();
+        int cursor = index.query("$.g1", 0, 0, 0, 0, 5, first);
+        assertTrue(cursor > 0);
+
+        List<DiffItem> again = new ArrayList<>();
+        assertEquals(cursor, index.query("$.g1", 0, 0, 0, 0, 5, again));
+        assertSameOrder(first, again);
+
+        // 同一游标开始的较小一页是较大一页的前缀
+        List<DiffItem> small = new ArrayList<>();
+        List<DiffItem> large = new ArrayList<>();
+        index.query("$.g1", 0, 0, 0, cursor, 2, small);
+        index.query("$.g1", 0, 0, 0, cursor, 10, large);
+        assertSameOrder(small, large.subList(0, small.size()));
+
+        // 游标早于子树起点时从子树起点开始
+        List<DiffItem> fromZero = new ArrayList<>();
+        List<DiffItem> fromStart = new ArrayList<>();
+        index.query("$.g2", 0, 0, 0, 0, 4, fromZero);
+        index.query("$.g2", 0, 0, 0, index.start("$.g2"), 4, fromStart);
+        assertSameOrder(fromZero, fromStart);
+    }
+
+    @Test
+    void treeCountsMatchSubtrees() {
+        List<DiffItem> differences = differences(new Random(13));
+        DiffIndex index = new DiffIndex(differences);
+
+        DiffTreeNode root = index.tree("", 0, 100);
+        assertEquals(differences.size(), root.getTotal());
+        int childTotal = 0;
+        for (DiffTreeNode child : root.getChildren()) {
+            List<DiffItem> subtree = bruteForce(differences, child.getPath(), 0, 0, 0);
+            assertEquals(subtree.size(), child.getTotal());
+            assertEquals(subtree.stream().filter(item -> item.getType() == DiffItem.DiffType.ADDED).count(),
+                    child.getAddedCount());
+            childTotal += child.getTotal();
+        }
+        assertEquals(differences.size(), childTotal);
+
+        DiffTreeNode paged = index.tree("$", 1, 1);
+        assertEquals(1, paged.getChildren().size());
+        assertEquals(root.getChildren().get(1).getPath(), paged.getChildren().get(0).getPath());
+        assertEquals(root.getChildCount(), paged.getChildCount());
+    }
+
+    @Test
+    void keysWithDotsAndBracketsDoNotCreatePhantomNodes() throws Exception {
+        CompareSettings settings = new CompareSettings();
+        settings.setIncludeArrayLength(false);
+        List<DiffItem> differences = new JsonComparator(settings).compare(
+                mapper.readTree("{\"a.b\":1,\"x.y\":{\"z\":1},\"c[0\":{\"d\":1},\"k.l\":[1],\"m\":{\"n.o\":{\"p\":1}}}"),
+                mapper.readTree("{\"x.y\":{\"z\":2},\"c[0\":{\"d\":2},\"k.l\":[2],\"m\":{\"n.o\":{\"p\":2}}}"))
+                .getDifferences();
+        DiffIndex index = new DiffIndex(differences);
+
+        List<String> labels = new ArrayList<>();
+        for (DiffTreeNode child : index.tree("$", 0, 100).getChildren()) {
+            labels.add(child.getLabel());
+            assertEquals(1, child.getTotal(), child.getPath());
+        }
+        assertEquals(List.of("a.b", "x.y", "c[0", "k.l", "m"), labels);
+        assertEquals(-1, index.start("$.a"));
+        assertEquals(-1, index.start("$.x"));
+        assertEquals(-1, index.start("$.c"));
+        assertEquals(-1, index.start("$.k"));
+        assertEquals("n.o", index.tree("$.m", 0, 10).getChildren().get(0).getLabel());
+        assertEquals("[0]", index.tree("$.k.l", 0, 10).getChildren().get(0).getLabel());
+        // 根、5个顶层键、x.y.z、c[0.d、k.l[0]、m.n.o和m.n.o.p
+        assertEquals(11, index.nodeCount());
+
+        // 提交的结果不含各段起点，按父路径和键名拆分，顶层的键名仍是一段
+        List<DiffItem> submitted = mapper.readValue(mapper.writeValueAsString(differences),
+                mapper.getTypeFactory().constructCollectionType(List.class, DiffItem.class));
+        DiffIndex fromJson = new DiffIndex(submitted);
+        assertEquals(-1, fromJson.start("$.a"));
+        assertEquals(-1, fromJson.start("$.x"));
+        assertEquals(1, fromJson.tree("$.a.b", 0, 10).getTotal());
+    }
+
+    @Test
+    void unknownPathsAreEmpty() {
+        DiffIndex index = new DiffIndex(differences(new Random(1)));
+        assertEquals(-1, index.start("$.missing"));
+        assertEquals(-1, index.query("$.missing", 0, 0, 0, 0, 10, new ArrayList<>()));
+        assertNull(index.tree("$.missing", 0, 10));
+    }
+
+    /**
+     * 随机修改文档，得到分布在不同路径和类型上的差异
+     */
+    private List<DiffItem> differences(Random random) {
+        ObjectNode left = mapper.createObjectNode();
+        ObjectNode right = mapper.createObjectNode();
+        for (int g = 0; g < 4; g++) {
+            ObjectNode leftGroup = left.putObject("g" + g);
+            ObjectNode rightGroup = right.putObject("g" + g);
+            for (int k = 0; k < 30; k++) {
+                String key = "k" + k;
+                switch (random.nextInt(4)) {
+                    case 0 -> leftGroup.put(key, k);
+                    case 1 -> rightGroup.put(key, k);
+                    case 2 -> {
+                        leftGroup.putObject(key).put("v", k).put("w", "a");
+                        rightGroup.putObject(key).put("v", k + 1).put("w", "b");
+                    }
+                    default -> {
+                        leftGroup.put(key, "same");
+                        rightGroup.put(key, "same");
+                    }
+                }
+            }
+            ArrayNode leftList = leftGroup.putArray("list");
+            ArrayNode rightList = rightGroup.putArray("list");
+            for (int i = 0; i < 10; i++) {
+                leftList.add(i);
+                rightList.add(random.nextBoolean() ? i : -i - 1);
+            }
+        }
+        CompareSettings settings = new CompareSettings();
+        settings.setIncludeArrayLength(false);
+        List<DiffItem> differences = new JsonComparator(settings).compare(left, right).getDifferences();
+        // 打乱顺序，检查索引不依赖输入顺序
+        Collections.shuffle(differences, random);
+        return differences;
+    }
+
+    private static List<DiffItem> bruteForce(List<DiffItem> differences, String path, int mask,
+                                             int minDepth, int maxDepth) {
+        List<DiffItem> result = new ArrayList<>();
+        for (DiffItem item : differences) {
+            boolean inside = path.isEmpty() || path.equals("$") || item.getPath().equals(path)
+                    || item.getPath().startsWith(path + ".") || item.getPath().startsWith(path + "[");
+            boolean typeMatches = mask == 0 || (mask & (1 << item.getType().ordinal())) != 0;
+            boolean depthMatches = (minDepth <= 0 || item.getDepth() >= minDepth)
+                    && (maxDepth <= 0 || item.getDepth() <= maxDepth);
+            if (inside && typeMatches && depthMatches) {
+                result.add(item);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 两个列表依次是同一个差异项实例
+     */
+    private static void assertSameOrder(List<DiffItem> expected, List<DiffItem> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertSame(expected.get(i), actual.get(i));
+        }
+    }
+
+    /**
+     * 两个列表包含相同的差异项实例（不论顺序），且没有重复
+     */
+    private static void assertSameItems(List<DiffItem> expected, List<DiffItem> actual) {
+        assertEquals(expected.size(), actual.size());
+        Set<DiffItem> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        seen.addAll(expected);
+        for (DiffItem item : actual) {
+            assertTrue(seen.remove(item), "多出或重复的差异项: " + item.getPath());
+        }
+    }
+}
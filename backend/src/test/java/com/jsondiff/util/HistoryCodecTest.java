@@ -0,0 +1,131 @@
+package com.jsondiff.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.jsondiff.model.CompareSettings;
+import com.jsondiff.model.DiffItem;
+import com.jsondiff.model.HistoryEntry;
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 对比历史编码测试
+ */
+class HistoryCodecTest {
+
+    private final ObjectMapper mapper = ExactNumbers.newMapper();
+
+    @Test
+    void roundTripAcrossBlocks() throws Exception {
+        List<DiffItem> items = items(HistoryCodec.BLOCK_SIZE * 2 + 17);
+        byte[] bytes = encode(entry(items.size()), items);
+
+        HistoryEntry header = HistoryCodec.readHeader(new ByteArrayInputStream(bytes), bytes.length);
+        assertEquals("h1", header.getId());
+        assertEquals(items.size(), header.getTotalDifferences());
+        assertEquals(json(items), json(read(bytes, 0, Integer.MAX_VALUE)));
+    }
+
+    @Test
+    void pagesMatchSlicesOfAllItems() throws Exception {
+        List<DiffItem> items = items(HistoryCodec.BLOCK_SIZE * 3 + 5);
+        byte[] bytes = encode(entry(items.size()), items);
+
+        int[][] pages = {{0, 10}, {HistoryCodec.BLOCK_SIZE - 3, 7}, {HistoryCodec.BLOCK_SIZE * 2, 1},
+                {HistoryCodec.BLOCK_SIZE * 3, 100}, {items.size() + 10, 5}};
+        for (int[] page : pages) {
+            int from = Math.min(page[0], items.size());
+            int to = Math.min(from + page[1], items.size());
+            assertEquals(json(items.subList(from, to)), json(read(bytes, page[0], page[1])));
+        }
+    }
+
+    @Test
+    void emptyEntryRoundTrips() throws Exception {
+        byte[] bytes = encode(entry(0), List.of());
+        assertEquals(0, read(bytes, 0, 10).size());
+    }
+
+    @Test
+    void truncatedOrCorruptedFilesAreRejected() throws Exception {
+        List<DiffItem> items = items(HistoryCodec.BLOCK_SIZE + 1);
+        byte[] bytes = encode(entry(items.size()), items);
+
+        for (int length : new int[]{3, 10, bytes.length / 2, bytes.length - 1}) {
+            byte[] truncated = Arrays.copyOf(bytes, length);
+            assertThrows(IOException.class, () -> read(truncated, 0, Integer.MAX_VALUE));
+        }
+
+        // 魔数、头部长度和id之后是名称的长度，改成远超文件大小的值
+        byte[] corrupted = bytes.clone();
+        corrupted[8] = (byte) 0xff;
+        corrupted[9] = (byte) 0xff;
+        corrupted[10] = (byte) 0xff;
+        corrupted[11] = (byte) 0x7f;
+        assertThrows(IOException.class,
+                () -> HistoryCodec.readHeader(new ByteArrayInputStream(corrupted), corrupted.length));
+    }
+
+    private List<DiffItem> items(int count) {
+        ObjectNode left = mapper.createObjectNode();
+        ObjectNode right = mapper.createObjectNode();
+        ObjectNode[] groups = new ObjectNode[7];
+        ObjectNode[] others = new ObjectNode[7];
+        for (int g = 0; g < groups.length; g++) {
+            groups[g] = left.putObject("g" + g);
+            others[g] = right.putObject("g" + g);
+        }
+        for (int i = 0; i < count; i++) {
+            ObjectNode group = groups[i % 7];
+            ObjectNode other = others[i % 7];
+            switch (i % 4) {
+                case 0 -> group.put("k" + i, i);
+                case 1 -> other.putArray("k" + i).add("v" + i).add(1.5).add(true);
+                case 2 -> {
+                    group.put("k" + i, "text" + i);
+                    other.put("k" + i, i * 10L);
+                }
+                default -> {
+                    group.put("k" + i, new BigDecimal("0.1000000000000000001"));
+                    other.putNull("k" + i);
+                }
+            }
+        }
+        List<DiffItem> items = new JsonComparator(new CompareSettings()).compare(left, right).getDifferences();
+        assertEquals(count, items.size());
+        return items;
+    }
+
+    private HistoryEntry entry(int count) {
+        HistoryEntry entry = new HistoryEntry();
+        entry.setId("h1");
+        entry.setName("测试");
+        entry.setCreatedAt(LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS));
+        entry.setTotalDifferences(count);
+        return entry;
+    }
+
+    private byte[] encode(HistoryEntry entry, List<DiffItem> items) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        HistoryCodec.write(entry, items, out);
+        return out.toByteArray();
+    }
+
+    private List<DiffItem> read(byte[] bytes, int offset, int limit) throws IOException {
+        return HistoryCodec.readItems(new ByteArrayInputStream(bytes), bytes.length, offset, limit);
+    }
+
+    private String json(List<DiffItem> items) throws IOException {
+        return mapper.writeValueAsString(items);
+    }
+}
@@ -0,0 +1,71 @@
+package com.jsondiff.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jsondiff.model.CompareSettings;
+import com.jsondiff.model.DiffResult;
+import org.junit.jupiter.api.Test;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 数值精确比较测试
+ */
+class JsonComparatorNumberTest {
+
+    private final ObjectMapper mapper = ExactNumbers.newMapper();
+
+    @Test
+    void decimalsBeyondDoublePrecisionAreDifferent() throws Exception {
+        assertEquals(1, differences("{\"a\":1.00000000000000001}", "{\"a\":1}", new CompareSettings()));
+        assertEquals(1, differences("{\"a\":0.1000000000000000001}", "{\"a\":0.1}", new CompareSettings()));
+    }
+
+    @Test
+    void equalValuesInDifferentNotationsAreEqual() throws Exception {
+        assertEquals(0, differences("{\"a\":1.0,\"b\":1.50,\"c\":1e2}", "{\"a\":1,\"b\":1.5,\"c\":100}",
+                new CompareSettings()));
+    }
+
+    @Test
+    void largeLongsAreComparedExactly() throws Exception {
+        assertEquals(1, differences("{\"a\":9007199254740993}", "{\"a\":9007199254740992}", new CompareSettings()));
+        assertEquals(1, differences("{\"a\":12345678901234567890123}", "{\"a\":12345678901234567890124}",
+                new CompareSettings()));
+    }
+
+    @Test
+    void toleranceAppliesOnlyWhenConfigured() throws Exception {
+        CompareSettings absolute = new CompareSettings();
+        absolute.setNumberTolerance(1e-9);
+        assertEquals(0, differences("{\"a\":0.1}", "{\"a\":0.1000000000001}", absolute));
+        assertEquals(1, differences("{\"a\":100}", "{\"a\":101}", absolute));
+
+        CompareSettings relative = new CompareSettings();
+        relative.setRelativeTolerance(0.01);
+        assertEquals(0, differences("{\"a\":100}", "{\"a\":101}", relative));
+    }
+
+    @Test
+    void inlineRequestValuesKeepDecimalPrecision() throws Exception {
+        Map<?, ?> request = mapper.readValue(
+                "{\"left\":{\"a\":1.00000000000000001},\"right\":{\"a\":1}}", Map.class);
+        DiffResult result = new JsonComparator(new CompareSettings()).compare(request.get("left"), request.get("right"));
+        assertEquals(1, result.getTotalDifferences());
+    }
+
+    @Test
+    void structuralHashAgreesWithExactComparison() throws Exception {
+        CompareSettings settings = new CompareSettings();
+        settings.setIgnoreOrder(true);
+        assertEquals(0, differences("[1.0, 2, 0.50]", "[0.5, 2, 1]", settings));
+        assertEquals(1, differences("[1.00000000000000001, 2]", "[2, 1]", settings));
+    }
+
+    private int differences(String left, String right, CompareSettings settings) throws Exception {
+        JsonNode leftNode = mapper.readTree(left);
+        JsonNode rightNode = mapper.readTree(right);
+        return new JsonComparator(settings).compare(leftNode, rightNode).getTotalDifferences();
+    }
+}
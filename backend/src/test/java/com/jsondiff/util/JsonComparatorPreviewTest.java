@@ -0,0 +1,55 @@
+package com.jsondiff.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.jsondiff.model.CompareSettings;
+import com.jsondiff.model.DiffItem;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 预览模式测试 - 超过预览长度的值截断输出并标记
+ */
+class JsonComparatorPreviewTest {
+
+    private final ObjectMapper mapper = ExactNumbers.newMapper();
+
+    @Test
+    void longStringModificationsAreCapped() {
+        String large = "X".repeat(100_000);
+        DiffItem item = modified(large + "1", large + "2", preview(false));
+        assertEquals("XXXXXXXXXX...", item.getOldValue());
+        assertEquals("XXXXXXXXXX...", item.getNewValue());
+        assertTrue(item.getTruncated());
+
+        // 忽略大小写时只归一化截断后的部分
+        DiffItem folded = modified(large + "1", large + "2", preview(true));
+        assertEquals("xxxxxxxxxx...", folded.getOldValue());
+        assertTrue(folded.getTruncated());
+    }
+
+    @Test
+    void shortStringModificationsAreInlined() {
+        DiffItem item = modified("abc", "abd", preview(false));
+        assertEquals("abc", item.getOldValue());
+        assertEquals("abd", item.getNewValue());
+        assertNull(item.getTruncated());
+    }
+
+    private DiffItem modified(String left, String right, CompareSettings settings) {
+        ObjectNode leftNode = mapper.createObjectNode().put("a", left);
+        ObjectNode rightNode = mapper.createObjectNode().put("a", right);
+        return new JsonComparator(settings).compare(leftNode, rightNode).getDifferences().get(0);
+    }
+
+    private static CompareSettings preview(boolean ignoreCase) {
+        CompareSettings settings = new CompareSettings();
+        settings.setValueMode(CompareSettings.ValueMode.PREVIEW);
+        settings.setPreviewLength(10);
+        settings.setCaseSensitive(!ignoreCase);
+        return settings;
+    }
+}
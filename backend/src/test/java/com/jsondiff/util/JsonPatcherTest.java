@@ -0,0 +1,113 @@
+package com.jsondiff.util;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jsondiff.model.PatchOperation;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * JSON Patch执行器测试
+ */
+class JsonPatcherTest {
+
+    private final ObjectMapper mapper = ExactNumbers.newMapper();
+
+    @Test
+    void appliesAllOperationTypes() throws Exception {
+        JsonPatcher patcher = patch("{\"a\":{\"b\":[1,2,3]},\"c\":\"x\",\"a/b\":{\"~k\":1}}",
+                "[{\"op\":\"add\",\"path\":\"/a/b/1\",\"value\":9},"
+                        + "{\"op\":\"add\",\"path\":\"/a/b/-\",\"value\":4},"
+                        + "{\"op\":\"remove\",\"path\":\"/a/b/0\"},"
+                        + "{\"op\":\"replace\",\"path\":\"/c\",\"value\":{\"y\":true}},"
+                        + "{\"op\":\"move\",\"from\":\"/c/y\",\"path\":\"/d\"},"
+                        + "{\"op\":\"copy\",\"from\":\"/a/b\",\"path\":\"/e\"},"
+                        + "{\"op\":\"replace\",\"path\":\"/a~1b/~0k\",\"value\":2},"
+                        + "{\"op\":\"test\",\"path\":\"/e/0\",\"value\":9.0}]");
+
+        assertEquals(mapper.readTree("{\"a\":{\"b\":[9,2,3,4]},\"c\":{},\"a/b\":{\"~k\":2},\"d\":true,\"e\":[9,2,3,4]}"),
+                patcher.getRoot());
+        assertEquals(List.of("/a/b", "/a/b", "/a/b", "/c", "/c/y", "/d", "/e", "/a~1b/~0k"), patcher.getTouched());
+        assertTrue(patcher.getSizeDelta() > 0);
+    }
+
+    @Test
+    void failedPatchUndoesEveryAppliedOperation() throws Exception {
+        String original = "{\"a\":{\"b\":[1,2,3]},\"c\":\"x\"}";
+        JsonNode root = mapper.readTree(original);
+        JsonPatcher patcher = new JsonPatcher(root);
+        List<PatchOperation> operations = operations("[{\"op\":\"add\",\"path\":\"/a/b/0\",\"value\":0},"
+                + "{\"op\":\"remove\",\"path\":\"/a/b/3\"},"
+                + "{\"op\":\"replace\",\"path\":\"/c\",\"value\":[1]},"
+                + "{\"op\":\"move\",\"from\":\"/a/b\",\"path\":\"/f\"},"
+                + "{\"op\":\"copy\",\"from\":\"/f\",\"path\":\"/a/g\"},"
+                + "{\"op\":\"add\",\"path\":\"\",\"value\":{\"new\":1}},"
+                + "{\"op\":\"test\",\"path\":\"/new\",\"value\":2}]");
+
+        assertThrows(IllegalArgumentException.class, () -> patcher.apply(operations));
+        assertSame(root, patcher.getRoot());
+        assertEquals(mapper.readTree(original), root);
+        assertTrue(patcher.getTouched().isEmpty());
+        assertEquals(0, patcher.getSizeDelta());
+    }
+
+    @Test
+    void invalidOperationsAreRejected() throws Exception {
+        String document = "{\"a\":[1,2],\"o\":{\"k\":1}}";
+        String[] invalid = {
+                "{\"op\":\"add\",\"path\":\"/a/01\",\"value\":0}",
+                "{\"op\":\"add\",\"path\":\"/a/3\",\"value\":0}",
+                "{\"op\":\"remove\",\"path\":\"/a/2\"}",
+                "{\"op\":\"remove\",\"path\":\"\"}",
+                "{\"op\":\"remove\",\"path\":\"/o/missing\"}",
+                "{\"op\":\"replace\",\"path\":\"/o/missing\",\"value\":1}",
+                "{\"op\":\"move\",\"from\":\"/o\",\"path\":\"/o/k2\"}",
+                "{\"op\":\"copy\",\"from\":\"/missing\",\"path\":\"/x\"}",
+                "{\"op\":\"add\",\"path\":\"/missing/x\",\"value\":1}",
+                "{\"op\":\"add\",\"path\":\"a\",\"value\":1}",
+                "{\"op\":\"unknown\",\"path\":\"/a\"}",
+                "{\"path\":\"/a\"}"
+        };
+        for (String operation : invalid) {
+            JsonNode root = mapper.readTree(document);
+            JsonPatcher patcher = new JsonPatcher(root);
+            assertThrows(IllegalArgumentException.class, () -> patcher.apply(operations("[" + operation + "]")),
+                    operation);
+            assertEquals(mapper.readTree(document), root, operation);
+        }
+    }
+
+    @Test
+    void patcherCanBeReusedAfterFailure() throws Exception {
+        JsonNode root = mapper.readTree("{\"a\":1}");
+        JsonPatcher patcher = new JsonPatcher(root);
+        assertThrows(IllegalArgumentException.class,
+                () -> patcher.apply(operations("[{\"op\":\"remove\",\"path\":\"/b\"}]")));
+        patcher.apply(operations("[{\"op\":\"add\",\"path\":\"/b\",\"value\":2}]"));
+        assertEquals(mapper.readTree("{\"a\":1,\"b\":2}"), patcher.getRoot());
+        assertEquals(List.of("/b"), patcher.getTouched());
+    }
+
+    @Test
+    void pointerTokensAreDecoded() {
+        assertEquals(List.of(), JsonPatcher.tokens(""));
+        assertEquals(List.of("a/b", "~c", ""), JsonPatcher.tokens("/a~1b/~0c/"));
+        assertEquals(List.of("~1"), JsonPatcher.tokens("/~01"));
+    }
+
+    private JsonPatcher patch(String document, String operations) throws Exception {
+        JsonPatcher patcher = new JsonPatcher(mapper.readTree(document));
+        patcher.apply(operations(operations));
+        return patcher;
+    }
+
+    private List<PatchOperation> operations(String json) throws Exception {
+        return mapper.readValue(json, new TypeReference<List<PatchOperation>>() { });
+    }
+}
@@ -0,0 +1,63 @@
+package com.jsondiff.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jsondiff.model.DiffItem;
+import com.jsondiff.model.DiffResult;
+import com.jsondiff.model.ExportConfig;
+import com.jsondiff.model.ExportConfig.ExportFormat;
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 报告输出器测试 - 差异项的值逐个写出时不逐个刷新输出流
+ */
+class ReportWriterTest {
+
+    private final ObjectMapper mapper = ExactNumbers.newMapper();
+
+    @Test
+    void valuesDoNotFlushTheStream() throws Exception {
+        for (ExportFormat format : ExportFormat.values()) {
+            CountingStream out = new CountingStream();
+            ExportConfig config = new ExportConfig();
+            config.setFormat(format);
+            DiffResult result = new DiffResult();
+            try (ReportWriter writer = ReportWriter.create(out, config)) {
+                writer.writeHeader();
+                for (int i = 0; i < 1000; i++) {
+                    DiffItem item = DiffItem.of(DiffItem.DiffType.MODIFIED, "$.k" + i, "$", "k" + i, 2);
+                    item.setOldValue(mapper.getNodeFactory().numberNode(i));
+                    item.setNewValue(mapper.readTree("{\"v\":" + i + "}"));
+                    result.addDifference(item);
+                    writer.accept(item);
+                }
+                writer.writeFooter(result, null, null);
+            }
+
+            // 每256个差异项刷新一次，另加关闭时的刷新
+            assertTrue(out.flushes <= 1000 / 256 + 2, format + " 刷新 " + out.flushes + " 次");
+            assertTrue(out.flushes >= 1, format.toString());
+            if (format == ExportFormat.JSON) {
+                JsonNode report = mapper.readTree(out.toString(StandardCharsets.UTF_8));
+                assertEquals(1000, report.get("differences").size());
+            }
+        }
+    }
+
+    /**
+     * 记录刷新次数的输出流
+     */
+    private static final class CountingStream extends ByteArrayOutputStream {
+        private int flushes;
+
+        @Override
+        public void flush() {
+            flushes++;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.jsondiff.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.jsondiff.model.CompareSettings;
+import com.jsondiff.model.DiffItem;
+import com.jsondiff.model.DiffResult;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 流式对比测试 - 结果应与树模型对比一致
+ */
+class StreamingJsonComparatorTest {
+
+    private final ObjectMapper mapper = ExactNumbers.newMapper();
+
+    @Test
+    void matchesTreeComparatorOnRandomDocuments() throws Exception {
+        Random random = new Random(17);
+        List<CompareSettings> variants = new ArrayList<>();
+        variants.add(new CompareSettings());
+        CompareSettings ignoreOrder = new CompareSettings();
+        ignoreOrder.setIgnoreOrder(true);
+        variants.add(ignoreOrder);
+        CompareSettings lcs = new CompareSettings();
+        lcs.setArrayMode(CompareSettings.ArrayMode.LCS);
+        variants.add(lcs);
+        CompareSettings keyed = new CompareSettings();
+        keyed.setArrayKeys(Map.of("$.items", List.of("id")));
+        variants.add(keyed);
+
+        for (int round = 0; round < 200; round++) {
+            JsonNode left = randomDocument(random);
+            JsonNode right = randomDocument(random);
+            for (CompareSettings settings : variants) {
+                String leftJson = mapper.writeValueAsString(left);
+                String rightJson = mapper.writeValueAsString(right);
+                DiffResult expected = new JsonComparator(settings).compare(mapper.readTree(leftJson),
+                        mapper.readTree(rightJson));
+                DiffResult actual = stream(leftJson, rightJson, settings);
+                assertEquals(describe(expected), describe(actual), leftJson + " / " + rightJson);
+                assertEquals(expected.getTotalDifferences(), actual.getTotalDifferences());
+            }
+        }
+    }
+
+    @Test
+    void reorderedFieldsAndExactNumbers() throws Exception {
+        assertEquals(0, stream("{\"a\":1,\"b\":{\"c\":[1,2]}}", "{\"b\":{\"c\":[1,2]},\"a\":1.0}",
+                new CompareSettings()).getTotalDifferences());
+        assertEquals(1, stream("{\"a\":1.00000000000000001}", "{\"a\":1}", new CompareSettings())
+                .getTotalDifferences());
+        assertEquals(1, stream("{\"a\":0.1000000000000000001}", "{\"a\":0.1}", new CompareSettings())
+                .getTotalDifferences());
+    }
+
+    @Test
+    void listenerReceivesItemsBeforeRootIsRead() throws Exception {
+        StringBuilder left = new StringBuilder("[");
+        StringBuilder right = new StringBuilder("[");
+        for (int i = 0; i < 5000; i++) {
+            left.append(i == 0 ? "" : ",").append("{\"id\":").append(i).append('}');
+            right.append(i == 0 ? "" : ",").append("{\"id\":").append(i == 0 ? -1 : i).append('}');
+        }
+        left.append(']');
+        right.append(']');
+
+        try (JsonParser leftParser = mapper.getFactory().createParser(left.toString());
+             JsonParser rightParser = mapper.getFactory().createParser(right.toString())) {
+            // 记录每个差异项到达监听器时左侧读取到的位置
+            List<Long> offsets = new ArrayList<>();
+            StreamingJsonComparator comparator = new StreamingJsonComparator(new CompareSettings(),
+                    item -> offsets.add(leftParser.currentLocation().getCharOffset()));
+            DiffResult result = comparator.compare(leftParser, rightParser);
+
+            assertTrue(result.getDifferences().isEmpty());
+            assertEquals(1, offsets.size());
+            assertTrue(offsets.get(0) < left.length() / 100, "差异项在读取完根数组后才到达: " + offsets.get(0));
+        }
+    }
+
+    @Test
+    void maxDifferencesTruncatesResult() throws Exception {
+        CompareSettings settings = new CompareSettings();
+        settings.setMaxDifferences(2);
+        DiffResult result = stream("[1,2,3,4,5]", "[5,4,3,2,1]", settings);
+        assertEquals(2, result.getTotalDifferences());
+        assertTrue(result.isTruncated());
+    }
+
+    @Test
+    void exactlyMaxDifferencesIsNotTruncated() throws Exception {
+        CompareSettings settings = new CompareSettings();
+        settings.setMaxDifferences(2);
+        DiffResult streamed = stream("[1,2,3,4]", "[1,5,3,6]", settings);
+        assertEquals(2, streamed.getTotalDifferences());
+        assertFalse(streamed.isTruncated());
+
+        DiffResult tree = new JsonComparator(settings).compare(mapper.readTree("{\"a\":1,\"b\":2,\"c\":3}"),
+                mapper.readTree("{\"a\":0,\"b\":2,\"c\":0}"));
+        assertEquals(2, tree.getTotalDifferences());
+        assertFalse(tree.isTruncated());
+        assertTrue(new JsonComparator(settings).compare(mapper.readTree("[1,2,3]"), mapper.readTree("[4,5,6]"))
+                .isTruncated());
+    }
+
+    private DiffResult stream(String left, String right, CompareSettings settings) throws Exception {
+        try (JsonParser leftParser = mapper.getFactory().createParser(left);
+             JsonParser rightParser = mapper.getFactory().createParser(right)) {
+            return new StreamingJsonComparator(settings).compare(leftParser, rightParser);
+        }
+    }
+
+    /**
+     * 差异项按序列化后的文本排序，流式对比输出的顺序可以不同
+     */
+    private List<String> describe(DiffResult result) throws Exception {
+        List<String> items = new ArrayList<>();
+        for (DiffItem item : result.getDifferences()) {
+            items.add(mapper.writeValueAsString(item));
+        }
+        items.sort(null);
+        return items;
+    }
+
+    private JsonNode randomDocument(Random random) {
+        ObjectNode document = mapper.createObjectNode();
+        for (int i = random.nextInt(5); i >= 0; i--) {
+            document.set("f" + random.nextInt(6), randomValue(random, 2));
+        }
+        ArrayNode items = document.putArray("items");
+        for (int i = random.nextInt(5); i > 0; i--) {
+            ObjectNode item = items.addObject();
+            item.put("id", random.nextInt(4));
+            item.put("v", random.nextInt(3));
+        }
+        return document;
+    }
+
+    private JsonNode randomValue(Random random, int depth) {
+        switch (random.nextInt(depth > 0 ? 6 : 4)) {
+            case 0:
+                return mapper.getNodeFactory().numberNode(random.nextInt(3));
+            case 1:
+                return mapper.getNodeFactory().textNode(random.nextBoolean() ? "a" : "b");
+            case 2:
+                return mapper.getNodeFactory().booleanNode(random.nextBoolean());
+            case 3:
+                return mapper.getNodeFactory().nullNode();
+            case 4:
+                ArrayNode array = mapper.createArrayNode();
+                for (int i = random.nextInt(4); i > 0; i--) {
+                    array.add(randomValue(random, depth - 1));
+                }
+                return array;
+            default:
+                ObjectNode object = mapper.createObjectNode();
+                for (int i = random.nextInt(3); i > 0; i--) {
+                    object.set("k" + random.nextInt(3), randomValue(random, depth - 1));
+                }
+                return object;
+        }
+    }
+}
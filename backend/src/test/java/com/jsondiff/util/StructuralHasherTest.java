@@ -0,0 +1,173 @@
+package com.jsondiff.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.jsondiff.model.CompareSettings;
+import org.junit.jupiter.api.Test;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 结构哈希测试
+ */
+class StructuralHasherTest {
+
+    private final ObjectMapper mapper = ExactNumbers.newMapper();
+
+    @Test
+    void objectHashIgnoresFieldOrder() throws Exception {
+        assertEquals(hash("{\"a\":1,\"b\":[1,2],\"c\":{\"d\":null}}", new CompareSettings()),
+                hash("{\"c\":{\"d\":null},\"b\":[1,2],\"a\":1}", new CompareSettings()));
+        assertNotEquals(hash("{\"a\":1,\"b\":2}", new CompareSettings()), hash("{\"a\":2,\"b\":1}", new CompareSettings()));
+        assertNotEquals(hash("{\"a\":1}", new CompareSettings()), hash("{\"b\":1}", new CompareSettings()));
+    }
+
+    @Test
+    void arrayOrderMattersOnlyWithoutIgnoreOrder() throws Exception {
+        CompareSettings ordered = new CompareSettings();
+        assertNotEquals(hash("[1,2,3]", ordered), hash("[3,2,1]", ordered));
+
+        CompareSettings unordered = new CompareSettings();
+        unordered.setIgnoreOrder(true);
+        assertEquals(hash("[1,2,3]", unordered), hash("[3,2,1]", unordered));
+        assertNotEquals(hash("[1,1,2]", unordered), hash("[1,2,2]", unordered));
+    }
+
+    @Test
+    void decimalsWithCollidingBigIntegerHashesDiffer() throws Exception {
+        // 未缩放值31和2^32的BigInteger.hashCode()相同，标度都是2
+        CompareSettings settings = new CompareSettings();
+        assertNotEquals(hash("[0.31]", settings), hash("[42949672.96]", settings));
+        assertNotEquals(hash("{\"a\":0.31}", settings), hash("{\"a\":42949672.96}", settings));
+        assertEquals(hash("[0.310]", settings), hash("[0.31]", settings));
+    }
+
+    @Test
+    void stringHashFollowsSettings() throws Exception {
+        CompareSettings settings = new CompareSettings();
+        assertEquals(hash("[\" a \"]", settings), hash("[\"a\"]", settings));
+        assertNotEquals(hash("[\"A\"]", settings), hash("[\"a\"]", settings));
+
+        settings.setCaseSensitive(false);
+        assertEquals(hash("[\"ÄBC\"]", settings), hash("[\"äbc\"]", settings));
+
+        settings.setIgnoreWhitespace(false);
+        assertNotEquals(hash("[\" a\"]", settings), hash("[\"a\"]", settings));
+    }
+
+    @Test
+    void indexRecordsEveryContainer() throws Exception {
+        StructuralHasher hasher = new StructuralHasher(new CompareSettings());
+        JsonNode node = mapper.readTree("{\"a\":[{\"b\":1},{\"c\":[]}],\"d\":2}");
+        long hash = hasher.index(node);
+        assertEquals(5, hasher.size());
+        assertEquals(hash, hasher.get(node));
+        assertEquals(hasher.index(node.get("a")), hasher.get(node.get("a")));
+    }
+
+    @Test
+    void equalHashImpliesNoDifferences() {
+        Random random = new Random(11);
+        for (boolean ignoreOrder : new boolean[]{false, true}) {
+            CompareSettings settings = new CompareSettings();
+            settings.setIgnoreOrder(ignoreOrder);
+            settings.setCaseSensitive(!ignoreOrder);
+            List<JsonNode> documents = new ArrayList<>();
+            for (int i = 0; i < 300; i++) {
+                documents.add(randomNode(random, 3));
+            }
+            int equalPairs = 0;
+            for (int i = 0; i < documents.size(); i++) {
+                for (int j = i + 1; j < documents.size(); j++) {
+                    JsonNode left = documents.get(i);
+                    JsonNode right = documents.get(j);
+                    int differences = new JsonComparator(settings).compare(left, right).getTotalDifferences();
+                    boolean sameHash = new StructuralHasher(settings).index(left)
+                            == new StructuralHasher(settings).index(right);
+                    if (sameHash) {
+                        equalPairs++;
+                        assertEquals(0, differences, left + " / " + right);
+                    } else {
+                        assertTrue(differences > 0, left + " / " + right);
+                    }
+                }
+            }
+            assertTrue(equalPairs > 0, "随机文档中没有相等的组合");
+        }
+    }
+
+    @Test
+    void collidingSubtreesAreStillCompared() throws Exception {
+        // 所有数值哈希相同，两侧子树的哈希相同但内容不同
+        CompareSettings hashed = new CompareSettings();
+        hashed.setStructuralHash(true);
+        CompareSettings unordered = new CompareSettings();
+        unordered.setIgnoreOrder(true);
+        for (CompareSettings settings : List.of(hashed, unordered)) {
+            JsonComparator comparator = new JsonComparator(settings);
+            comparator.setPreparedHashes(new CollidingHasher(settings), new CollidingHasher(settings));
+            assertEquals(1, comparator.compare(mapper.readTree("{\"a\":{\"b\":0.31}}"),
+                    mapper.readTree("{\"a\":{\"b\":42949672.96}}")).getTotalDifferences());
+        }
+    }
+
+    private long hash(String json, CompareSettings settings) throws Exception {
+        return new StructuralHasher(settings).index(mapper.readTree(json));
+    }
+
+    /**
+     * 取值范围很小的随机文档，保证出现足够多相等或等价的组合
+     */
+    private JsonNode randomNode(Random random, int depth) {
+        int kind = random.nextInt(depth > 0 ? 8 : 6);
+        switch (kind) {
+            case 0:
+                return mapper.getNodeFactory().nullNode();
+            case 1:
+                return mapper.getNodeFactory().booleanNode(random.nextBoolean());
+            case 2:
+                return mapper.getNodeFactory().numberNode(random.nextInt(2));
+            case 3:
+                return mapper.getNodeFactory().numberNode(new BigDecimal(random.nextBoolean() ? "1.0" : "0.50"));
+            case 4:
+                return mapper.getNodeFactory().textNode(random.nextBoolean() ? "a" : " A");
+            case 5:
+                return mapper.getNodeFactory().textNode("b");
+            case 6:
+                ArrayNode array = mapper.createArrayNode();
+                for (int i = random.nextInt(3); i > 0; i--) {
+                    array.add(randomNode(random, depth - 1));
+                }
+                return array;
+            default:
+                ObjectNode object = mapper.createObjectNode();
+                for (int i = random.nextInt(3); i > 0; i--) {
+                    object.set(random.nextBoolean() ? "x" : "y", randomNode(random, depth - 1));
+                }
+                return object;
+        }
+    }
+
+    /**
+     * 所有数值哈希相同的结构哈希
+     */
+    private static final class CollidingHasher extends StructuralHasher {
+
+        CollidingHasher(CompareSettings settings) {
+            super(settings);
+        }
+
+        @Override
+        public long index(JsonNode node) {
+            return node != null && node.isNumber() ? 7 : super.index(node);
+        }
+    }
+}
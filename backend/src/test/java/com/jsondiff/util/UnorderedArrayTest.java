@@ -0,0 +1,125 @@
+package com.jsondiff.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.jsondiff.model.CompareSettings;
+import com.jsondiff.model.DiffItem;
+import com.jsondiff.model.DiffResult;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 忽略顺序的数组多重集匹配测试
+ */
+class UnorderedArrayTest {
+
+    private final ObjectMapper mapper = ExactNumbers.newMapper();
+
+    @Test
+    void permutationsWithDuplicatesAreEqual() throws Exception {
+        assertEquals(0, compare("[1, 2, 2, 3, 1]", "[2, 1, 3, 1, 2]").getTotalDifferences());
+        assertEquals(0, compare("[{\"a\":[1,2],\"b\":\"x\"}, {\"b\":1}]", "[{\"b\":1}, {\"b\":\"x\",\"a\":[2,1]}]")
+                .getTotalDifferences());
+    }
+
+    @Test
+    void duplicateCountsMatter() throws Exception {
+        DiffResult modified = compare("[1, 1, 2]", "[1, 2, 2]");
+        assertEquals(1, modified.getTotalDifferences());
+        DiffItem item = modified.getDifferences().get(0);
+        assertEquals(DiffItem.DiffType.MODIFIED, item.getType());
+        assertEquals("$[1]", item.getPath());
+
+        DiffResult removed = compare("[1, 1]", "[1]");
+        assertEquals(1, removed.getRemovedCount());
+        assertEquals(0, removed.getAddedCount());
+    }
+
+    @Test
+    void unmatchedElementsArePairedThenAddedOrRemoved() throws Exception {
+        DiffResult result = compare("[3, {\"id\":1,\"v\":1}]", "[{\"id\":1,\"v\":2}, 3, true, false]");
+        assertEquals(1, result.getModifiedCount());
+        assertEquals(2, result.getAddedCount());
+        assertEquals("$[1].v", result.getDifferences().get(0).getPath());
+    }
+
+    @Test
+    void largeShuffledArrayMatchesAndFindsSingleChange() {
+        Random random = new Random(3);
+        List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            values.add(random.nextInt(1000));
+        }
+        ArrayNode left = mapper.createArrayNode();
+        values.forEach(left::add);
+        Collections.shuffle(values, random);
+        ArrayNode right = mapper.createArrayNode();
+        values.forEach(right::add);
+
+        assertEquals(0, new JsonComparator(settings()).compare(left, right).getTotalDifferences());
+
+        right.set(123, mapper.getNodeFactory().numberNode(5000));
+        DiffResult changed = new JsonComparator(settings()).compare(left, right);
+        assertEquals(1, changed.getTotalDifferences());
+        assertEquals(5000, ((JsonNode) changed.getDifferences().get(0).getNewValue())
+                .intValue());
+    }
+
+    @Test
+    void hashCollisionsAreNotTreatedAsMatches() throws Exception {
+        // 所有数值的哈希相同，候选元素需要逐个确认
+        String[][] cases = {
+                {"[1, 2, 3]", "[3, 4, 1, 5]"},
+                {"[{\"a\":1}, {\"a\":2}]", "[{\"a\":3}, {\"a\":1}, {\"a\":2}]"},
+                {"[[1, 2], [3, 4]]", "[[2, 1], [5, 6], [4, 3]]"},
+        };
+        for (String[] pair : cases) {
+            DiffResult expected = compare(pair[0], pair[1]);
+            JsonComparator colliding = new JsonComparator(settings());
+            colliding.setPreparedHashes(new CollidingHasher(), new CollidingHasher());
+            DiffResult actual = colliding.compare(mapper.readTree(pair[0]), mapper.readTree(pair[1]));
+            assertEquals(paths(expected), paths(actual), pair[0] + " / " + pair[1]);
+            assertEquals(expected.getModifiedCount(), actual.getModifiedCount());
+        }
+    }
+
+    private static List<String> paths(DiffResult result) {
+        List<String> paths = new ArrayList<>();
+        for (DiffItem item : result.getDifferences()) {
+            paths.add(item.getType().toJson() + " " + item.getPath());
+        }
+        return paths;
+    }
+
+    /**
+     * 所有数值哈希相同的结构哈希
+     */
+    private static final class CollidingHasher extends StructuralHasher {
+
+        CollidingHasher() {
+            super(settings());
+        }
+
+        @Override
+        public long index(JsonNode node) {
+            return node != null && node.isNumber() ? 7 : super.index(node);
+        }
+    }
+
+    private DiffResult compare(String left, String right) throws Exception {
+        return new JsonComparator(settings()).compare(mapper.readTree(left), mapper.readTree(right));
+    }
+
+    private static CompareSettings settings() {
+        CompareSettings settings = new CompareSettings();
+        settings.setIgnoreOrder(true);
+        settings.setIncludeArrayLength(false);
+        return settings;
+    }
+}